@@ -10,6 +10,7 @@ package org.sosy_lab.cpachecker.cfa;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Iterables;
+import com.google.common.hash.HashCode;
 import com.google.common.io.MoreFiles;
 import java.io.FileNotFoundException;
 import java.io.IOException;
@@ -30,6 +31,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.logging.Level;
 import java.util.zip.GZIPOutputStream;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.Concurrency;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
@@ -205,6 +207,18 @@ public class CFACreator {
   @FileOption(FileOption.Type.OUTPUT_FILE)
   private Path serializeCfaFile = Paths.get("cfa.ser.gz");
 
+  @Option(
+      secure = true,
+      name = "cfa.snapshotFile",
+      description =
+          "Load the CFA from this file instead of parsing the program, if the file was created"
+              + " for the same source files with the same CFA-related options. Otherwise the CFA"
+              + " is created as usual and stored in this file for later runs."
+              + " Files included by the preprocessor are not checked for modifications."
+              + " Like other output files, relative paths are resolved in the output directory.")
+  @FileOption(FileOption.Type.OUTPUT_FILE)
+  private @Nullable Path snapshotFile = null;
+
   @Option(
     secure = true,
     name = "cfa.pixelGraphicFile",
@@ -289,6 +303,7 @@ public class CFACreator {
     private final Timer checkTime = new Timer();
     private final Timer processingTime = new Timer();
     private final Timer exportTime = new Timer();
+    private final Timer snapshotTime = new Timer();
     private final List<Statistics> statisticsCollection;
     private final LogManager logger;
 
@@ -314,6 +329,9 @@ public class CFACreator {
       if (exportTime.getNumberOfIntervals() > 0) {
         out.println("    Time for CFA export:      " + exportTime);
       }
+      if (snapshotTime.getNumberOfIntervals() > 0) {
+        out.println("    Time for CFA snapshot:    " + snapshotTime);
+      }
 
       for (Statistics st : statisticsCollection) {
         StatisticsUtils.printStatistics(st, out, logger, pResult, pReached);
@@ -420,6 +438,22 @@ public class CFACreator {
 
     stats.totalTime.start();
     try {
+      HashCode sourceHash = null;
+      if (snapshotFile != null && language == Language.C) {
+        stats.snapshotTime.start();
+        try {
+          sourceHash = CFASnapshot.computeSourceHash(sourceFiles, config);
+          Optional<CFA> snapshot = CFASnapshot.read(snapshotFile, sourceHash, logger);
+          if (snapshot.isPresent()) {
+            logger.log(Level.INFO, "Using CFA from snapshot", snapshotFile);
+            exportCFAIfRequested(snapshot.orElseThrow());
+            return snapshot.orElseThrow();
+          }
+        } finally {
+          stats.snapshotTime.stop();
+        }
+      }
+
       // FIRST, parse file(s) and create CFAs for each function
       logger.log(Level.FINE, "Starting parsing of file(s)");
 
@@ -440,7 +474,20 @@ public class CFACreator {
         throw new AssertionError();
       }
 
-      return createCFA(c, mainFunction);
+      CFA cfa = createCFA(c, mainFunction);
+
+      if (sourceHash != null) {
+        stats.snapshotTime.start();
+        try {
+          CFASnapshot.write(cfa, snapshotFile, sourceHash);
+        } catch (IOException e) {
+          logger.logUserException(Level.WARNING, e, "Could not write CFA snapshot.");
+        } finally {
+          stats.snapshotTime.stop();
+        }
+      }
+
+      return cfa;
 
     } finally {
       stats.totalTime.stop();
@@ -570,14 +617,7 @@ public class CFACreator {
     assert CFACheck.check(mainFunction, null, machineModel);
     stats.checkTime.stop();
 
-    if (((exportCfaFile != null) && (exportCfa || exportCfaPerFunction))
-        || ((exportFunctionCallsFile != null) && exportFunctionCalls)
-        || ((exportFunctionCallsUsedFile != null) && exportFunctionCalls)
-        || ((serializeCfaFile != null) && serializeCfa)
-        || (exportCfaPixelFile != null)
-        || (exportCfaToCFile != null && exportCfaToC)) {
-      exportCFAAsync(immutableCFA);
-    }
+    exportCFAIfRequested(immutableCFA);
 
     logger.log(Level.FINE, "DONE, CFA for", immutableCFA.getNumberOfFunctions(), "functions created.");
 
@@ -981,6 +1021,17 @@ v.addInitializer(initializer);
     }
   }
 
+  private void exportCFAIfRequested(final CFA cfa) {
+    if (((exportCfaFile != null) && (exportCfa || exportCfaPerFunction))
+        || ((exportFunctionCallsFile != null) && exportFunctionCalls)
+        || ((exportFunctionCallsUsedFile != null) && exportFunctionCalls)
+        || ((serializeCfaFile != null) && serializeCfa)
+        || (exportCfaPixelFile != null)
+        || (exportCfaToCFile != null && exportCfaToC)) {
+      exportCFAAsync(cfa);
+    }
+  }
+
   private void exportCFAAsync(final CFA cfa) {
     // Execute asynchronously, this may take several seconds for large programs on slow disks.
     // This is safe because we don't modify the CFA from this point on.
@@ -0,0 +1,173 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cfa;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.MoreFiles;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Optional;
+import java.util.logging.Level;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.core.CPAchecker;
+
+/**
+ * Snapshot of a fully created CFA (including loop structure, variable classification, live
+ * variables, and dependence graph) that can be loaded instead of parsing and post-processing the
+ * program again.
+ *
+ * <p>A snapshot file consists of a small uncompressed header followed by the gzip-compressed
+ * serialized {@link ImmutableCFA}. The header contains a format version, the version of
+ * CPAchecker, and a hash of the contents of all source files and of all options that influence
+ * the CFA creation. A snapshot is used only if all of these match, otherwise it is ignored and
+ * the CFA is created from the source files as usual. Note that files included by the
+ * preprocessor are not part of the hash.
+ */
+final class CFASnapshot {
+
+  private static final int MAGIC = 0x43464153; // "CFAS"
+  private static final int FORMAT_VERSION = 1;
+
+  /**
+   * Prefixes of all options that are relevant for the creation of the CFA and its metadata. Most
+   * of them are in the "cfa" and "parser" namespaces, but a few are in the "analysis" namespace,
+   * which we can not include completely because it also contains all options of the analysis
+   * itself.
+   */
+  private static final ImmutableList<String> RELEVANT_OPTION_PREFIXES =
+      ImmutableList.of(
+          "cfa.",
+          "parser.",
+          "locmapper.",
+          "liveVar.",
+          "dependencegraph.",
+          "language ",
+          "analysis.entryFunction ",
+          "analysis.machineModel ",
+          "analysis.interprocedural ",
+          "analysis.functionPointer",
+          "analysis.matchAssignedFunctionPointers",
+          "analysis.replaceFunctionWithParameterPointer ",
+          "analysis.replacedFunctionsWithParameters ",
+          "analysis.summaryEdges ",
+          "analysis.threadOperationsTransform ",
+          "analysis.useGlobalVars ",
+          "analysis.useLoopStructure ");
+
+  private CFASnapshot() {}
+
+  /**
+   * Compute a hash that identifies the CFA that would be created for the given source files with
+   * the given configuration.
+   */
+  static HashCode computeSourceHash(List<String> pSourceFiles, Configuration pConfig)
+      throws IOException {
+    Hasher hasher = Hashing.sha256().newHasher();
+    for (String sourceFile : pSourceFiles) {
+      hasher.putString(sourceFile, UTF_8);
+      hasher.putChar('\0');
+      hasher.putBytes(Files.readAllBytes(Paths.get(sourceFile)));
+      hasher.putChar('\0');
+    }
+    // asPropertiesString() is sorted, so this is deterministic
+    for (String line : Splitter.on('\n').split(pConfig.asPropertiesString())) {
+      if (RELEVANT_OPTION_PREFIXES.stream().anyMatch(line::startsWith)) {
+        hasher.putString(line, UTF_8);
+        hasher.putChar('\n');
+      }
+    }
+    return hasher.hash();
+  }
+
+  /**
+   * Load a CFA from a snapshot file if the snapshot exists and matches the given hash.
+   *
+   * @return The loaded CFA, or an empty Optional if the snapshot is missing, outdated, or broken.
+   */
+  static Optional<CFA> read(Path pFile, HashCode pSourceHash, LogManager pLogger) {
+    try (InputStream in = new BufferedInputStream(Files.newInputStream(pFile));
+        DataInputStream header = new DataInputStream(in)) {
+      if (header.readInt() != MAGIC
+          || header.readInt() != FORMAT_VERSION
+          || !header.readUTF().equals(CPAchecker.getPlainVersion())) {
+        pLogger.log(Level.INFO, "Ignoring CFA snapshot", pFile, "of different version.");
+        return Optional.empty();
+      }
+      if (!header.readUTF().equals(pSourceHash.toString())) {
+        pLogger.log(
+            Level.INFO,
+            "Ignoring CFA snapshot",
+            pFile,
+            "because the program or the CFA options have changed.");
+        return Optional.empty();
+      }
+
+      try (ObjectInputStream ois = new ObjectInputStream(new GZIPInputStream(in))) {
+        return Optional.of((ImmutableCFA) ois.readObject());
+      }
+
+    } catch (NoSuchFileException e) {
+      return Optional.empty();
+    } catch (IOException | ClassNotFoundException | ClassCastException e) {
+      // Also covers InvalidClassException for snapshots from development versions
+      // whose classes have changed in the meantime.
+      pLogger.logUserException(Level.INFO, e, "Could not load CFA snapshot, ignoring it");
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Write a snapshot of a CFA. The file is replaced atomically if possible, such that concurrent
+   * runs never see an incomplete snapshot.
+   */
+  static void write(CFA pCfa, Path pFile, HashCode pSourceHash) throws IOException {
+    MoreFiles.createParentDirectories(pFile);
+    Path tmpFile = Files.createTempFile(pFile.toAbsolutePath().getParent(), "cfa", ".tmp");
+    try {
+      try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmpFile))) {
+        DataOutputStream header = new DataOutputStream(out);
+        header.writeInt(MAGIC);
+        header.writeInt(FORMAT_VERSION);
+        header.writeUTF(CPAchecker.getPlainVersion());
+        header.writeUTF(pSourceHash.toString());
+        header.flush();
+
+        try (ObjectOutputStream oos = new ObjectOutputStream(new GZIPOutputStream(out))) {
+          oos.writeObject(pCfa);
+        }
+      }
+      Files.move(
+          tmpFile, pFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(tmpFile);
+    }
+  }
+}
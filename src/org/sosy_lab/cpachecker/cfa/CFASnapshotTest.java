@@ -0,0 +1,112 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cfa;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth8.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.hash.HashCode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.ConfigurationBuilder;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.converters.FileTypeConverter;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.ast.ASimpleDeclaration;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.util.LiveVariables;
+
+public class CFASnapshotTest {
+
+  private static final List<String> PROGRAM =
+      ImmutableList.of("test/programs/simple/policyTest.c");
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private final LogManager logger = LogManager.createTestLogManager();
+
+  private ConfigurationBuilder configBuilder() throws Exception {
+    // relative output files (like the snapshot) are resolved in the temporary folder
+    FileTypeConverter fileTypeConverter =
+        FileTypeConverter.create(
+            Configuration.builder()
+                .setOption("output.path", tempFolder.getRoot().toString())
+                .build());
+    return Configuration.builder()
+        .addConverter(FileOption.class, fileTypeConverter)
+        .setOption("cfa.findLiveVariables", "true");
+  }
+
+  private CFA createCFA(Configuration pConfig) throws Exception {
+    return new CFACreator(pConfig, logger, ShutdownNotifier.createDummy())
+        .parseFileAndCreateCFA(PROGRAM);
+  }
+
+  private static ImmutableSetMultimap<Integer, String> liveVariableNames(CFA pCfa) {
+    LiveVariables liveVariables = pCfa.getLiveVariables().orElseThrow();
+    ImmutableSetMultimap.Builder<Integer, String> result = ImmutableSetMultimap.builder();
+    for (CFANode node : pCfa.getAllNodes()) {
+      for (ASimpleDeclaration decl : liveVariables.getLiveVariablesForNode(node)) {
+        result.put(node.getNodeNumber(), decl.getQualifiedName());
+      }
+    }
+    return result.build();
+  }
+
+  @Test
+  public void roundTripWithLiveVariables() throws Exception {
+    Configuration config = configBuilder().build();
+    CFA cfa = createCFA(config);
+    assertThat(cfa.getLiveVariables()).isPresent();
+
+    Path file = tempFolder.getRoot().toPath().resolve("cfa.snapshot");
+    HashCode hash = CFASnapshot.computeSourceHash(PROGRAM, config);
+    CFASnapshot.write(cfa, file, hash);
+
+    CFA loaded = CFASnapshot.read(file, hash, logger).orElseThrow();
+    assertThat(loaded.getAllNodes()).hasSize(cfa.getAllNodes().size());
+    assertThat(loaded.getLiveVariables()).isPresent();
+    assertThat(liveVariableNames(loaded)).isEqualTo(liveVariableNames(cfa));
+    assertThat(loaded.getVarClassification()).isPresent();
+  }
+
+  @Test
+  public void snapshotOptionWritesAndReadsSnapshot() throws Exception {
+    Configuration config = configBuilder().setOption("cfa.snapshotFile", "cfa.snapshot").build();
+    CFA cfa = createCFA(config);
+    assertThat(Files.exists(tempFolder.getRoot().toPath().resolve("cfa.snapshot"))).isTrue();
+
+    CFA loaded = createCFA(config);
+    assertThat(loaded).isNotSameInstanceAs(cfa);
+    assertThat(loaded.getLiveVariables()).isPresent();
+    assertThat(liveVariableNames(loaded)).isEqualTo(liveVariableNames(cfa));
+  }
+
+  @Test
+  public void nodesCreatedAfterLoadingGetFreshNumbers() throws Exception {
+    Configuration config = configBuilder().build();
+    CFA cfa = createCFA(config);
+    Path file = tempFolder.getRoot().toPath().resolve("cfa.snapshot");
+    HashCode hash = CFASnapshot.computeSourceHash(PROGRAM, config);
+    CFASnapshot.write(cfa, file, hash);
+
+    CFA loaded = CFASnapshot.read(file, hash, logger).orElseThrow();
+    int maxNodeNumber =
+        loaded.getAllNodes().stream().mapToInt(CFANode::getNodeNumber).max().orElseThrow();
+    assertThat(CFANode.newDummyCFANode("dummy").getNodeNumber()).isGreaterThan(maxNodeNumber);
+  }
+}
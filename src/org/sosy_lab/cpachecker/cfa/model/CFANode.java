@@ -21,7 +21,7 @@ import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
-import org.sosy_lab.common.UniqueIdGenerator;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.sosy_lab.cpachecker.cfa.ast.AFunctionDeclaration;
 import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
 import org.sosy_lab.cpachecker.cfa.ast.c.CFunctionDeclaration;
@@ -32,7 +32,8 @@ public class CFANode implements Comparable<CFANode>, Serializable {
 
   private static final long serialVersionUID = 5168350921309486536L;
 
-  private static final UniqueIdGenerator idGenerator = new UniqueIdGenerator();
+  // not a UniqueIdGenerator, because reading a serialized CFA needs to advance it
+  private static final AtomicInteger nextNodeNumber = new AtomicInteger();
 
   private final int nodeNumber;
 
@@ -71,7 +72,7 @@ public class CFANode implements Comparable<CFANode>, Serializable {
 
   public CFANode(AFunctionDeclaration pFunction) {
     function = pFunction;
-    nodeNumber = idGenerator.getFreshId();
+    nodeNumber = nextNodeNumber.getAndIncrement();
   }
 
   public int getNodeNumber() {
@@ -287,6 +288,10 @@ public class CFANode implements Comparable<CFANode>, Serializable {
     // leaving and entering edges have to be updated explicitly after reading a node
     leavingEdges = new ArrayList<>(1);
     enteringEdges = new ArrayList<>(1);
+
+    // Nodes created after reading a CFA (e.g., by analyses) need to get fresh node numbers
+    // that do not collide with the node numbers of the nodes that were read.
+    nextNodeNumber.accumulateAndGet(nodeNumber + 1, Math::max);
   }
 
   public void addOutOfScopeVariables(Collection<CSimpleDeclaration> pOutOfScopeVariables) {
@@ -26,6 +26,7 @@ import org.sosy_lab.cpachecker.core.algorithm.AssumptionCollectorAlgorithm;
 import org.sosy_lab.cpachecker.core.algorithm.BDDCPARestrictionAlgorithm;
 import org.sosy_lab.cpachecker.core.algorithm.CEGARAlgorithm.CEGARAlgorithmFactory;
 import org.sosy_lab.cpachecker.core.algorithm.CPAAlgorithm;
+import org.sosy_lab.cpachecker.core.algorithm.ConcurrentCPAAlgorithm;
 import org.sosy_lab.cpachecker.core.algorithm.CounterexampleStoreAlgorithm;
 import org.sosy_lab.cpachecker.core.algorithm.CustomInstructionRequirementsExtractingAlgorithm;
 import org.sosy_lab.cpachecker.core.algorithm.ExceptionHandlingAlgorithm;
@@ -33,6 +34,7 @@ import org.sosy_lab.cpachecker.core.algorithm.ExternalCBMCAlgorithm;
 import org.sosy_lab.cpachecker.core.algorithm.MPIPortfolioAlgorithm;
 import org.sosy_lab.cpachecker.core.algorithm.NoopAlgorithm;
 import org.sosy_lab.cpachecker.core.algorithm.ParallelAlgorithm;
+import org.sosy_lab.cpachecker.core.algorithm.ProcessPortfolioAlgorithm;
 import org.sosy_lab.cpachecker.core.algorithm.ProgramSplitAlgorithm;
 import org.sosy_lab.cpachecker.core.algorithm.RestartAlgorithm;
 import org.sosy_lab.cpachecker.core.algorithm.RestartWithConditionsAlgorithm;
@@ -176,6 +178,14 @@ public class CoreComponentsFactory {
         + "get aborted.")
   private boolean useMPIProcessAlgorithm = false;
 
+  @Option(
+      secure = true,
+      name = "algorithm.processPortfolio",
+      description =
+          "Run analyses in separate processes on the local machine. The result is the one of the "
+              + "first analysis returning in time. All other processes will get terminated.")
+  private boolean useProcessPortfolioAlgorithm = false;
+
   @Option(
       secure = true,
       name = "algorithm.termination",
@@ -203,6 +213,16 @@ public class CoreComponentsFactory {
       description="memorize previously used (incomplete) reached sets after a restart of the analysis")
   private boolean memorizeReachedAfterRestart = false;
 
+  @Option(
+      secure = true,
+      name = "algorithm.concurrentCPA",
+      description =
+          "use several threads for exploring the state space with the CPA algorithm"
+              + " (cf. option cpa.concurrent.numberOfThreads)."
+              + "\nAll used CPAs need to support concurrent exploration,"
+              + " in particular ARGCPA cannot be used.")
+  private boolean useConcurrentCPAAlgorithm = false;
+
   @Option(secure=true, name="algorithm.analysisWithEnabler",
       description="use a analysis which proves if the program satisfies a specified property"
           + " with the help of an enabler CPA to separate differnt program paths")
@@ -399,8 +419,15 @@ public class CoreComponentsFactory {
     } else if (useMPIProcessAlgorithm) {
       algorithm = new MPIPortfolioAlgorithm(config, logger, shutdownNotifier, specification);
 
+    } else if (useProcessPortfolioAlgorithm) {
+      algorithm = new ProcessPortfolioAlgorithm(config, logger, shutdownNotifier, specification);
+
     } else {
-      algorithm = CPAAlgorithm.create(cpa, logger, config, shutdownNotifier);
+      if (useConcurrentCPAAlgorithm) {
+        algorithm = new ConcurrentCPAAlgorithm(cpa, config, logger, shutdownNotifier);
+      } else {
+        algorithm = CPAAlgorithm.create(cpa, logger, config, shutdownNotifier);
+      }
 
       if (constructResidualProgram) {
         algorithm = new ResidualProgramConstructionAlgorithm(cfa, config, logger, shutdownNotifier,
@@ -595,6 +622,7 @@ public class CoreComponentsFactory {
         || useRestartingAlgorithm
         || useHeuristicSelectionAlgorithm
         || useParallelAlgorithm
+        || useProcessPortfolioAlgorithm
         || useProofCheckAlgorithmWithStoredConfig
         || useProofCheckWithARGCMCStrategy
         || asConditionalVerifier
@@ -43,6 +43,7 @@ import org.sosy_lab.common.configuration.FileOption.Type;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.configuration.TimeSpanOption;
 import org.sosy_lab.common.io.IO;
 import org.sosy_lab.common.io.PathTemplate;
 import org.sosy_lab.common.log.LogManager;
@@ -71,6 +72,7 @@ import org.sosy_lab.cpachecker.util.coverage.CoverageReportStdoutSummary;
 import org.sosy_lab.cpachecker.util.cwriter.CExpressionInvariantExporter;
 import org.sosy_lab.cpachecker.util.resources.MemoryStatistics;
 import org.sosy_lab.cpachecker.util.resources.ProcessCpuTime;
+import org.sosy_lab.cpachecker.util.statistics.LiveMetrics;
 import org.sosy_lab.cpachecker.util.statistics.StatInt;
 import org.sosy_lab.cpachecker.util.statistics.StatKind;
 import org.sosy_lab.cpachecker.util.statistics.StatisticsUtils;
@@ -100,6 +102,23 @@ class MainCPAStatistics implements Statistics {
     description="track memory usage of JVM during runtime")
   private boolean monitorMemoryUsage = true;
 
+  @Option(
+      secure = true,
+      name = "statistics.live.file",
+      description =
+          "export live metrics of the running analysis (e.g., size of reached set and waitlist,"
+              + " number of refinements and solver calls) periodically to this file,"
+              + " one JSON object per line")
+  @FileOption(FileOption.Type.OUTPUT_FILE)
+  private @Nullable Path liveMetricsFile = null;
+
+  @Option(
+      secure = true,
+      name = "statistics.live.interval",
+      description = "interval for exporting live metrics (use seconds or specify a unit)")
+  @TimeSpanOption(codeUnit = TimeUnit.MILLISECONDS, defaultUserUnit = TimeUnit.SECONDS, min = 1)
+  private TimeSpan liveMetricsInterval = TimeSpan.ofSeconds(5);
+
   @Option(
     secure = true,
     name = "cinvariants.export",
@@ -132,6 +151,7 @@ class MainCPAStatistics implements Statistics {
   private final @Nullable MemoryStatistics memStats;
   private final @Nullable CExpressionInvariantExporter cExpressionInvariantExporter;
   private Thread memStatsThread;
+  private LiveMetrics.@Nullable Exporter liveMetricsExporter = null;
 
   private final Timer programTime = new Timer();
   final Timer creationTime = new Timer();
@@ -163,6 +183,14 @@ class MainCPAStatistics implements Statistics {
       memStats = null;
     }
 
+    if (liveMetricsFile != null) {
+      try {
+        liveMetricsExporter = LiveMetrics.startExport(liveMetricsFile, liveMetricsInterval, logger);
+      } catch (IOException e) {
+        logger.logUserException(Level.WARNING, e, "Could not write live metrics");
+      }
+    }
+
     programTime.start();
     try {
       programCpuTime = ProcessCpuTime.read();
@@ -265,6 +293,10 @@ class MainCPAStatistics implements Statistics {
     if (memStats != null) {
       memStatsThread.interrupt(); // stop memory statistics collection
     }
+    if (liveMetricsExporter != null) {
+      liveMetricsExporter.stop(); // writes final values
+      liveMetricsExporter = null;
+    }
 
     final Timer statisticsTime = new Timer();
     statisticsTime.start();
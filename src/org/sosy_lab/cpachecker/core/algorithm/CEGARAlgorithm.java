@@ -43,8 +43,11 @@ import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
 import org.sosy_lab.cpachecker.cpa.value.refiner.UnsoundRefiner;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.exceptions.RefinementFailedException;
+import org.sosy_lab.cpachecker.util.CPAs;
+import org.sosy_lab.cpachecker.util.statistics.LiveMetrics;
 
-public class CEGARAlgorithm implements Algorithm, StatisticsProvider, ReachedSetUpdater {
+public class CEGARAlgorithm
+    implements Algorithm, StatisticsProvider, ReachedSetUpdater, AutoCloseable {
 
   private static class CEGARStatistics implements Statistics {
 
@@ -211,6 +214,7 @@ public class CEGARAlgorithm implements Algorithm, StatisticsProvider, ReachedSet
 
     // don't store it because we wouldn't know when to unregister anyway
     new CEGARMBean().register();
+    LiveMetrics.register("cegar.refinements", stats, s -> s.countRefinements);
   }
 
   @Override
@@ -322,6 +326,15 @@ public class CEGARAlgorithm implements Algorithm, StatisticsProvider, ReachedSet
     pStatsCollection.add(stats);
   }
 
+  /**
+   * Release the resources of the refiner (e.g., additional solver instances). The refiner may be
+   * shared with other instances created by the same factory, so it needs to allow further use.
+   */
+  @Override
+  public void close() {
+    CPAs.closeIfPossible(mRefiner, logger);
+  }
+
   @Override
   public void register(ReachedSetUpdateListener pReachedSetUpdateListener) {
     if (algorithm instanceof ReachedSetUpdater) {
@@ -49,7 +49,10 @@ import org.sosy_lab.cpachecker.cpa.arg.ARGMergeJoinCPAEnabledAnalysis;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.util.AbstractStates;
 import org.sosy_lab.cpachecker.util.Pair;
+import org.sosy_lab.cpachecker.util.resources.MemoryPressure;
+import org.sosy_lab.cpachecker.util.resources.ThreadMemoryAllocation;
 import org.sosy_lab.cpachecker.util.statistics.AbstractStatValue;
+import org.sosy_lab.cpachecker.util.statistics.LiveMetrics;
 import org.sosy_lab.cpachecker.util.statistics.StatCounter;
 import org.sosy_lab.cpachecker.util.statistics.StatHist;
 import org.sosy_lab.cpachecker.util.statistics.StatInt;
@@ -77,6 +80,13 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
     private int   countStop         = 0;
     private int   countBreak        = 0;
 
+    // only for live metrics, updated once per iteration
+    private int   currentWaitlistSize   = 0;
+    private int   currentReachedSetSize = 0;
+
+    // bytes allocated by the analysis thread, or -1 if the JVM cannot measure this
+    private long  allocatedBytes    = 0;
+
     private Map<String, AbstractStatValue> reachedSetStatistics = new HashMap<>();
 
     private void stopAllTimers() {
@@ -90,6 +100,14 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
       forcedCoveringTimer.stopIfRunning();
     }
 
+    private void updateAllocatedBytes(long pBefore, long pAfter) {
+      if (pBefore < 0 || pAfter < 0 || allocatedBytes < 0) {
+        allocatedBytes = -1;
+      } else {
+        allocatedBytes += pAfter - pBefore;
+      }
+    }
+
     private void updateReachedSetStatistics(Map<String, AbstractStatValue> newStatistics) {
       for (Entry<String, AbstractStatValue> e : newStatistics.entrySet()) {
         String key = e.getKey();
@@ -142,6 +160,15 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
       out.println("Number of times merged:          " + countMerge);
       out.println("Number of times stopped:         " + countStop);
       out.println("Number of times breaked:         " + countBreak);
+      long totalMillis = totalTimer.getSumTime().asMillis();
+      if (totalMillis > 0) {
+        out.println(
+            "Processed states per second:     " + (countIterations * 1000L / totalMillis));
+      }
+      if (allocatedBytes >= 0 && countIterations > 0) {
+        out.println(
+            "Allocated bytes per state:       " + (allocatedBytes / countIterations));
+      }
       out.println();
       out.println("Total time for CPA algorithm:     " + totalTimer + " (Max: " + totalTimer.getMaxTime().formatAs(TimeUnit.SECONDS) + ")");
       out.println("  Time for choose from waitlist:  " + chooseTimer);
@@ -236,15 +263,21 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
     this.shutdownNotifier = pShutdownNotifier;
     this.forcedCovering = pForcedCovering;
     status = AlgorithmStatus.SOUND_AND_PRECISE.withPrecise(!pIsImprecise);
+
+    LiveMetrics.register("cpa.iterations", stats, s -> s.countIterations);
+    LiveMetrics.register("cpa.waitlist.size", stats, s -> s.currentWaitlistSize);
+    LiveMetrics.register("cpa.reached.size", stats, s -> s.currentReachedSetSize);
   }
 
   @Override
   public AlgorithmStatus run(final ReachedSet reachedSet) throws CPAException, InterruptedException {
     stats.totalTimer.start();
+    final long allocatedBefore = ThreadMemoryAllocation.readCurrentThread();
     try {
       return run0(reachedSet);
     } finally {
       stats.stopAllTimers();
+      stats.updateAllocatedBytes(allocatedBefore, ThreadMemoryAllocation.readCurrentThread());
       stats.updateReachedSetStatistics(reachedSet.getStatistics());
     }
   }
@@ -252,6 +285,8 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
   private AlgorithmStatus run0(final ReachedSet reachedSet) throws CPAException, InterruptedException {
     while (reachedSet.hasWaitingState()) {
       shutdownNotifier.shutdownIfNecessary();
+      // safe point for releasing memory, no component is in the middle of an operation
+      MemoryPressure.reduceMemoryUsageIfRequested();
 
       stats.countIterations++;
 
@@ -262,6 +297,8 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
         stats.maxWaitlistSize = size;
       }
       stats.countWaitlistSize += size;
+      stats.currentWaitlistSize = size;
+      stats.currentReachedSetSize = reachedSet.size();
 
       stats.chooseTimer.start();
       final AbstractState state = reachedSet.popFromWaitlist();
@@ -0,0 +1,537 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core.algorithm;
+
+import com.google.common.base.Functions;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.Striped;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.Classes.UnexpectedCheckedException;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.defaults.MergeSepOperator;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
+import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysisWithConcurrency;
+import org.sosy_lab.cpachecker.core.interfaces.MergeOperator;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.interfaces.PrecisionAdjustment;
+import org.sosy_lab.cpachecker.core.interfaces.PrecisionAdjustmentResult;
+import org.sosy_lab.cpachecker.core.interfaces.PrecisionAdjustmentResult.Action;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
+import org.sosy_lab.cpachecker.core.interfaces.StopOperator;
+import org.sosy_lab.cpachecker.core.interfaces.TransferRelation;
+import org.sosy_lab.cpachecker.core.reachedset.ForwardingReachedSet;
+import org.sosy_lab.cpachecker.core.reachedset.PartitionedReachedSet;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
+import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
+import org.sosy_lab.cpachecker.exceptions.CPAException;
+import org.sosy_lab.cpachecker.util.AbstractStates;
+import org.sosy_lab.cpachecker.util.Pair;
+import org.sosy_lab.cpachecker.util.statistics.StatTimer;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
+import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer;
+import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer.TimerWrapper;
+
+/**
+ * Multi-threaded variant of {@link CPAAlgorithm}. Several worker threads take states from the
+ * shared waitlist and compute their successors in parallel.
+ *
+ * <p>Merge and stop are computed while holding a lock for the program location of the successor,
+ * such that successors at different program locations can be handled in parallel. Only the actual
+ * modifications of the reached set are serialized. This is sound if the reached set is partitioned
+ * by program location, which is the case for {@link PartitionedReachedSet} (and its subclasses)
+ * whenever LocationCPA is used. For other reached sets all merge and stop operations are
+ * serialized and only the transfer relation is computed in parallel.
+ *
+ * <p>The algorithm requires a CPA that supports concurrent exploration as defined by {@link
+ * ConfigurableProgramAnalysisWithConcurrency}. In particular, ARGCPA is not supported.
+ */
+@Options(prefix = "cpa.concurrent")
+public class ConcurrentCPAAlgorithm implements Algorithm, StatisticsProvider {
+
+  @Option(
+      secure = true,
+      description =
+          "number of threads, positive values match exactly, "
+              + "with -1 we use the number of available cores of the machine.")
+  private int numberOfThreads = -1;
+
+  @Option(
+      secure = true,
+      description =
+          "number of locks that are used for protecting the partitions of the reached set, "
+              + "more locks reduce the contention between threads")
+  private int numberOfPartitionLocks = 256;
+
+  private static class ConcurrentCPAStatistics implements Statistics {
+
+    private final StatTimer totalTimer = new StatTimer("Total time for concurrent CPA algorithm");
+    private final ThreadSafeTimerContainer transferTime =
+        new ThreadSafeTimerContainer("Time for transfer relation");
+    private final ThreadSafeTimerContainer precisionTime =
+        new ThreadSafeTimerContainer("Time for precision adjustment");
+    private final ThreadSafeTimerContainer mergeTime =
+        new ThreadSafeTimerContainer("Time for merge operator");
+    private final ThreadSafeTimerContainer stopTime =
+        new ThreadSafeTimerContainer("Time for stop operator");
+    private final ThreadSafeTimerContainer lockWaitTime =
+        new ThreadSafeTimerContainer("Time waiting for partition locks");
+    private final ThreadSafeTimerContainer idleTime =
+        new ThreadSafeTimerContainer("Time waiting for states in waitlist");
+
+    private final LongAdder countIterations = new LongAdder();
+    private final LongAdder countSuccessors = new LongAdder();
+    private final LongAdder countMerge = new LongAdder();
+    private final LongAdder countStop = new LongAdder();
+    private int usedThreads = 0;
+
+    @Override
+    public String getName() {
+      return "Concurrent CPA algorithm";
+    }
+
+    @Override
+    public void printStatistics(PrintStream out, Result pResult, UnmodifiableReachedSet pReached) {
+      StatisticsWriter.writingStatisticsTo(out)
+          .put("Number of threads", usedThreads)
+          .put("Number of iterations", countIterations.sum())
+          .put("Number of computed successors", countSuccessors.sum())
+          .put("Number of times merged", countMerge.sum())
+          .put("Number of times stopped", countStop.sum())
+          .spacer()
+          .put(totalTimer)
+          .beginLevel()
+          .put(transferTime)
+          .put(precisionTime)
+          .put(mergeTime)
+          .put(stopTime)
+          .put(lockWaitTime)
+          .put(idleTime);
+    }
+  }
+
+  private final ConcurrentCPAStatistics stats = new ConcurrentCPAStatistics();
+
+  private final ConfigurableProgramAnalysis cpa;
+  private final MergeOperator mergeOperator;
+  private final StopOperator stopOperator;
+  private final LogManager logger;
+  private final ShutdownNotifier shutdownNotifier;
+
+  public ConcurrentCPAAlgorithm(
+      ConfigurableProgramAnalysis pCpa,
+      Configuration pConfig,
+      LogManager pLogger,
+      ShutdownNotifier pShutdownNotifier)
+      throws InvalidConfigurationException {
+    pConfig.inject(this);
+    if (!(pCpa instanceof ConfigurableProgramAnalysisWithConcurrency)
+        || !((ConfigurableProgramAnalysisWithConcurrency) pCpa).supportsConcurrentExploration()) {
+      throw new InvalidConfigurationException(
+          "The concurrent CPA algorithm needs a CPA that supports concurrent exploration, "
+              + "but "
+              + pCpa.getClass().getSimpleName()
+              + " (or one of its components) does not.");
+    }
+    if (numberOfThreads == 0 || numberOfThreads < -1) {
+      throw new InvalidConfigurationException(
+          "Number of threads can only be a positive number or -1.");
+    }
+    if (numberOfPartitionLocks <= 0) {
+      throw new InvalidConfigurationException("Number of partition locks needs to be positive.");
+    }
+    cpa = pCpa;
+    mergeOperator = pCpa.getMergeOperator();
+    stopOperator = pCpa.getStopOperator();
+    logger = pLogger;
+    shutdownNotifier = pShutdownNotifier;
+  }
+
+  @Override
+  public AlgorithmStatus run(ReachedSet pReachedSet) throws CPAException, InterruptedException {
+    stats.totalTimer.start();
+    try {
+      return run0(pReachedSet);
+    } finally {
+      stats.totalTimer.stop();
+    }
+  }
+
+  private AlgorithmStatus run0(ReachedSet pReachedSet) throws CPAException, InterruptedException {
+    final int threads = getNumberOfThreads();
+    stats.usedThreads = Math.max(stats.usedThreads, threads);
+    logger.logf(Level.INFO, "Exploring state space with %d threads", threads);
+
+    final Exploration exploration = new Exploration(pReachedSet);
+    final ExecutorService pool =
+        Executors.newFixedThreadPool(
+            threads,
+            new ThreadFactoryBuilder()
+                .setDaemon(true) // for killing hanging threads at program exit
+                .setNameFormat("ConcurrentCPA-thread-%d")
+                .build());
+
+    final List<Throwable> errors = new ArrayList<>();
+    try {
+      List<Future<Void>> workers = new ArrayList<>(threads);
+      for (int i = 0; i < threads; i++) {
+        workers.add(pool.submit(new Worker(exploration)));
+      }
+      for (Future<Void> worker : workers) {
+        try {
+          worker.get();
+        } catch (ExecutionException e) {
+          errors.add(e.getCause());
+        }
+      }
+    } finally {
+      // workers re-add their current state to the waitlist when they are interrupted,
+      // so we need to wait for them before the reached set can be used again
+      if (!MoreExecutors.shutdownAndAwaitTermination(pool, 10, TimeUnit.SECONDS)) {
+        logger.log(Level.WARNING, "Some threads of the concurrent CPA algorithm did not stop.");
+      }
+    }
+
+    if (!errors.isEmpty()) {
+      Throwable error = errors.get(0);
+      for (Throwable other : errors.subList(1, errors.size())) {
+        error.addSuppressed(other);
+      }
+      if (error instanceof CPAException) {
+        throw (CPAException) error;
+      } else if (error instanceof InterruptedException) {
+        throw (InterruptedException) error;
+      } else if (error instanceof RuntimeException) {
+        throw (RuntimeException) error;
+      } else if (error instanceof Error) {
+        throw (Error) error;
+      } else {
+        throw new UnexpectedCheckedException("concurrent CPA algorithm", error);
+      }
+    }
+
+    return AlgorithmStatus.SOUND_AND_PRECISE;
+  }
+
+  private int getNumberOfThreads() {
+    if (numberOfThreads > 0) {
+      return numberOfThreads;
+    }
+    Preconditions.checkState(numberOfThreads == -1);
+    return Runtime.getRuntime().availableProcessors();
+  }
+
+  /**
+   * The state that is shared by all workers of one run. All accesses to the reached set are
+   * synchronized on this object.
+   */
+  private final class Exploration {
+
+    private final ReachedSet reachedSet;
+    private final boolean partitionedByLocation;
+    private final Striped<Lock> partitionLocks = Striped.lock(numberOfPartitionLocks);
+
+    /** number of workers that currently handle a state and thus might add new states */
+    private int activeWorkers = 0;
+
+    /** whether all workers should stop after finishing their current state */
+    private boolean finished = false;
+
+    private Exploration(ReachedSet pReachedSet) {
+      reachedSet = pReachedSet;
+      ReachedSet delegate = pReachedSet;
+      while (delegate instanceof ForwardingReachedSet) {
+        delegate = ((ForwardingReachedSet) delegate).getDelegate();
+      }
+      partitionedByLocation = delegate instanceof PartitionedReachedSet;
+    }
+
+    /**
+     * Take the next state from the waitlist and mark the calling worker as active. Blocks until a
+     * state is available or until the exploration is finished.
+     *
+     * @return the next state and its precision, or null if the worker should terminate
+     */
+    private synchronized @Nullable Pair<AbstractState, Precision> take()
+        throws InterruptedException {
+      while (!finished) {
+        if (reachedSet.hasWaitingState()) {
+          activeWorkers++;
+          AbstractState state = reachedSet.popFromWaitlist();
+          return Pair.of(state, reachedSet.getPrecision(state));
+        }
+        if (activeWorkers == 0) {
+          // waitlist is empty and nobody can add new states
+          finished = true;
+          notifyAll();
+          return null;
+        }
+        wait();
+      }
+      return null;
+    }
+
+    /** Mark the calling worker as no longer active. */
+    private synchronized void release() {
+      activeWorkers--;
+      notifyAll();
+    }
+
+    /** Let all workers stop after they have finished their current state. */
+    private synchronized void finish() {
+      finished = true;
+      notifyAll();
+    }
+
+    private synchronized void reAddToWaitlist(AbstractState pState) {
+      reachedSet.reAddToWaitlist(pState);
+    }
+
+    private synchronized void add(AbstractState pState, Precision pPrecision) {
+      reachedSet.add(pState, pPrecision);
+      notifyAll();
+    }
+
+    private synchronized void replace(
+        List<AbstractState> pToRemove, List<Pair<AbstractState, Precision>> pToAdd) {
+      reachedSet.removeAll(pToRemove);
+      reachedSet.addAll(pToAdd);
+      notifyAll();
+    }
+
+    /**
+     * Return a copy of the states in the same partition as the given state. The copy is necessary
+     * because other workers may modify the reached set while the caller iterates.
+     */
+    private synchronized Collection<AbstractState> getReached(AbstractState pState) {
+      return new ArrayList<>(reachedSet.getReached(pState));
+    }
+
+    /** Return the lock that protects the partition of the reached set for the given state. */
+    private Lock getPartitionLock(AbstractState pState) {
+      CFANode location = partitionedByLocation ? AbstractStates.extractLocation(pState) : null;
+      return location == null ? partitionLocks.getAt(0) : partitionLocks.get(location);
+    }
+  }
+
+  private final class Worker implements Callable<Void> {
+
+    private final Exploration exploration;
+
+    // each worker needs its own instances, cf. ConfigurableProgramAnalysisWithConcurrency
+    private final TransferRelation transferRelation = cpa.getTransferRelation();
+    private final PrecisionAdjustment precisionAdjustment = cpa.getPrecisionAdjustment();
+
+    private final TimerWrapper transferTimer = stats.transferTime.getNewTimer();
+    private final TimerWrapper precisionTimer = stats.precisionTime.getNewTimer();
+    private final TimerWrapper mergeTimer = stats.mergeTime.getNewTimer();
+    private final TimerWrapper stopTimer = stats.stopTime.getNewTimer();
+    private final TimerWrapper lockWaitTimer = stats.lockWaitTime.getNewTimer();
+    private final TimerWrapper idleTimer = stats.idleTime.getNewTimer();
+
+    private Worker(Exploration pExploration) {
+      exploration = pExploration;
+    }
+
+    @Override
+    public Void call() throws CPAException, InterruptedException {
+      try {
+        while (true) {
+          idleTimer.start();
+          Pair<AbstractState, Precision> next;
+          try {
+            next = exploration.take();
+          } finally {
+            idleTimer.stop();
+          }
+          if (next == null) {
+            return null;
+          }
+
+          AbstractState state = next.getFirst();
+          try {
+            shutdownNotifier.shutdownIfNecessary();
+            stats.countIterations.increment();
+            if (handleState(state, next.getSecond())) {
+              // Prec operator requested break
+              exploration.finish();
+            }
+          } catch (Exception e) {
+            // re-add the old state to the waitlist, there might be unhandled successors left
+            // that otherwise would be forgotten (which would be unsound)
+            exploration.reAddToWaitlist(state);
+            throw e;
+          } finally {
+            exploration.release();
+          }
+        }
+      } catch (Exception e) {
+        exploration.finish();
+        throw e;
+      }
+    }
+
+    /**
+     * Handle one state from the waitlist, cf. CPAAlgorithm.
+     *
+     * @return true if analysis should terminate, false if analysis should continue
+     */
+    private boolean handleState(final AbstractState state, final Precision precision)
+        throws CPAException, InterruptedException {
+      logger.log(Level.ALL, "Current state is", state, "with precision", precision);
+
+      transferTimer.start();
+      Collection<? extends AbstractState> successors;
+      try {
+        successors = transferRelation.getAbstractSuccessors(state, precision);
+      } finally {
+        transferTimer.stop();
+      }
+      stats.countSuccessors.add(successors.size());
+
+      for (Iterator<? extends AbstractState> it = successors.iterator(); it.hasNext(); ) {
+        AbstractState successor = it.next();
+        shutdownNotifier.shutdownIfNecessary();
+
+        precisionTimer.start();
+        PrecisionAdjustmentResult precAdjustmentResult;
+        try {
+          Optional<PrecisionAdjustmentResult> precAdjustmentOptional =
+              precisionAdjustment.prec(
+                  successor,
+                  precision,
+                  exploration.reachedSet,
+                  Functions.identity(),
+                  successor);
+          if (!precAdjustmentOptional.isPresent()) {
+            continue;
+          }
+          precAdjustmentResult = precAdjustmentOptional.orElseThrow();
+        } finally {
+          precisionTimer.stop();
+        }
+
+        successor = precAdjustmentResult.abstractState();
+        Precision successorPrecision = precAdjustmentResult.precision();
+        Action action = precAdjustmentResult.action();
+
+        Lock partitionLock = exploration.getPartitionLock(successor);
+        lockWaitTimer.start();
+        partitionLock.lock();
+        lockWaitTimer.stop();
+        try {
+          if (action == Action.BREAK) {
+            stopTimer.start();
+            boolean stop;
+            try {
+              stop =
+                  stopOperator.stop(
+                      successor, exploration.getReached(successor), successorPrecision);
+            } finally {
+              stopTimer.stop();
+            }
+
+            if (AbstractStates.isTargetState(successor) && stop) {
+              // don't signal BREAK for covered states
+              stats.countStop.increment();
+              continue;
+            }
+
+            logger.log(Level.FINER, "Break signalled, ConcurrentCPAAlgorithm will stop.");
+            exploration.add(successor, successorPrecision);
+            if (it.hasNext()) {
+              // re-add the old state to the waitlist, there are unhandled
+              // successors left that otherwise would be forgotten
+              exploration.reAddToWaitlist(state);
+            }
+            return true;
+          }
+          assert action == Action.CONTINUE : "Enum Action has unhandled values!";
+
+          Collection<AbstractState> reached = exploration.getReached(successor);
+
+          if (mergeOperator != MergeSepOperator.getInstance() && !reached.isEmpty()) {
+            mergeTimer.start();
+            List<AbstractState> toRemove = new ArrayList<>();
+            List<Pair<AbstractState, Precision>> toAdd = new ArrayList<>();
+            try {
+              for (AbstractState reachedState : reached) {
+                shutdownNotifier.shutdownIfNecessary();
+                AbstractState mergedState =
+                    mergeOperator.merge(successor, reachedState, successorPrecision);
+
+                if (!mergedState.equals(reachedState)) {
+                  stats.countMerge.increment();
+                  toRemove.add(reachedState);
+                  toAdd.add(Pair.of(mergedState, successorPrecision));
+                }
+              }
+            } finally {
+              if (!toRemove.isEmpty()) {
+                exploration.replace(toRemove, toAdd);
+              }
+              mergeTimer.stop();
+            }
+            if (!toRemove.isEmpty()) {
+              reached = exploration.getReached(successor);
+            }
+          }
+
+          stopTimer.start();
+          boolean stop;
+          try {
+            stop = stopOperator.stop(successor, reached, successorPrecision);
+          } finally {
+            stopTimer.stop();
+          }
+
+          if (stop) {
+            stats.countStop.increment();
+          } else {
+            exploration.add(successor, successorPrecision);
+          }
+        } finally {
+          partitionLock.unlock();
+        }
+      }
+
+      return false;
+    }
+  }
+
+  @Override
+  public void collectStatistics(Collection<Statistics> pStatsCollection) {
+    pStatsCollection.add(stats);
+  }
+}
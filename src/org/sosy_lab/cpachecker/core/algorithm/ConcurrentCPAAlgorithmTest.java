@@ -0,0 +1,61 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core.algorithm;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import org.junit.Test;
+import org.sosy_lab.cpachecker.util.test.CPATestRunner;
+import org.sosy_lab.cpachecker.util.test.TestResults;
+
+public class ConcurrentCPAAlgorithmTest {
+
+  private static final String PROGRAM = "test/programs/simple/explicit/explicitIgnoreFeatureVars.c";
+
+  private static TestResults run(boolean pConcurrent, String pBlacklist) throws Exception {
+    Map<String, String> prop =
+        ImmutableMap.<String, String>builder()
+            .put("analysis.algorithm.concurrentCPA", Boolean.toString(pConcurrent))
+            // without ARG, because it does not support concurrent exploration
+            .put("cpa", "cpa.composite.CompositeCPA")
+            .put(
+                "CompositeCPA.cpas",
+                "cpa.location.LocationCPA, cpa.callstack.CallstackCPA, cpa.value.ValueAnalysisCPA")
+            .put("analysis.reachedSet", "LOCATIONMAPPED")
+            .put("analysis.traversal.order", "bfs")
+            .put("cpa.concurrent.numberOfThreads", "4")
+            .put("specification", "config/specification/default.spc")
+            .put("ValueAnalysisCPA.precision.variableBlacklist", pBlacklist)
+            .build();
+    return CPATestRunner.run(prop, PROGRAM);
+  }
+
+  @Test
+  public void sameResultAsSequentialForSafeProgram() throws Exception {
+    TestResults sequential = run(false, "somethingElse");
+    TestResults concurrent = run(true, "somethingElse");
+
+    sequential.assertIsSafe();
+    concurrent.assertIsSafe();
+    assertThat(concurrent.getCheckerResult().getReached().size())
+        .isEqualTo(sequential.getCheckerResult().getReached().size());
+  }
+
+  @Test
+  public void sameResultAsSequentialForUnsafeProgram() throws Exception {
+    // ignoring the feature variable makes the error location reachable
+    TestResults sequential = run(false, "__SELECTED_FEATURE_(\\w)*");
+    TestResults concurrent = run(true, "__SELECTED_FEATURE_(\\w)*");
+
+    sequential.assertIsUnsafe();
+    concurrent.assertIsUnsafe();
+  }
+}
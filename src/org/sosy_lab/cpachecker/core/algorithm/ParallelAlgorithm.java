@@ -63,6 +63,7 @@ import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
 import org.sosy_lab.cpachecker.core.interfaces.conditions.ReachedSetAdjustingCPA;
 import org.sosy_lab.cpachecker.core.reachedset.AggregatedReachedSets;
 import org.sosy_lab.cpachecker.core.reachedset.AggregatedReachedSets.AggregatedReachedSetManager;
+import org.sosy_lab.cpachecker.core.reachedset.AnalysisInformationExchange;
 import org.sosy_lab.cpachecker.core.reachedset.ForwardingReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
@@ -94,6 +95,14 @@ public class ParallelAlgorithm implements Algorithm, StatisticsProvider {
   @FileOption(FileOption.Type.OPTIONAL_INPUT_FILE)
   private List<AnnotatedValue<Path>> configFiles;
 
+  @Option(
+      secure = true,
+      description =
+          "Let the analyses exchange intermediate results while they are running, "
+              + "e.g., predicates or value-analysis precision increments found during refinement. "
+              + "Each analysis adds the results of the others to its own precision.")
+  private boolean exchangeIntermediateResults = false;
+
   private static final String SUCCESS_MESSAGE =
       "One of the parallel analyses has finished successfully, cancelling all other runs.";
 
@@ -132,6 +141,11 @@ public class ParallelAlgorithm implements Algorithm, StatisticsProvider {
 
     aggregatedReachedSetManager = new AggregatedReachedSetManager();
     aggregatedReachedSetManager.addAggregated(pAggregatedReachedSets);
+    if (exchangeIntermediateResults) {
+      // needs to happen before the analyses are created
+      aggregatedReachedSetManager.enableInformationExchange();
+    }
+    stats.informationExchange = aggregatedReachedSetManager.asView().getInformationExchange();
 
     ImmutableList.Builder<Callable<ParallelAnalysisResult>> analysesBuilder =
         ImmutableList.builder();
@@ -566,6 +580,7 @@ public class ParallelAlgorithm implements Algorithm, StatisticsProvider {
     private final List<StatisticsEntry> allAnalysesStats = new CopyOnWriteArrayList<>();
     private int noOfAlgorithmsUsed = 0;
     private String successfulAnalysisName = null;
+    private AnalysisInformationExchange informationExchange = null;
 
     ParallelAlgorithmStatistics(LogManager pLogger) {
       logger = checkNotNull(pLogger);
@@ -590,6 +605,14 @@ public class ParallelAlgorithm implements Algorithm, StatisticsProvider {
       if (successfulAnalysisName != null) {
         out.println("Successful analysis: " + successfulAnalysisName);
       }
+      if (informationExchange != null && informationExchange.isEnabled()) {
+        out.println(
+            "Exchanged intermediate results:   "
+                + informationExchange.getNumberOfPublishedItems()
+                + " published, "
+                + informationExchange.getNumberOfReceivedItems()
+                + " received");
+      }
       printSubStatistics(out, result);
     }
 
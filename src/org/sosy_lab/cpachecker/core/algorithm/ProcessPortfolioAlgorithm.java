@@ -0,0 +1,380 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core.algorithm;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.collect.FluentIterable.from;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.ConfigurationBuilder;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.configuration.TimeSpanOption;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.TimeSpan;
+import org.sosy_lab.common.time.Timer;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.defaults.DummyTargetState;
+import org.sosy_lab.cpachecker.core.defaults.SingletonPrecision;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
+import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
+import org.sosy_lab.cpachecker.core.specification.Specification;
+import org.sosy_lab.cpachecker.exceptions.CPAException;
+
+/**
+ * Portfolio of analyses that are executed in separate JVMs on the local machine. In contrast to
+ * {@link ParallelAlgorithm}, each analysis has its own heap and cannot harm the other analyses by
+ * using too much memory, and in contrast to {@link MPIPortfolioAlgorithm} no external tools are
+ * necessary. The child processes report their results via their standard output, and as soon as
+ * one of them has found a result, all others are terminated.
+ */
+@Options(prefix = "processPortfolio")
+public class ProcessPortfolioAlgorithm implements Algorithm, StatisticsProvider {
+
+  private static final String MAIN_CLASS = "org.sosy_lab.cpachecker.cmdline.CPAMain";
+
+  /** JVM arguments of the current process that must not be inherited by the child processes. */
+  private static final ImmutableList<String> NON_INHERITED_JVM_ARGUMENTS =
+      ImmutableList.of(
+          "-Xmx",
+          "-Xms",
+          "-XX:MaxHeapSize",
+          "-XX:InitialHeapSize",
+          "-agentlib:jdwp",
+          "-javaagent");
+
+  @Option(
+      secure = true,
+      required = true,
+      description = "List of configuration files that are run in separate processes.")
+  @FileOption(FileOption.Type.REQUIRED_INPUT_FILE)
+  private List<Path> configFiles;
+
+  @Option(
+      secure = true,
+      description =
+          "Maximum heap size of each child process, in the format of the -Xmx argument of the JVM "
+              + "(e.g., 2000m). If not given, the default of the JVM is used.")
+  private @Nullable String childHeapSize = null;
+
+  @Option(
+      secure = true,
+      description =
+          "Limit for the cpu time of each child process "
+              + "(use seconds or specify a unit; -1 for the same limit as this process)")
+  @TimeSpanOption(codeUnit = TimeUnit.NANOSECONDS, defaultUserUnit = TimeUnit.SECONDS, min = -1)
+  private TimeSpan childCpuTimeLimit = TimeSpan.ofNanos(-1);
+
+  @Option(
+      secure = true,
+      description =
+          "Time the child processes are given to terminate gracefully "
+              + "(e.g., for writing statistics) before they are killed.")
+  @TimeSpanOption(codeUnit = TimeUnit.MILLISECONDS, defaultUserUnit = TimeUnit.SECONDS, min = 0)
+  private TimeSpan terminationGracePeriod = TimeSpan.ofSeconds(5);
+
+  @Option(secure = true, description = "Directory for the output files of the child processes.")
+  @FileOption(FileOption.Type.OUTPUT_DIRECTORY)
+  private Path outputDirectory = Paths.get("portfolio");
+
+  private final Configuration globalConfig;
+  private final LogManager logger;
+  private final ShutdownNotifier shutdownNotifier;
+  private final Specification specification;
+  private final ProcessPortfolioStatistics stats = new ProcessPortfolioStatistics();
+
+  private final ImmutableList<ChildAnalysis> children;
+
+  public ProcessPortfolioAlgorithm(
+      Configuration pConfig,
+      LogManager pLogger,
+      ShutdownNotifier pShutdownNotifier,
+      Specification pSpecification)
+      throws InvalidConfigurationException {
+    pConfig.inject(this);
+    globalConfig = pConfig;
+    logger = checkNotNull(pLogger);
+    shutdownNotifier = checkNotNull(pShutdownNotifier);
+    specification = checkNotNull(pSpecification);
+    if (outputDirectory == null) {
+      throw new InvalidConfigurationException(
+          "Option processPortfolio.outputDirectory is required, "
+              + "the child processes need a directory for their output files.");
+    }
+
+    ImmutableList.Builder<ChildAnalysis> childrenBuilder = ImmutableList.builder();
+    for (int i = 0; i < configFiles.size(); i++) {
+      childrenBuilder.add(new ChildAnalysis(i, configFiles.get(i)));
+    }
+    children = childrenBuilder.build();
+  }
+
+  /** An event reported by the thread that reads the output of one child process. */
+  private static final class ChildEvent {
+    private final ChildAnalysis child;
+    private final @Nullable CPAcheckerResult result; // null if the process has terminated
+
+    private ChildEvent(ChildAnalysis pChild, @Nullable CPAcheckerResult pResult) {
+      child = pChild;
+      result = pResult;
+    }
+  }
+
+  private class ChildAnalysis {
+
+    private final String name;
+    private final ImmutableList<String> command;
+    private final Timer wallTime = new Timer();
+
+    private @Nullable Process process = null;
+    private volatile @Nullable CPAcheckerResult result = null;
+    private volatile @Nullable Integer exitCode = null;
+
+    ChildAnalysis(int pIndex, Path pConfigFile) throws InvalidConfigurationException {
+      name = pIndex + "-" + pConfigFile.getFileName();
+
+      // Keep all options of this process except those for the portfolio itself, like
+      // MPIPortfolioAlgorithm does. The options of the config file are given separately.
+      ConfigurationBuilder childConfig =
+          Configuration.builder()
+              .copyFrom(globalConfig)
+              .clearOption("analysis.algorithm.processPortfolio")
+              .clearOption("processPortfolio.configFiles")
+              .clearOption("processPortfolio.childHeapSize")
+              .clearOption("processPortfolio.childCpuTimeLimit")
+              .clearOption("processPortfolio.terminationGracePeriod")
+              .clearOption("processPortfolio.outputDirectory")
+              .clearOption("analysis.name")
+              .setOption("output.path", outputDirectory.resolve(name).toString())
+              .setOption(
+                  "specification", Joiner.on(',').join(specification.getSpecFiles()));
+      if (childCpuTimeLimit.asNanos() >= 0) {
+        childConfig
+            .clearOption("limits.time.cpu::required")
+            .setOption("limits.time.cpu", childCpuTimeLimit.asMillis() + "ms");
+      }
+
+      ImmutableList.Builder<String> cmdLine = ImmutableList.builder();
+      cmdLine.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+      // inherit JVM arguments like the stack size and the library path
+      cmdLine.addAll(
+          from(ManagementFactory.getRuntimeMXBean().getInputArguments())
+              .filter(arg -> NON_INHERITED_JVM_ARGUMENTS.stream().noneMatch(arg::startsWith)));
+      if (childHeapSize != null) {
+        cmdLine.add("-Xmx" + childHeapSize);
+      }
+      cmdLine.add("-cp", System.getProperty("java.class.path"), MAIN_CLASS);
+      cmdLine.add("-config", pConfigFile.toString());
+      for (String opt :
+          Splitter.on('\n').omitEmptyStrings().split(childConfig.build().asPropertiesString())) {
+        cmdLine.add("-setprop", opt);
+      }
+      command = cmdLine.build();
+    }
+
+    void start(ExecutorService pReaderPool, BlockingQueue<ChildEvent> pEvents) throws IOException {
+      logger.log(Level.FINE, "Starting analysis", name, "with command", command);
+      process = new ProcessBuilder(command).redirectErrorStream(true).start();
+      wallTime.start();
+      process.getOutputStream().close();
+      pReaderPool.execute(() -> readOutput(pEvents));
+    }
+
+    /** Forward the output of the child process to our log, and report its result. */
+    private void readOutput(BlockingQueue<ChildEvent> pEvents) {
+      try (BufferedReader reader =
+          new BufferedReader(new InputStreamReader(process.getInputStream(), UTF_8))) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          logger.log(Level.FINE, name, "-", line);
+          Optional<CPAcheckerResult> parsedResult = CPAcheckerResult.parseResultString(line);
+          if (parsedResult.isPresent()) {
+            result = parsedResult.orElseThrow();
+            pEvents.add(new ChildEvent(this, result));
+          }
+        }
+        exitCode = process.waitFor();
+      } catch (IOException e) {
+        logger.logDebugException(e, "Could not read output of analysis " + name);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } finally {
+        if (wallTime.isRunning()) {
+          wallTime.stop();
+        }
+        pEvents.add(new ChildEvent(this, null));
+      }
+    }
+
+    /** Ask the process to terminate, which lets it write statistics and output files. */
+    void terminate() {
+      if (process != null && process.isAlive()) {
+        logger.log(Level.FINE, "Terminating analysis", name);
+        process.destroy();
+      }
+    }
+
+    /** Wait until the process has terminated, and kill it if this takes too long. */
+    void awaitTermination(long pDeadline) throws InterruptedException {
+      if (process == null) {
+        return;
+      }
+      long remaining = pDeadline - System.nanoTime();
+      if (!process.waitFor(Math.max(0, remaining), TimeUnit.NANOSECONDS)) {
+        logger.log(Level.WARNING, "Analysis", name, "did not terminate, killing it.");
+        process.destroyForcibly();
+        process.waitFor();
+      }
+    }
+
+    @Override
+    public String toString() {
+      return name;
+    }
+  }
+
+  @Override
+  public AlgorithmStatus run(ReachedSet pReachedSet) throws CPAException, InterruptedException {
+    BlockingQueue<ChildEvent> events = new LinkedBlockingQueue<>();
+    ExecutorService readerPool =
+        Executors.newCachedThreadPool(
+            new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("ProcessPortfolio-reader-%d")
+                .build());
+
+    stats.totalTime.start();
+    ChildAnalysis winner = null;
+    try {
+      for (ChildAnalysis child : children) {
+        try {
+          child.start(readerPool, events);
+          stats.startedProcesses++;
+        } catch (IOException e) {
+          logger.logUserException(Level.WARNING, e, "Could not start analysis " + child);
+        }
+      }
+
+      int running = stats.startedProcesses;
+      while (running > 0 && winner == null) {
+        ChildEvent event = events.poll(1, TimeUnit.SECONDS);
+        shutdownNotifier.shutdownIfNecessary();
+        if (event == null) {
+          continue;
+        } else if (event.result == null) {
+          running--;
+          logger.log(
+              Level.INFO,
+              "Analysis",
+              event.child,
+              "terminated with exit code",
+              event.child.exitCode);
+        } else if (event.result.getResult() == Result.TRUE
+            || event.result.getResult() == Result.FALSE) {
+          winner = event.child;
+          logger.log(
+              Level.INFO, "Analysis", winner, "finished successfully, terminating all other runs.");
+        } else {
+          logger.log(Level.INFO, "Analysis", event.child, "finished without usable result.");
+        }
+      }
+
+    } finally {
+      children.forEach(ChildAnalysis::terminate);
+      long deadline = System.nanoTime() + terminationGracePeriod.asNanos();
+      for (ChildAnalysis child : children) {
+        child.awaitTermination(deadline);
+      }
+      readerPool.shutdownNow();
+      stats.totalTime.stop();
+    }
+
+    if (winner == null) {
+      logger.log(Level.WARNING, "None of the analyses produced a result.");
+      return AlgorithmStatus.UNSOUND_AND_IMPRECISE;
+    }
+
+    stats.successfulAnalysis = winner.name;
+    CPAcheckerResult result = winner.result;
+    pReachedSet.clear();
+    if (result.getResult() == Result.FALSE) {
+      // represent the violation found by the child process with a dummy target state
+      pReachedSet.add(
+          DummyTargetState.withSingleProperty(result.getViolatedPropertyDescription()),
+          SingletonPrecision.getInstance());
+    }
+    // for TRUE, an empty reached set reflects the result of the child process
+    return AlgorithmStatus.SOUND_AND_PRECISE;
+  }
+
+  @Override
+  public void collectStatistics(Collection<Statistics> pStatsCollection) {
+    pStatsCollection.add(stats);
+  }
+
+  private class ProcessPortfolioStatistics implements Statistics {
+
+    private final Timer totalTime = new Timer();
+    private int startedProcesses = 0;
+    private @Nullable String successfulAnalysis = null;
+
+    @Override
+    public void printStatistics(PrintStream pOut, Result pResult, UnmodifiableReachedSet pReached) {
+      pOut.println("Number of started processes:       " + startedProcesses);
+      if (successfulAnalysis != null) {
+        pOut.println("Successful analysis:               " + successfulAnalysis);
+      }
+      pOut.println("Total time for portfolio:          " + totalTime);
+      for (ChildAnalysis child : children) {
+        pOut.println(
+            "  "
+                + child
+                + ": "
+                + (child.result == null ? "no result" : child.result.getResult())
+                + ", exit code "
+                + (child.exitCode == null ? "unknown" : child.exitCode)
+                + ", wall time "
+                + child.wallTime.getSumTime().formatAs(TimeUnit.SECONDS));
+      }
+    }
+
+    @Override
+    public @Nullable String getName() {
+      return "Process Portfolio Algorithm";
+    }
+  }
+}
@@ -17,11 +17,15 @@ import static org.sosy_lab.cpachecker.util.AbstractStates.extractLocation;
 import com.google.common.base.Joiner;
 import com.google.common.base.Predicate;
 import com.google.common.base.Predicates;
+import com.google.common.base.Throwables;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -41,15 +45,23 @@ import java.util.TreeSet;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.function.ToIntFunction;
 import java.util.logging.Level;
 import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.Classes.UnexpectedCheckedException;
 import org.sosy_lab.common.ShutdownManager;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.ShutdownNotifier.ShutdownRequestListener;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.FileOption;
 import org.sosy_lab.common.configuration.FileOption.Type;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -110,7 +122,7 @@ import org.sosy_lab.java_smt.api.SolverException;
 
 @Options(prefix = "bmc")
 abstract class AbstractBMCAlgorithm
-    implements StatisticsProvider, ConditionAdjustmentEventSubscriber {
+    implements StatisticsProvider, ConditionAdjustmentEventSubscriber, AutoCloseable {
 
   private static final boolean isStopState(AbstractState state) {
     AssumptionStorageState assumptionState =
@@ -167,6 +179,31 @@ abstract class AbstractBMCAlgorithm
   )
   private boolean usePropertyDirection = false;
 
+  @Option(
+      secure = true,
+      description =
+          "Number of threads for checking candidate invariants in the induction step case. "
+              + "If larger than 1, the largest inductive subset of the candidate invariants "
+              + "is computed by checking them in parallel with separate solver instances.")
+  @IntegerOption(min = 1)
+  private int inductionThreads = 1;
+
+  @Option(
+      secure = true,
+      description =
+          "Check the induction step case for bound k in a separate thread, "
+              + "while the unrolling and the base case for bound k+1 are already computed.")
+  private boolean pipelineInduction = false;
+
+  @Option(
+      secure = true,
+      description =
+          "Keep the encoding of the target states of previous bounds on the solver stack, "
+              + "and encode only the target states that are new in the current bound. "
+              + "This allows the solver to reuse the formulas and learned facts of "
+              + "previous bounds.")
+  private boolean incrementalEncoding = false;
+
   protected final BMCStatistics stats;
   private final Algorithm algorithm;
   private final ConfigurableProgramAnalysis cpa;
@@ -201,6 +238,18 @@ abstract class AbstractBMCAlgorithm
   private final List<ConditionAdjustmentEventSubscriber> conditionAdjustmentEventSubscribers =
       new CopyOnWriteArrayList<>();
 
+  private final Configuration config;
+
+  // solvers and threads for the parallel induction check, created lazily
+  private final List<Solver> inductionWorkerSolvers = new ArrayList<>();
+  private @Nullable ExecutorService inductionExecutor = null;
+
+  // thread for the step case if pipelineInduction is enabled, created lazily
+  private @Nullable ExecutorService stepCaseExecutor = null;
+
+  // encoding of target states on the prover of the base case, if incrementalEncoding is enabled
+  private @Nullable IncrementalTargetEncoding targetEncoding = null;
+
   protected AbstractBMCAlgorithm(
       Algorithm pAlgorithm,
       ConfigurableProgramAnalysis pCPA,
@@ -217,6 +266,7 @@ abstract class AbstractBMCAlgorithm
 
     pConfig.inject(this, AbstractBMCAlgorithm.class);
 
+    config = pConfig;
     stats = pBMCStatistics;
     algorithm = pAlgorithm;
     cpa = pCPA;
@@ -354,8 +404,14 @@ abstract class AbstractBMCAlgorithm
 
     AlgorithmStatus status;
 
+    // the step case that is checked while the base case continues with the next bound
+    PendingStepCase pendingStepCase = null;
+
     try (ProverEnvironment prover = solver.newProverEnvironment(ProverOptions.GENERATE_MODELS)) {
       invariantGeneratorHeadStart.waitForInvariantGenerator();
+      if (incrementalEncoding) {
+        targetEncoding = new IncrementalTargetEncoding(prover, bfmgr, shutdownNotifier);
+      }
 
       do {
         shutdownNotifier.shutdownIfNecessary();
@@ -413,6 +469,16 @@ abstract class AbstractBMCAlgorithm
             return AlgorithmStatus.SOUND_AND_PRECISE;
           }
 
+          if (pendingStepCase != null) {
+            // the step case of the previous bound ran concurrently to the base case of this bound
+            boolean previousSound =
+                finishStepCase(pendingStepCase, candidateGenerator, ctiBlockingClauses);
+            pendingStepCase = null;
+            if (previousSound && !candidateGenerator.produceMoreCandidates()) {
+              return AlgorithmStatus.SOUND_AND_PRECISE;
+            }
+          }
+
           // try to prove program safety via induction
           if (induction && !sound) {
             if (usePropertyDirection) {
@@ -422,10 +488,20 @@ abstract class AbstractBMCAlgorithm
                 ctiBlockingClauses.clear();
               }
             }
-            try (@SuppressWarnings("resource")
-                KInductionProver kInductionProver = createInductionProver()) {
-            sound =
-                checkStepCase(reachedSet, candidateGenerator, kInductionProver, ctiBlockingClauses);
+            StepCaseInput stepCaseInput =
+                prepareStepCase(reachedSet, candidateGenerator, ctiBlockingClauses);
+            if (pipelineInduction) {
+              pendingStepCase = startStepCase(stepCaseInput, ctiBlockingClauses);
+            } else {
+              try (@SuppressWarnings("resource")
+                  KInductionProver kInductionProver = createInductionProver()) {
+                sound =
+                    checkStepCase(
+                        stepCaseInput,
+                        kInductionProver,
+                        ctiBlockingClauses,
+                        candidateGenerator::confirmCandidates);
+              }
             }
           }
           if (invariantGenerator.isProgramSafe()
@@ -440,18 +516,116 @@ abstract class AbstractBMCAlgorithm
         }
       }
       while (status.isSound() && adjustConditions());
+
+      if (pendingStepCase != null) {
+        boolean sound = finishStepCase(pendingStepCase, candidateGenerator, ctiBlockingClauses);
+        pendingStepCase = null;
+        if (invariantGenerator.isProgramSafe()
+            || (sound && !candidateGenerator.produceMoreCandidates())) {
+          return AlgorithmStatus.SOUND_AND_PRECISE;
+        }
+      }
+    } finally {
+      if (pendingStepCase != null) {
+        // the result is not needed anymore, but the step-case analysis must not be used
+        // concurrently if this algorithm is run again
+        pendingStepCase.await();
+      }
     }
 
     return AlgorithmStatus.UNSOUND_AND_PRECISE;
   }
 
-  private boolean checkStepCase(
-      final ReachedSet reachedSet,
-      final CandidateGenerator candidateGenerator,
-      KInductionProver kInductionProver,
+  /** A step-case check that is running in a separate thread. */
+  private class PendingStepCase {
+
+    private final Future<Boolean> result;
+
+    // the confirmed candidates and the CTI blocking clauses are collected by the step-case thread
+    // and handed over to the main thread afterwards
+    private final List<Iterable<CandidateInvariant>> confirmed = new ArrayList<>();
+    private final Set<Obligation> ctiBlockingClauses;
+
+    private PendingStepCase(StepCaseInput pInput, Set<Obligation> pCtiBlockingClauses) {
+      ctiBlockingClauses = new TreeSet<>(pCtiBlockingClauses);
+      result =
+          stepCaseExecutor.submit(
+              () -> {
+                try (@SuppressWarnings("resource")
+                    KInductionProver kInductionProver = createInductionProver()) {
+                  return checkStepCase(
+                      pInput, kInductionProver, ctiBlockingClauses, confirmed::add);
+                }
+              });
+    }
+
+    private void await() {
+      try {
+        Uninterruptibles.getUninterruptibly(result);
+      } catch (ExecutionException e) {
+        logger.logDebugException(e.getCause(), "Ignoring exception of unneeded step case");
+      }
+    }
+  }
+
+  private PendingStepCase startStepCase(StepCaseInput pInput, Set<Obligation> pCtiBlockingClauses) {
+    if (stepCaseExecutor == null) {
+      // use daemon threads, such that the executor does not block termination if we are not closed
+      stepCaseExecutor =
+          Executors.newSingleThreadExecutor(
+              new ThreadFactoryBuilder()
+                  .setDaemon(true)
+                  .setNameFormat("BMC-step-case-thread-%d")
+                  .build());
+    }
+    logger.log(Level.FINE, "Starting step case for k =", pInput.k, "in parallel to base case");
+    return new PendingStepCase(pInput, pCtiBlockingClauses);
+  }
+
+  /** Wait for the step case, and apply its results. */
+  private boolean finishStepCase(
+      PendingStepCase pStepCase,
+      CandidateGenerator pCandidateGenerator,
       Set<Obligation> pCtiBlockingClauses)
       throws InterruptedException, CPAException, SolverException {
+    boolean sound;
+    try {
+      sound = pStepCase.result.get();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      Throwables.throwIfInstanceOf(cause, SolverException.class);
+      Throwables.propagateIfPossible(cause, CPAException.class, InterruptedException.class);
+      throw new UnexpectedCheckedException("induction step case", cause);
+    }
+    for (Iterable<CandidateInvariant> confirmed : pStepCase.confirmed) {
+      pCandidateGenerator.confirmCandidates(confirmed);
+    }
+    pCtiBlockingClauses.clear();
+    pCtiBlockingClauses.addAll(pStepCase.ctiBlockingClauses);
+    return sound;
+  }
 
+  /**
+   * The input of a step-case check. It is collected from the reached set of the base case, such
+   * that the step case can be checked while the base case already continues with the next bound.
+   */
+  private static class StepCaseInput {
+
+    private final int k;
+    private final Set<Object> checkedKeys;
+    private final Set<CandidateInvariant> candidates;
+
+    private StepCaseInput(int pK, Set<Object> pCheckedKeys, Set<CandidateInvariant> pCandidates) {
+      k = pK;
+      checkedKeys = pCheckedKeys;
+      candidates = pCandidates;
+    }
+  }
+
+  private StepCaseInput prepareStepCase(
+      final ReachedSet reachedSet,
+      final CandidateGenerator candidateGenerator,
+      Set<Obligation> pCtiBlockingClauses) {
     final int k = CPAs.retrieveCPA(cpa, LoopIterationBounding.class).getMaxLoopIterations();
 
     Set<Object> checkedKeys = getCheckedKeys(reachedSet);
@@ -460,12 +634,60 @@ abstract class AbstractBMCAlgorithm
 
     Set<CandidateInvariant> candidates =
         FluentIterable.concat(pCtiBlockingClauses, candidateGenerator).filter(isApplicable).toSet();
+    return new StepCaseInput(k, checkedKeys, candidates);
+  }
+
+  /**
+   * Check the step case for the given candidates.
+   *
+   * @param pConfirm receives the candidates that were proven.
+   * @return whether all candidates were proven or the safety property was proven.
+   */
+  private boolean checkStepCase(
+      StepCaseInput pInput,
+      KInductionProver kInductionProver,
+      Set<Obligation> pCtiBlockingClauses,
+      Consumer<Iterable<CandidateInvariant>> pConfirm)
+      throws InterruptedException, CPAException, SolverException {
+
+    final int k = pInput.k;
+    final Set<Object> checkedKeys = pInput.checkedKeys;
+    final Set<CandidateInvariant> candidates = pInput.candidates;
     Set<SymbolicCandiateInvariant> checked = new HashSet<>();
 
     shutdownNotifier.shutdownIfNecessary();
 
     boolean sound = true;
     Iterable<CandidateInvariant> candidatesToCheck = candidates;
+
+    if (inductionThreads > 1) {
+      // Obligations need to be checked separately for extracting CTIs and trying weakenings,
+      // and the safety property should not be assumed in the fixpoint iteration.
+      Set<CandidateInvariant> parallelCandidates =
+          from(candidates)
+              .filter(
+                  c -> !(c instanceof Obligation) && c != TargetLocationCandidateInvariant.INSTANCE)
+              .toSet();
+      if (parallelCandidates.size() > 1) {
+        Set<CandidateInvariant> proven =
+            kInductionProver.checkInductiveSubset(
+                confirmedCandidates,
+                k,
+                parallelCandidates,
+                checkedKeys,
+                initializeInductionWorkers(),
+                inductionExecutor);
+        for (CandidateInvariant candidate : proven) {
+          Iterables.addAll(
+              confirmedCandidates, CandidateInvariantCombination.getConjunctiveParts(candidate));
+          pConfirm.accept(CandidateInvariantCombination.getConjunctiveParts(candidate));
+        }
+        if (proven.size() < parallelCandidates.size()) {
+          sound = false;
+        }
+        candidatesToCheck = Sets.difference(candidates, parallelCandidates);
+      }
+    }
     for (CandidateInvariant candidate : candidatesToCheck) {
       // No need to check the same clause twice
       if (candidate instanceof Obligation) {
@@ -495,8 +717,7 @@ abstract class AbstractBMCAlgorithm
         Iterables.addAll(
             confirmedCandidates,
             CandidateInvariantCombination.getConjunctiveParts(candidate));
-        candidateGenerator.confirmCandidates(
-            CandidateInvariantCombination.getConjunctiveParts(candidate));
+        pConfirm.accept(CandidateInvariantCombination.getConjunctiveParts(candidate));
         if (candidate == TargetLocationCandidateInvariant.INSTANCE) {
           sound = true;
           break;
@@ -520,8 +741,7 @@ abstract class AbstractBMCAlgorithm
               Iterables.addAll(
                   confirmedCandidates,
                   CandidateInvariantCombination.getConjunctiveParts(weakening));
-              candidateGenerator.confirmCandidates(
-                  CandidateInvariantCombination.getConjunctiveParts(weakening));
+              pConfirm.accept(CandidateInvariantCombination.getConjunctiveParts(weakening));
               break;
             }
           }
@@ -546,6 +766,61 @@ abstract class AbstractBMCAlgorithm
     return sound;
   }
 
+  private List<Solver> initializeInductionWorkers() throws InterruptedException {
+    if (inductionExecutor == null) {
+      // use daemon threads, such that the executor does not block termination if we are not closed
+      inductionExecutor =
+          Executors.newFixedThreadPool(
+              inductionThreads,
+              new ThreadFactoryBuilder()
+                  .setDaemon(true)
+                  .setNameFormat("BMC-induction-thread-%d")
+                  .build());
+    }
+    try {
+      while (inductionWorkerSolvers.size() < inductionThreads) {
+        inductionWorkerSolvers.add(Solver.create(config, logger, shutdownNotifier));
+      }
+    } catch (InvalidConfigurationException e) {
+      // the same configuration was already used for the step-case solver
+      throw new AssertionError(e);
+    }
+    return inductionWorkerSolvers;
+  }
+
+  @Override
+  public void close() {
+    CPAs.closeIfPossible(algorithm, logger);
+    // the step-case thread submits work to the induction threads, so stop it first
+    boolean terminated = awaitTermination(stepCaseExecutor);
+    terminated = awaitTermination(inductionExecutor) && terminated;
+    if (!terminated) {
+      // the worker solvers must not be closed while a worker thread still uses them
+      logger.log(Level.WARNING, "Induction threads of BMC did not terminate, not closing solvers");
+      return;
+    }
+    stepCaseExecutor = null;
+    inductionExecutor = null;
+    for (Solver workerSolver : inductionWorkerSolvers) {
+      workerSolver.close();
+    }
+    inductionWorkerSolvers.clear();
+  }
+
+  /** Stop the threads of the given executor and return whether all of them have terminated. */
+  private static boolean awaitTermination(@Nullable ExecutorService pExecutor) {
+    if (pExecutor == null) {
+      return true;
+    }
+    pExecutor.shutdownNow();
+    try {
+      return pExecutor.awaitTermination(10, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
   /**
    * Gets all keys of loop-iteration reporting states that were reached by unrolling.
    *
@@ -608,6 +883,27 @@ abstract class AbstractBMCAlgorithm
       BasicProverEnvironment<?> pProver,
       CandidateInvariant pCandidateInvariant)
       throws CPATransferException, InterruptedException, SolverException {
+    if (pCandidateInvariant == TargetLocationCandidateInvariant.INSTANCE
+        && pReachedSet instanceof ReachedSet
+        && targetEncoding != null
+        && targetEncoding.isFor(pProver)) {
+      logger.log(Level.INFO, "Starting incremental satisfiability check...");
+      stats.satCheck.start();
+      boolean safe;
+      try {
+        safe =
+            targetEncoding.isUnreachable(
+                TargetLocationCandidateInvariant.INSTANCE.filterApplicable(pReachedSet));
+      } finally {
+        stats.satCheck.stop();
+      }
+      if (safe) {
+        pCandidateInvariant.assumeTruth((ReachedSet) pReachedSet);
+        return true;
+      }
+      // otherwise check again with the full formula below, which is needed for the counterexample
+    }
+
     BooleanFormula program = bfmgr.not(pCandidateInvariant.getAssertion(pReachedSet, fmgr, pmgr));
     logger.log(Level.INFO, "Starting satisfiability check...");
     stats.satCheck.start();
@@ -9,6 +9,10 @@
 package org.sosy_lab.cpachecker.core.algorithm.bmc;
 
 import java.io.PrintStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import org.sosy_lab.common.time.TimeSpan;
 import org.sosy_lab.common.time.Timer;
 import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
 import org.sosy_lab.cpachecker.core.interfaces.Statistics;
@@ -23,6 +27,16 @@ public class BMCStatistics implements Statistics {
 
   final Timer inductionPreparation = new Timer();
   final Timer inductionCheck = new Timer();
+  final Timer parallelInductionCheck = new Timer();
+
+  // wall time and time spent in all threads of the parallel induction check, for each k
+  private final Map<Integer, TimeSpan> parallelInductionWallTime = new TreeMap<>();
+  private final Map<Integer, TimeSpan> parallelInductionWorkTime = new TreeMap<>();
+
+  void addParallelInductionCheck(int pK, TimeSpan pWallTime, TimeSpan pWorkTime) {
+    parallelInductionWallTime.merge(pK, pWallTime, TimeSpan::sum);
+    parallelInductionWorkTime.merge(pK, pWorkTime, TimeSpan::sum);
+  }
 
   @Override
   public void printStatistics(PrintStream out, Result pResult, UnmodifiableReachedSet pReached) {
@@ -42,6 +56,20 @@ public class BMCStatistics implements Statistics {
       out.println("Time for induction formula creation: " + inductionPreparation);
       out.println("Time for induction check:            " + inductionCheck);
     }
+    if (parallelInductionCheck.getNumberOfIntervals() > 0) {
+      out.println("Time for parallel induction check:   " + parallelInductionCheck);
+      for (Map.Entry<Integer, TimeSpan> entry : parallelInductionWallTime.entrySet()) {
+        TimeSpan wallTime = entry.getValue();
+        TimeSpan workTime = parallelInductionWorkTime.get(entry.getKey());
+        out.println(
+            String.format(
+                "  Speedup for k=%-3d                  %.2f (%s in all threads, %s elapsed)",
+                entry.getKey(),
+                (double) workTime.asNanos() / Math.max(1, wallTime.asNanos()),
+                workTime.formatAs(TimeUnit.SECONDS),
+                wallTime.formatAs(TimeUnit.SECONDS)));
+      }
+    }
   }
 
   @Override
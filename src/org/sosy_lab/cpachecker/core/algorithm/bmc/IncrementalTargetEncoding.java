@@ -0,0 +1,98 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core.algorithm.bmc;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ImmutableList;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.Set;
+import java.util.WeakHashMap;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.util.predicates.smt.BooleanFormulaManagerView;
+import org.sosy_lab.java_smt.api.BasicProverEnvironment;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/**
+ * Encodes the reachability of target states incrementally on the bottom level of a prover stack
+ * that is kept over all bounds of BMC.
+ *
+ * <p>Each time the bound is increased, only the path formulas of target states that were not
+ * encoded before are added, guarded by a fresh selector variable. The formulas of previous bounds
+ * stay on the prover stack, such that the solver can reuse their encoding and everything it learned
+ * about them, and the query for the new bound only consists of the new selector. Target states that
+ * were proven unreachable are permanently disabled by asserting the negation of their selector.
+ */
+final class IncrementalTargetEncoding {
+
+  private static final String SELECTOR_PREFIX = "__bmc_targets_";
+
+  private final BasicProverEnvironment<?> prover;
+  private final BooleanFormulaManagerView bfmgr;
+  private final ShutdownNotifier shutdownNotifier;
+
+  // states are referenced weakly, because they may be removed from the reached set
+  private final Set<AbstractState> encodedStates =
+      Collections.newSetFromMap(new WeakHashMap<>());
+
+  private int selectors = 0;
+
+  IncrementalTargetEncoding(
+      BasicProverEnvironment<?> pProver,
+      BooleanFormulaManagerView pBfmgr,
+      ShutdownNotifier pShutdownNotifier) {
+    prover = checkNotNull(pProver);
+    bfmgr = checkNotNull(pBfmgr);
+    shutdownNotifier = checkNotNull(pShutdownNotifier);
+  }
+
+  /** Whether this encoding is kept on the given prover. */
+  boolean isFor(BasicProverEnvironment<?> pProver) {
+    return prover == pProver;
+  }
+
+  /**
+   * Check whether any of the given target states is reachable. Needs to be called when the prover
+   * stack has the same height as when this encoding was created.
+   *
+   * @return <code>true</code> if all target states are unreachable, <code>false</code> if some
+   *     target state may be reachable.
+   */
+  boolean isUnreachable(Iterable<AbstractState> pTargetStates)
+      throws InterruptedException, SolverException {
+    ImmutableList<AbstractState> newTargetStates =
+        FluentIterable.from(pTargetStates).filter(s -> !encodedStates.contains(s)).toList();
+    if (newTargetStates.isEmpty()) {
+      return true; // all target states were already proven unreachable
+    }
+
+    BooleanFormula selector = bfmgr.makeVariable(SELECTOR_PREFIX + selectors++);
+    BooleanFormula newTargets =
+        BMCHelper.createFormulaFor(newTargetStates, bfmgr, Optional.of(shutdownNotifier));
+    prover.addConstraint(bfmgr.implication(selector, newTargets));
+
+    prover.push(selector);
+    boolean unreachable;
+    try {
+      unreachable = prover.isUnsat();
+    } finally {
+      prover.pop();
+    }
+
+    if (unreachable) {
+      prover.addConstraint(bfmgr.not(selector));
+      encodedStates.addAll(newTargetStates);
+    }
+    return unreachable;
+  }
+}
@@ -17,6 +17,7 @@ import static org.sosy_lab.cpachecker.core.algorithm.bmc.BMCHelper.filterIterati
 import static org.sosy_lab.cpachecker.core.algorithm.bmc.BMCHelper.unroll;
 
 import com.google.common.base.Suppliers;
+import com.google.common.base.Throwables;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableMap;
@@ -34,16 +35,23 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.stream.Stream;
+import org.sosy_lab.common.Classes.UnexpectedCheckedException;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.TimeSpan;
 import org.sosy_lab.cpachecker.cfa.CFA;
 import org.sosy_lab.cpachecker.cfa.model.CFANode;
 import org.sosy_lab.cpachecker.cfa.types.c.CType;
@@ -84,10 +92,12 @@ import org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormulaManager;
 import org.sosy_lab.cpachecker.util.predicates.pathformula.SSAMap;
 import org.sosy_lab.cpachecker.util.predicates.smt.BooleanFormulaManagerView;
 import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
+import org.sosy_lab.cpachecker.util.predicates.smt.Solver;
 import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.Formula;
 import org.sosy_lab.java_smt.api.FunctionDeclaration;
 import org.sosy_lab.java_smt.api.Model.ValueAssignment;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
 import org.sosy_lab.java_smt.api.QuantifiedFormulaManager.Quantifier;
 import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
 import org.sosy_lab.java_smt.api.SolverException;
@@ -575,6 +585,207 @@ class KInductionProver implements AutoCloseable {
     return result;
   }
 
+  /**
+   * Determines the largest subset of the given candidate invariants that is inductive when all of
+   * its members and the confirmed invariants are assumed at the predecessors, by iterating a
+   * Houdini-style fixpoint: all remaining candidates are checked, those that are not inductive are
+   * removed, and the remaining candidates are checked again until none fails. The candidates are
+   * partitioned between the given worker solvers, and the checks of each iteration are done in
+   * parallel. Formulas are translated to the worker solvers only in the current thread.
+   *
+   * @param pConfirmedInvariants the invariants that are already known to hold.
+   * @param pK The k value to use in the check.
+   * @param pCandidates the candidate invariants to check at k + 1.
+   * @param pCheckedKeys the keys of loop-iteration reporting states that were checked by BMC.
+   * @param pWorkerSolvers the solvers to use, each one is used by only one thread at a time.
+   * @param pExecutor the executor for running the checks.
+   * @return the subset of candidate invariants that was proven to be inductive.
+   */
+  public Set<CandidateInvariant> checkInductiveSubset(
+      Iterable<CandidateInvariant> pConfirmedInvariants,
+      int pK,
+      Set<CandidateInvariant> pCandidates,
+      Set<Object> pCheckedKeys,
+      List<Solver> pWorkerSolvers,
+      ExecutorService pExecutor)
+      throws CPAException, InterruptedException, SolverException {
+
+    stats.inductionPreparation.start();
+    logger.log(Level.INFO, "Running algorithm to create induction hypothesis");
+    reachedSet.setDesiredK(pK + 1);
+    reachedSet.ensureK();
+    ReachedSet reached = reachedSet.getReachedSet();
+
+    Iterable<AbstractState> predecessorStates =
+        BMCHelper.filterBmcChecked(filterIterationsUpTo(reached, pK, loopHeads), pCheckedKeys);
+    List<BooleanFormula> baseAssertions = new ArrayList<>();
+    baseAssertions.add(
+        createFormulaFor(
+            FluentIterable.from(reached).filter(BMCHelper::isEndState),
+            bfmgr,
+            Optional.of(shutdownNotifier)));
+    baseAssertions.add(
+        inductiveLoopHeadInvariantAssertion(AbstractStates.filterLocations(reached, loopHeads)));
+    for (CandidateInvariant confirmed :
+        CandidateInvariantCombination.getConjunctiveParts(pConfirmedInvariants)) {
+      shutdownNotifier.shutdownIfNecessary();
+      baseAssertions.add(confirmed.getAssertion(predecessorStates, fmgr, pfmgr));
+    }
+    BooleanFormula base = bfmgr.and(baseAssertions);
+
+    // Translate all formulas to the worker solvers,
+    // every worker needs the predecessor assertions of all candidates,
+    // but only the successor violations of its own candidates.
+    final int workers = Math.min(pWorkerSolvers.size(), pCandidates.size());
+    List<CandidateInvariant> candidates = new ArrayList<>(pCandidates);
+    List<BooleanFormula> workerBases = new ArrayList<>(workers);
+    List<Map<CandidateInvariant, BooleanFormula>> workerPredecessorAssertions =
+        new ArrayList<>(workers);
+    List<Map<CandidateInvariant, BooleanFormula>> workerSuccessorViolations =
+        new ArrayList<>(workers);
+    for (int i = 0; i < workers; i++) {
+      FormulaManagerView workerFmgr = pWorkerSolvers.get(i).getFormulaManager();
+      workerBases.add(workerFmgr.translateFrom(base, fmgr));
+      workerPredecessorAssertions.add(new HashMap<>());
+      workerSuccessorViolations.add(new HashMap<>());
+    }
+    for (int c = 0; c < candidates.size(); c++) {
+      shutdownNotifier.shutdownIfNecessary();
+      CandidateInvariant candidate = candidates.get(c);
+      BooleanFormula predecessorAssertion =
+          candidate.getAssertion(predecessorStates, fmgr, pfmgr);
+      BooleanFormula successorViolation =
+          BMCHelper.disjoinStateViolationAssertions(
+              bfmgr, getSuccessorViolationAssertions(candidate, pK + 1));
+      for (int i = 0; i < workers; i++) {
+        FormulaManagerView workerFmgr = pWorkerSolvers.get(i).getFormulaManager();
+        workerPredecessorAssertions
+            .get(i)
+            .put(candidate, workerFmgr.translateFrom(predecessorAssertion, fmgr));
+        if (c % workers == i) {
+          workerSuccessorViolations
+              .get(i)
+              .put(candidate, workerFmgr.translateFrom(successorViolation, fmgr));
+        }
+      }
+    }
+    stats.inductionPreparation.stop();
+
+    logger.log(
+        Level.INFO,
+        "Starting parallel induction check of",
+        candidates.size(),
+        "candidate invariants...");
+    stats.parallelInductionCheck.start();
+    long workTime = 0;
+    Set<CandidateInvariant> remaining = new LinkedHashSet<>(candidates);
+    try {
+      boolean changed = true;
+      while (changed && !remaining.isEmpty()) {
+        shutdownNotifier.shutdownIfNecessary();
+        final ImmutableSet<CandidateInvariant> assumed = ImmutableSet.copyOf(remaining);
+        List<Future<Pair<Set<CandidateInvariant>, Long>>> futures = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+          final Solver workerSolver = pWorkerSolvers.get(i);
+          final BooleanFormula workerBase = workerBases.get(i);
+          final Map<CandidateInvariant, BooleanFormula> predecessorAssertions =
+              workerPredecessorAssertions.get(i);
+          final Map<CandidateInvariant, BooleanFormula> successorViolations =
+              workerSuccessorViolations.get(i);
+          futures.add(
+              pExecutor.submit(
+                  () ->
+                      findNonInductive(
+                          workerSolver,
+                          workerBase,
+                          assumed,
+                          predecessorAssertions,
+                          successorViolations)));
+        }
+
+        // always wait for all threads, because the worker solvers are reused
+        List<Throwable> errors = new ArrayList<>();
+        Set<CandidateInvariant> failed = new HashSet<>();
+        for (Future<Pair<Set<CandidateInvariant>, Long>> future : futures) {
+          try {
+            Pair<Set<CandidateInvariant>, Long> result = future.get();
+            failed.addAll(result.getFirst());
+            workTime += result.getSecond();
+          } catch (ExecutionException e) {
+            errors.add(e.getCause());
+          }
+        }
+        if (!errors.isEmpty()) {
+          Throwable error = errors.get(0);
+          for (Throwable other : errors.subList(1, errors.size())) {
+            error.addSuppressed(other);
+          }
+          Throwables.throwIfInstanceOf(error, SolverException.class);
+          Throwables.propagateIfPossible(error, CPAException.class, InterruptedException.class);
+          throw new UnexpectedCheckedException("parallel induction check", error);
+        }
+
+        changed = remaining.removeAll(failed);
+        logger.log(
+            Level.FINE,
+            "Induction check failed for",
+            failed.size(),
+            "candidate invariants, remaining:",
+            remaining.size());
+      }
+    } finally {
+      stats.parallelInductionCheck.stop();
+      stats.addParallelInductionCheck(
+          pK,
+          stats.parallelInductionCheck.getLengthOfLastInterval(),
+          TimeSpan.of(workTime, TimeUnit.NANOSECONDS));
+    }
+
+    logger.log(
+        Level.FINER, "Parallel induction check proved", remaining.size(), "candidate invariants");
+    return remaining;
+  }
+
+  /**
+   * Check the given successor violations under the assumption of the given candidates, and return
+   * the candidates whose violation is satisfiable, together with the time spent. Runs in a worker
+   * thread.
+   */
+  private Pair<Set<CandidateInvariant>, Long> findNonInductive(
+      Solver pWorkerSolver,
+      BooleanFormula pBase,
+      Set<CandidateInvariant> pAssumed,
+      Map<CandidateInvariant, BooleanFormula> pPredecessorAssertions,
+      Map<CandidateInvariant, BooleanFormula> pSuccessorViolations)
+      throws InterruptedException, SolverException {
+    long start = System.nanoTime();
+    BooleanFormulaManagerView workerBfmgr =
+        pWorkerSolver.getFormulaManager().getBooleanFormulaManager();
+    Set<CandidateInvariant> failed = new HashSet<>();
+    try (ProverEnvironment workerProver = pWorkerSolver.newProverEnvironment()) {
+      workerProver.push(pBase);
+      List<BooleanFormula> predecessorAssertions = new ArrayList<>(pAssumed.size());
+      for (CandidateInvariant assumed : pAssumed) {
+        predecessorAssertions.add(pPredecessorAssertions.get(assumed));
+      }
+      workerProver.push(workerBfmgr.and(predecessorAssertions));
+
+      for (Map.Entry<CandidateInvariant, BooleanFormula> violation :
+          pSuccessorViolations.entrySet()) {
+        if (!pAssumed.contains(violation.getKey())) {
+          continue; // already failed in a previous iteration
+        }
+        shutdownNotifier.shutdownIfNecessary();
+        workerProver.push(violation.getValue());
+        if (!workerProver.isUnsat()) {
+          failed.add(violation.getKey());
+        }
+        workerProver.pop();
+      }
+    }
+    return Pair.of(failed, System.nanoTime() - start);
+  }
+
   private BooleanFormula assertCandidate(
       Iterable<AbstractState> pReached, CandidateInvariant pCandidateInvariant, int pK)
       throws CPATransferException, InterruptedException {
@@ -15,11 +15,13 @@ import static org.sosy_lab.cpachecker.core.algorithm.bmc.BMCHelper.filterAncesto
 import static org.sosy_lab.cpachecker.core.algorithm.bmc.BMCHelper.isTrivialSelfLoop;
 
 import com.google.common.base.Predicates;
+import com.google.common.base.Throwables;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -37,16 +39,24 @@ import java.util.PriorityQueue;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.Classes.UnexpectedCheckedException;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.TimeSpan;
 import org.sosy_lab.common.time.Timer;
 import org.sosy_lab.cpachecker.cfa.CFA;
 import org.sosy_lab.cpachecker.cfa.model.CFANode;
@@ -101,6 +111,7 @@ import org.sosy_lab.cpachecker.exceptions.CPATransferException;
 import org.sosy_lab.cpachecker.util.AbstractStates;
 import org.sosy_lab.cpachecker.util.CPAs;
 import org.sosy_lab.cpachecker.util.LoopStructure.Loop;
+import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.cpachecker.util.automaton.CachingTargetLocationProvider;
 import org.sosy_lab.cpachecker.util.automaton.TargetLocationProvider;
 import org.sosy_lab.cpachecker.util.predicates.AssignmentToPathAllocator;
@@ -115,10 +126,11 @@ import org.sosy_lab.cpachecker.util.predicates.smt.Solver;
 import org.sosy_lab.cpachecker.util.variableclassification.VariableClassification;
 import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.Model.ValueAssignment;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
 import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
 import org.sosy_lab.java_smt.api.SolverException;
 
-public class PdrAlgorithm implements Algorithm {
+public class PdrAlgorithm implements Algorithm, AutoCloseable {
 
   private final Algorithm algorithm;
   private final ConfigurableProgramAnalysis cpa;
@@ -150,13 +162,47 @@ public class PdrAlgorithm implements Algorithm {
 
   private boolean invariantGenerationRunning = true;
 
+  // solvers and threads for parallel propagation, created lazily
+  private final List<Solver> propagationWorkerSolvers = new ArrayList<>();
+  private @Nullable ExecutorService propagationExecutor = null;
+
   private static class PdrStatistics implements Statistics {
 
     private final Timer satCheck = new Timer();
     private final Timer errorPathCreation = new Timer();
+    private final Timer initialPush = new Timer();
+    private final Timer propagation = new Timer();
+    private final Timer parallelPropagation = new Timer();
+    private long propagationWorkTime = 0;
+    private final Timer frontierExtension = new Timer();
+    private final Timer obligationBlocking = new Timer();
 
     @Override
     public void printStatistics(PrintStream pOut, Result pResult, UnmodifiableReachedSet pReached) {
+      if (initialPush.getNumberOfIntervals() > 0) {
+        pOut.println("Time for initial bounded checks:     " + initialPush);
+      }
+      if (propagation.getNumberOfIntervals() > 0) {
+        pOut.println("Time for clause propagation:         " + propagation);
+      }
+      if (parallelPropagation.getNumberOfIntervals() > 0) {
+        TimeSpan wallTime = parallelPropagation.getSumTime();
+        TimeSpan workTime = TimeSpan.of(propagationWorkTime, TimeUnit.NANOSECONDS);
+        pOut.println("  Time for parallel checks (wall):   " + wallTime.formatAs(TimeUnit.SECONDS));
+        pOut.println("  Time for parallel checks (work):   " + workTime.formatAs(TimeUnit.SECONDS));
+        if (!wallTime.isEmpty()) {
+          pOut.println(
+              String.format(
+                  "  Speedup of parallel checks:        %.2f",
+                  (double) propagationWorkTime / wallTime.asNanos()));
+        }
+      }
+      if (frontierExtension.getNumberOfIntervals() > 0) {
+        pOut.println("Time for frontier extension:         " + frontierExtension);
+      }
+      if (obligationBlocking.getNumberOfIntervals() > 0) {
+        pOut.println("Time for blocking proof obligations: " + obligationBlocking);
+      }
       if (satCheck.getNumberOfIntervals() > 0) {
         pOut.println("Time for final sat check:            " + satCheck);
       }
@@ -291,42 +337,28 @@ public class PdrAlgorithm implements Algorithm {
       learnClause(frameSet, 0, pTransitionRelation.getInitiationAssertion());
 
       while (producedNewRootInvariants) {
-        Optional<AlgorithmStatus> initialPushResult =
-            initialPush(candidateGenerator, bmcReachedSet, frameSet);
+        Optional<AlgorithmStatus> initialPushResult;
+        stats.initialPush.start();
+        try {
+          initialPushResult = initialPush(candidateGenerator, bmcReachedSet, frameSet);
+        } finally {
+          stats.initialPush.stop();
+        }
         if (initialPushResult.isPresent()) {
           return initialPushResult.orElseThrow();
         }
 
         while (candidateGenerator.hasCandidatesAvailable()) {
 
-          boolean propagated = false;
-
-          for (int i = 0; i < frameSet.getFrontierIndex(); ++i) {
-            @SuppressWarnings("resource")
-            ProverEnvironmentWithFallback frameProver = frameSet.getFrameProver(i);
-            Set<CandidateInvariant> frameInvariants = frameSet.getInvariants(i);
-            frameInvariants =
-                Sets.union(
-                    frameInvariants, Collections.singleton(getCurrentInvariant(pTransitionRelation)));
-            List<CandidateInvariant> toPush = new ArrayList<>();
-            for (CandidateInvariant frameClause : frameSet.getPushableFrameClauses(i)) {
-              InductionResult<CandidateInvariant> pushAttempt =
-                  checkInduction(
-                      frameProver,
-                      frameInvariants,
-                      pTransitionRelation,
-                      frameClause,
-                      InvariantStrengthenings.noStrengthening(),
-                      StandardLiftings.NO_LIFTING);
-              if (pushAttempt.isSuccessful()) {
-                toPush.add(frameClause);
-                propagated = true;
-              }
-            }
-
-            for (CandidateInvariant pushableClause : toPush) {
-              frameSet.pushFrameClause(i, pushableClause);
-            }
+          boolean propagated;
+          stats.propagation.start();
+          try {
+            propagated =
+                basicPdrOptions.getPropagationThreads() > 1
+                    ? propagateInParallel(frameSet, pTransitionRelation)
+                    : propagate(frameSet, pTransitionRelation);
+          } finally {
+            stats.propagation.stop();
           }
 
           if (propagated) {
@@ -354,6 +386,217 @@ public class PdrAlgorithm implements Algorithm {
     return status;
   }
 
+  /**
+   * Tries to push the clauses of each frame to the next frame.
+   *
+   * @return {@code true} if at least one clause was pushed, {@code false} otherwise.
+   */
+  private boolean propagate(FrameSet pFrameSet, TotalTransitionRelation pTransitionRelation)
+      throws InterruptedException, CPATransferException, SolverException {
+    boolean propagated = false;
+
+    for (int i = 0; i < pFrameSet.getFrontierIndex(); ++i) {
+      @SuppressWarnings("resource")
+      ProverEnvironmentWithFallback frameProver = pFrameSet.getFrameProver(i);
+      Set<CandidateInvariant> frameInvariants = pFrameSet.getInvariants(i);
+      frameInvariants =
+          Sets.union(
+              frameInvariants, Collections.singleton(getCurrentInvariant(pTransitionRelation)));
+      List<CandidateInvariant> toPush = new ArrayList<>();
+      for (CandidateInvariant frameClause : pFrameSet.getPushableFrameClauses(i)) {
+        InductionResult<CandidateInvariant> pushAttempt =
+            checkInduction(
+                frameProver,
+                frameInvariants,
+                pTransitionRelation,
+                frameClause,
+                InvariantStrengthenings.noStrengthening(),
+                StandardLiftings.NO_LIFTING);
+        if (pushAttempt.isSuccessful()) {
+          toPush.add(frameClause);
+          propagated = true;
+        }
+      }
+
+      for (CandidateInvariant pushableClause : toPush) {
+        pFrameSet.pushFrameClause(i, pushableClause);
+      }
+    }
+    return propagated;
+  }
+
+  /**
+   * Tries to push the clauses of all frames to their next frames like {@link #propagate}, but
+   * checks the clauses in parallel with separate solver instances. All clauses are checked
+   * relative to the frames at the start of the propagation, which is sound because frames only
+   * become stronger by pushing clauses. Clauses that become pushable only because of a clause
+   * pushed in the same propagation are pushed in the next propagation.
+   *
+   * @return {@code true} if at least one clause was pushed, {@code false} otherwise.
+   */
+  private boolean propagateInParallel(
+      FrameSet pFrameSet, TotalTransitionRelation pTransitionRelation)
+      throws InterruptedException, CPAException, SolverException {
+
+    // Create the queries in the main thread, because formula creation is not thread-safe
+    List<Solver> workerSolvers = initializePropagationWorkers();
+    BooleanFormula transition = pTransitionRelation.getTransitionFormula();
+    CandidateInvariant currentInvariant = getCurrentInvariant(pTransitionRelation);
+    List<Pair<Integer, CandidateInvariant>> clauses = new ArrayList<>();
+    List<BooleanFormula> queries = new ArrayList<>();
+    for (int i = 0; i < pFrameSet.getFrontierIndex(); ++i) {
+      BooleanFormula frameAssertion =
+          pTransitionRelation.getPredecessorAssertions(
+              Sets.union(pFrameSet.getInvariants(i), Collections.singleton(currentInvariant)));
+      for (CandidateInvariant frameClause : pFrameSet.getPushableFrameClauses(i)) {
+        shutdownNotifier.shutdownIfNecessary();
+        clauses.add(Pair.of(i, frameClause));
+        queries.add(
+            bfmgr.and(
+                frameAssertion,
+                pTransitionRelation.getPredecessorAssertion(frameClause),
+                BMCHelper.disjoinStateViolationAssertions(
+                    bfmgr, pTransitionRelation.getSuccessorViolationAssertions(frameClause))));
+      }
+    }
+    if (clauses.isEmpty()) {
+      return false;
+    }
+
+    // Distribute the queries round-robin and translate them to the worker solvers
+    final int workers = Math.min(workerSolvers.size(), clauses.size());
+    List<BooleanFormula> workerTransitions = new ArrayList<>(workers);
+    List<Map<Integer, BooleanFormula>> workerQueries = new ArrayList<>(workers);
+    for (int w = 0; w < workers; w++) {
+      FormulaManagerView workerFmgr = workerSolvers.get(w).getFormulaManager();
+      workerTransitions.add(workerFmgr.translateFrom(transition, fmgr));
+      workerQueries.add(new HashMap<>());
+    }
+    for (int q = 0; q < queries.size(); q++) {
+      FormulaManagerView workerFmgr = workerSolvers.get(q % workers).getFormulaManager();
+      workerQueries.get(q % workers).put(q, workerFmgr.translateFrom(queries.get(q), fmgr));
+    }
+
+    stats.parallelPropagation.start();
+    List<Future<Pair<Set<Integer>, Long>>> futures = new ArrayList<>(workers);
+    for (int w = 0; w < workers; w++) {
+      final Solver workerSolver = workerSolvers.get(w);
+      final BooleanFormula workerTransition = workerTransitions.get(w);
+      final Map<Integer, BooleanFormula> queriesOfWorker = workerQueries.get(w);
+      futures.add(
+          propagationExecutor.submit(
+              () -> findUnsatisfiable(workerSolver, workerTransition, queriesOfWorker)));
+    }
+
+    // always wait for all threads, because the worker solvers are reused
+    List<Throwable> errors = new ArrayList<>();
+    Set<Integer> pushable = new HashSet<>();
+    long workTime = 0;
+    for (Future<Pair<Set<Integer>, Long>> future : futures) {
+      try {
+        Pair<Set<Integer>, Long> result = future.get();
+        pushable.addAll(result.getFirst());
+        workTime += result.getSecond();
+      } catch (ExecutionException e) {
+        errors.add(e.getCause());
+      }
+    }
+    stats.parallelPropagation.stop();
+    stats.propagationWorkTime += workTime;
+    if (!errors.isEmpty()) {
+      Throwable error = errors.get(0);
+      for (Throwable other : errors.subList(1, errors.size())) {
+        error.addSuppressed(other);
+      }
+      Throwables.throwIfInstanceOf(error, SolverException.class);
+      Throwables.propagateIfPossible(error, CPAException.class, InterruptedException.class);
+      throw new UnexpectedCheckedException("parallel propagation", error);
+    }
+
+    // Push the clauses in the order of the frames, like the sequential propagation
+    for (int q = 0; q < clauses.size(); q++) {
+      if (pushable.contains(q)) {
+        int frameIndex = clauses.get(q).getFirst();
+        CandidateInvariant clause = clauses.get(q).getSecond();
+        if (pFrameSet.getFrameClauses(frameIndex).contains(clause)) {
+          pFrameSet.pushFrameClause(frameIndex, clause);
+        }
+      }
+    }
+    logger.log(
+        Level.FINER, "Pushed", pushable.size(), "of", clauses.size(), "clauses in parallel");
+    return !pushable.isEmpty();
+  }
+
+  /**
+   * Check the given queries in conjunction with the transition and return the indices of the
+   * unsatisfiable ones, together with the time spent. Runs in a worker thread.
+   */
+  private Pair<Set<Integer>, Long> findUnsatisfiable(
+      Solver pWorkerSolver, BooleanFormula pTransition, Map<Integer, BooleanFormula> pQueries)
+      throws InterruptedException, SolverException {
+    long start = System.nanoTime();
+    Set<Integer> unsat = new HashSet<>();
+    try (ProverEnvironment workerProver = pWorkerSolver.newProverEnvironment()) {
+      workerProver.push(pTransition);
+      for (Map.Entry<Integer, BooleanFormula> query : pQueries.entrySet()) {
+        shutdownNotifier.shutdownIfNecessary();
+        workerProver.push(query.getValue());
+        if (workerProver.isUnsat()) {
+          unsat.add(query.getKey());
+        }
+        workerProver.pop();
+      }
+    }
+    return Pair.of(unsat, System.nanoTime() - start);
+  }
+
+  private List<Solver> initializePropagationWorkers() throws InterruptedException {
+    if (propagationExecutor == null) {
+      // use daemon threads, such that the executor does not block termination if we are not closed
+      propagationExecutor =
+          Executors.newFixedThreadPool(
+              basicPdrOptions.getPropagationThreads(),
+              new ThreadFactoryBuilder()
+                  .setDaemon(true)
+                  .setNameFormat("PDR-propagation-thread-%d")
+                  .build());
+    }
+    try {
+      while (propagationWorkerSolvers.size() < basicPdrOptions.getPropagationThreads()) {
+        propagationWorkerSolvers.add(Solver.create(config, logger, shutdownNotifier));
+      }
+    } catch (InvalidConfigurationException e) {
+      // the same configuration was already used for the solver of the predicate analysis
+      throw new AssertionError(e);
+    }
+    return propagationWorkerSolvers;
+  }
+
+  @Override
+  public void close() {
+    CPAs.closeIfPossible(algorithm, logger);
+    if (propagationExecutor != null) {
+      propagationExecutor.shutdownNow();
+      try {
+        // the worker solvers must not be closed while a worker thread still uses them
+        if (!propagationExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
+          logger.log(
+              Level.WARNING, "Propagation threads of PDR did not terminate, not closing solvers");
+          return;
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      propagationExecutor = null;
+    }
+    for (Solver workerSolver : propagationWorkerSolvers) {
+      workerSolver.close();
+    }
+    propagationWorkerSolvers.clear();
+  }
+
   /**
    * Adjusts the conditions of those CPAs that support the adjustment of conditions.
    *
@@ -431,20 +674,31 @@ public class PdrAlgorithm implements Algorithm {
       FrontierExtensionResult frontierExtensionResult = null;
       while (frontierExtensionResult == null || !frontierExtensionResult.isSuccessful()) {
 
-        frontierExtensionResult =
-            extendFrontier(rootCandidateInvariant, pFrameSet, pTransitionRelation);
+        stats.frontierExtension.start();
+        try {
+          frontierExtensionResult =
+              extendFrontier(rootCandidateInvariant, pFrameSet, pTransitionRelation);
+        } finally {
+          stats.frontierExtension.stop();
+        }
 
         if (frontierExtensionResult.getEarlyReturn().isPresent()) {
           return frontierExtensionResult.getEarlyReturn();
         }
 
         if (!frontierExtensionResult.isSuccessful()) {
-          Optional<AlgorithmStatus> blockResult =
-              blockProofObligation(
-                  pFrameSet,
-                  pTransitionRelation,
-                  frontierExtensionResult.getProofObligation(),
-                  pCandidateGenerator);
+          Optional<AlgorithmStatus> blockResult;
+          stats.obligationBlocking.start();
+          try {
+            blockResult =
+                blockProofObligation(
+                    pFrameSet,
+                    pTransitionRelation,
+                    frontierExtensionResult.getProofObligation(),
+                    pCandidateGenerator);
+          } finally {
+            stats.obligationBlocking.stop();
+          }
           if (blockResult.isPresent()) {
             return blockResult;
           }
@@ -1312,6 +1566,16 @@ public class PdrAlgorithm implements Algorithm {
     private ConditionAdjustmentCriterion conditionAdjustmentCriterion =
         ConditionAdjustmentCriterion.NEVER;
 
+    @Option(
+      secure = true,
+      description =
+          "Number of threads for propagating clauses to the next frame."
+              + " If larger than 1, the clauses of all frames are checked in parallel"
+              + " with separate solver instances."
+    )
+    @IntegerOption(min = 1)
+    private int propagationThreads = 1;
+
     private BasicPdrOptions(Configuration pConfig) throws InvalidConfigurationException {
       pConfig.inject(this);
     }
@@ -1339,6 +1603,10 @@ public class PdrAlgorithm implements Algorithm {
     public ConditionAdjustmentCriterion getConditionAdjustmentCriterion() {
       return conditionAdjustmentCriterion;
     }
+
+    public int getPropagationThreads() {
+      return propagationThreads;
+    }
   }
 
   private enum LiftingStrategyFactories {
@@ -0,0 +1,56 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core.algorithm.bmc.pdr;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.Test;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.util.test.CPATestRunner;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+import org.sosy_lab.cpachecker.util.test.TestResults;
+
+public class PdrAlgorithmTest {
+
+  private static final String CONFIG_FILE =
+      "config/unmaintained/components/kInduction/pdr.properties";
+
+  private static Result run(String pProgram, int pPropagationThreads) throws Exception {
+    Configuration config =
+        TestDataTools.configurationForTest()
+            .loadFromFile(CONFIG_FILE)
+            .setOption("pdr.propagationThreads", Integer.toString(pPropagationThreads))
+            .build();
+    TestResults results = CPATestRunner.run(config, pProgram);
+    return results.getCheckerResult().getResult();
+  }
+
+  private static void checkParallelPropagation(String pProgram, Result pExpected)
+      throws Exception {
+    assertThat(run(pProgram, 1)).isEqualTo(pExpected);
+    assertThat(run(pProgram, 3)).isEqualTo(pExpected);
+  }
+
+  @Test
+  public void parallelPropagationSafe() throws Exception {
+    checkParallelPropagation("test/programs/induction/induction1.c", Result.TRUE);
+  }
+
+  @Test
+  public void parallelPropagationSafeWithSeveralClauses() throws Exception {
+    checkParallelPropagation("test/programs/induction/induction-mod2.c", Result.TRUE);
+  }
+
+  @Test
+  public void parallelPropagationUnsafe() throws Exception {
+    checkParallelPropagation(
+        "test/programs/modified/intraprocedural_inc_false-unreach-call.c", Result.FALSE);
+  }
+}
@@ -9,6 +9,7 @@
 package org.sosy_lab.cpachecker.core.algorithm.parallel_bam;
 
 import static com.google.common.base.Preconditions.checkState;
+import static org.sosy_lab.cpachecker.util.statistics.StatisticsUtils.toPercent;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Iterables;
@@ -29,6 +30,8 @@ import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
@@ -36,6 +39,7 @@ import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Level;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.Classes.UnexpectedCheckedException;
@@ -48,6 +52,7 @@ import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.common.io.IO;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.common.log.LogManagerWithoutDuplicates;
+import org.sosy_lab.common.time.TimeSpan;
 import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
 import org.sosy_lab.cpachecker.core.algorithm.Algorithm;
 import org.sosy_lab.cpachecker.core.algorithm.CPAAlgorithm.CPAAlgorithmFactory;
@@ -59,6 +64,7 @@ import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
 import org.sosy_lab.cpachecker.cpa.arg.ARGReachedSet;
 import org.sosy_lab.cpachecker.cpa.bam.BAMCPAWithBreakOnMissingBlock;
 import org.sosy_lab.cpachecker.cpa.bam.BAMReachedSetValidator;
+import org.sosy_lab.cpachecker.cpa.bam.cache.BAMCacheConcurrent;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.exceptions.CompoundException;
 import org.sosy_lab.cpachecker.util.statistics.StatCounter;
@@ -84,6 +90,25 @@ public class ParallelBAMAlgorithm implements Algorithm, StatisticsProvider {
   @FileOption(FileOption.Type.OUTPUT_FILE)
   private Path runningRSESeriesFile = Paths.get("RSESeries.csv");
 
+  enum Scheduler {
+    /** a fixed pool of threads with one shared FIFO queue of tasks. */
+    FIXED_POOL,
+    /** a work-stealing pool where each thread has its own queue of tasks. */
+    WORK_STEALING,
+    /** a fixed pool of threads that prefers the tasks of deeply nested reached-sets. */
+    CRITICAL_PATH,
+  }
+
+  @Option(
+      secure = true,
+      description =
+          "scheduling strategy for the tasks of the reached-set executors: "
+              + "FIXED_POOL uses a single shared queue, "
+              + "WORK_STEALING lets idle threads steal tasks from busy threads, "
+              + "CRITICAL_PATH prefers tasks of deeply nested blocks, "
+              + "because those block the most other reached-sets.")
+  private Scheduler scheduler = Scheduler.FIXED_POOL;
+
   private final ParallelBAMStatistics stats = new ParallelBAMStatistics();
   private final LogManager logger;
   private final LogManagerWithoutDuplicates oneTimeLogger;
@@ -124,12 +149,8 @@ public class ParallelBAMAlgorithm implements Algorithm, StatisticsProvider {
     final int numberOfCores = getNumberOfCores();
     oneTimeLogger.logfOnce(Level.INFO, "creating pool for %d threads", numberOfCores);
 
-    ThreadFactory threadFactory =
-        new ThreadFactoryBuilder()
-            .setDaemon(true) // for killing hanging threads at program exit
-            .setNameFormat("ParallelBAM-thread-%d")
-            .build();
-    final ExecutorService pool = Executors.newFixedThreadPool(numberOfCores, threadFactory);
+    final ExecutorService pool = createPool(numberOfCores);
+    stats.numberOfThreads = numberOfCores;
     final List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
     final AtomicBoolean terminateAnalysis = new AtomicBoolean(false);
     final AtomicInteger scheduledJobs = new AtomicInteger(0);
@@ -146,6 +167,7 @@ public class ParallelBAMAlgorithm implements Algorithm, StatisticsProvider {
             mainReachedSet,
             bamcpa.getBlockPartitioning().getMainBlock(),
             true,
+            0,
             reachedSetMapping,
             pool,
             algorithmFactory,
@@ -215,6 +237,35 @@ public class ParallelBAMAlgorithm implements Algorithm, StatisticsProvider {
     return AlgorithmStatus.SOUND_AND_PRECISE.withSound(isSound);
   }
 
+  private ExecutorService createPool(int numberOfCores) {
+    ThreadFactory threadFactory =
+        new ThreadFactoryBuilder()
+            .setDaemon(true) // for killing hanging threads at program exit
+            .setNameFormat("ParallelBAM-thread-%d")
+            .build();
+    switch (scheduler) {
+      case FIXED_POOL:
+        return Executors.newFixedThreadPool(numberOfCores, threadFactory);
+      case WORK_STEALING:
+        AtomicInteger threadCounter = new AtomicInteger(0);
+        return new ForkJoinPool(
+            numberOfCores,
+            forkJoinPool -> {
+              ForkJoinWorkerThread thread =
+                  ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+              thread.setDaemon(true); // for killing hanging threads at program exit
+              thread.setName("ParallelBAM-thread-" + threadCounter.getAndIncrement());
+              return thread;
+            },
+            null,
+            true); // FIFO order for tasks that are never joined
+      case CRITICAL_PATH:
+        return new PrioritizedThreadPoolExecutor(numberOfCores, threadFactory);
+      default:
+        throw new AssertionError("unknown scheduler " + scheduler);
+    }
+  }
+
   private int getNumberOfCores() {
     if (numberOfThreads > 0) {
       return numberOfThreads;
@@ -327,10 +378,51 @@ public class ParallelBAMAlgorithm implements Algorithm, StatisticsProvider {
     final StatHist histActiveThreads = new StatHist("Active threads");
     final StatHist executionCounter = new StatHist("RSE execution counter");
     private final StatCounter unfinishedRSEcounter = new StatCounter("unfinished reached-sets");
+    private final ConcurrentMap<String, LongAdder> busyTimePerThread = new ConcurrentHashMap<>();
+    private int numberOfThreads = 0;
 
     final StatisticsSeries<Integer> runningRSESeries =
         (runningRSESeriesFile == null) ? new NoopStatisticsSeries<>() : new StatisticsSeries<>();
 
+    /** Account the time a thread spent executing a task of an RSE. */
+    void addBusyTime(Thread pThread, long pNanos) {
+      busyTimePerThread.computeIfAbsent(pThread.getName(), k -> new LongAdder()).add(pNanos);
+    }
+
+    private void printThreadUtilization(PrintStream pOut) {
+      long wallNanos = wallTime.getConsumedTime().asNanos();
+      if (numberOfThreads == 0 || wallNanos == 0) {
+        return;
+      }
+      StatHist utilization = new StatHist("");
+      long idleNanos = 0;
+      for (LongAdder busyTime : busyTimePerThread.values()) {
+        long busyNanos = Math.min(busyTime.sum(), wallNanos);
+        utilization.insertValue((int) (100 * busyNanos / wallNanos));
+        idleNanos += wallNanos - busyNanos;
+      }
+      // threads that never executed a task were idle all the time
+      for (int i = busyTimePerThread.size(); i < numberOfThreads; i++) {
+        utilization.insertValue(0);
+        idleNanos += wallNanos;
+      }
+      StatisticsUtils.write(pOut, 0, 50, "scheduler", scheduler);
+      StatisticsUtils.write(
+          pOut,
+          1,
+          50,
+          "thread utilization",
+          String.format(
+              "avg=%.0f%%, min=%d%%, max=%d%%",
+              utilization.getAvg(), utilization.getMin(), utilization.getMax()));
+      StatisticsUtils.write(
+          pOut,
+          1,
+          50,
+          "idle time of all threads",
+          TimeSpan.ofNanos(idleNanos).formatAs(TimeUnit.SECONDS));
+    }
+
     @Override
     public void printStatistics(PrintStream pOut, Result pResult, UnmodifiableReachedSet pReached) {
       StatisticsUtils.write(pOut, 0, 50, "max number of executors", numMaxRSE);
@@ -341,6 +433,20 @@ public class ParallelBAMAlgorithm implements Algorithm, StatisticsProvider {
       StatisticsUtils.write(pOut, 0, 50, threadTime);
       StatisticsUtils.write(pOut, 1, 50, addingStatesTime);
       StatisticsUtils.write(pOut, 1, 50, terminationCheckTime);
+      printThreadUtilization(pOut);
+      if (bamcpa.getCache() instanceof BAMCacheConcurrent) {
+        BAMCacheConcurrent cache = (BAMCacheConcurrent) bamcpa.getCache();
+        long accesses = cache.getNumberOfAccesses();
+        long contended = cache.getNumberOfContendedAccesses();
+        StatisticsUtils.write(
+            pOut,
+            0,
+            50,
+            "contended cache accesses",
+            String.format("%d (%s of %d)", contended, toPercent(contended, accesses), accesses));
+        StatisticsUtils.write(
+            pOut, 1, 50, "time waiting for cache", cache.getLockWaitTime().formatAs(TimeUnit.SECONDS));
+      }
     }
 
     @Override
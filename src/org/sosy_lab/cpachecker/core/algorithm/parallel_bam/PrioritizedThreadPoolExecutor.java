@@ -0,0 +1,79 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core.algorithm.parallel_bam;
+
+import java.util.Comparator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A thread pool that executes the tasks of deeper nested reached-sets first. A reached-set that is
+ * nested deeply blocks all reached-sets on the path up to the main reached-set, i.e., the
+ * critical path of the analysis, so finishing it early unblocks most other work. Tasks with the
+ * same depth are executed in FIFO order.
+ */
+class PrioritizedThreadPoolExecutor extends ThreadPoolExecutor {
+
+  private final AtomicLong sequenceNumber = new AtomicLong(0);
+
+  private static final class PrioritizedTask implements Runnable {
+
+    private static final Comparator<PrioritizedTask> ORDER =
+        Comparator.<PrioritizedTask>comparingInt(t -> -t.depth)
+            .thenComparingLong(t -> t.sequenceNumber);
+
+    private final Runnable task;
+    private final int depth;
+    private final long sequenceNumber;
+
+    private PrioritizedTask(Runnable pTask, int pDepth, long pSequenceNumber) {
+      task = pTask;
+      depth = pDepth;
+      sequenceNumber = pSequenceNumber;
+    }
+
+    @Override
+    public void run() {
+      task.run();
+    }
+  }
+
+  PrioritizedThreadPoolExecutor(int pNumberOfThreads, ThreadFactory pThreadFactory) {
+    super(
+        pNumberOfThreads,
+        pNumberOfThreads,
+        0L,
+        TimeUnit.MILLISECONDS,
+        new PriorityBlockingQueue<>(
+            11, Comparator.comparing(r -> (PrioritizedTask) r, PrioritizedTask.ORDER)),
+        pThreadFactory);
+  }
+
+  /**
+   * Return an executor that submits tasks into this pool with the priority for a reached-set with
+   * the given nesting depth.
+   */
+  Executor withPriority(int pDepth) {
+    return task -> execute(new PrioritizedTask(task, pDepth, sequenceNumber.getAndIncrement()));
+  }
+
+  @Override
+  public void execute(Runnable pCommand) {
+    if (pCommand instanceof PrioritizedTask) {
+      super.execute(pCommand);
+    } else {
+      // lowest priority for tasks that are not associated with a reached-set
+      super.execute(new PrioritizedTask(pCommand, 0, sequenceNumber.getAndIncrement()));
+    }
+  }
+}
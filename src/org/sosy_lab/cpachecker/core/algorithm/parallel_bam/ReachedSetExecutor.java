@@ -29,6 +29,7 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -87,6 +88,15 @@ class ReachedSetExecutor {
 
   private final ExecutorService pool;
 
+  /**
+   * The executor for the tasks of this RSE. If the pool supports priorities, the tasks of this RSE
+   * are prioritized by their nesting depth.
+   */
+  private final Executor taskExecutor;
+
+  /** nesting depth of the reached-set, the main reached-set has depth 0. */
+  private final int depth;
+
   private final BAMCPAWithBreakOnMissingBlock bamcpa;
   private final AlgorithmFactory algorithmFactory;
   private final ShutdownNotifier shutdownNotifier;
@@ -135,6 +145,7 @@ class ReachedSetExecutor {
       ReachedSet pRs,
       Block pBlock,
       boolean pIsMainReachedSet,
+      int pDepth,
       ConcurrentMap<ReachedSet, ReachedSetExecutor> pReachedSetMapping,
       ExecutorService pPool,
       AlgorithmFactory pAlgorithmFactory,
@@ -148,8 +159,13 @@ class ReachedSetExecutor {
     rs = pRs;
     block = pBlock;
     isMainReachedSet = pIsMainReachedSet;
+    depth = pDepth;
     reachedSetMapping = pReachedSetMapping;
     pool = pPool;
+    taskExecutor =
+        pool instanceof PrioritizedThreadPoolExecutor
+            ? ((PrioritizedThreadPoolExecutor) pool).withPriority(depth)
+            : pool;
     algorithmFactory = pAlgorithmFactory;
     shutdownNotifier = pShutdownNotifier;
     stats = pStats;
@@ -169,7 +185,7 @@ class ReachedSetExecutor {
     terminationCheckTimer = stats.terminationCheckTime.getNewTimer();
 
     // initialization with a NOOP, more tasks are appended later
-    waitingTask = CompletableFuture.runAsync(() -> {}, pool);
+    waitingTask = CompletableFuture.runAsync(() -> {}, taskExecutor);
   }
 
   public Runnable asRunnable() {
@@ -188,7 +204,7 @@ class ReachedSetExecutor {
 
   synchronized void addNewTask(Runnable r) {
     scheduledJobs.incrementAndGet();
-    waitingTask = waitingTask.thenRunAsync(r, pool).exceptionally(new ExceptionHandler(this));
+    waitingTask = waitingTask.thenRunAsync(r, taskExecutor).exceptionally(new ExceptionHandler(this));
   }
 
   /** use only for debugging and exception handling */
@@ -198,6 +214,7 @@ class ReachedSetExecutor {
 
   private void apply0(Collection<AbstractState> pStatesToBeAdded) {
     threadTimer.start();
+    long startTime = System.nanoTime();
     int running = stats.numActiveThreads.incrementAndGet();
     stats.histActiveThreads.insertValue(running);
     stats.numMaxRSE.accumulate(reachedSetMapping.size());
@@ -218,6 +235,7 @@ class ReachedSetExecutor {
       pool.shutdownNow();
     } finally {
       stats.numActiveThreads.decrementAndGet();
+      stats.addBusyTime(Thread.currentThread(), System.nanoTime() - startTime);
       threadTimer.stop();
     }
   }
@@ -523,6 +541,7 @@ class ReachedSetExecutor {
                     newRs2,
                     pBsme.getBlock(),
                     false, // mainReachedSet is never nested in another reached-set
+                    depth + 1,
                     reachedSetMapping,
                     pool,
                     algorithmFactory,
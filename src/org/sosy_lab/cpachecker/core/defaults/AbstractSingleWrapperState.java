@@ -12,7 +12,9 @@ import static com.google.common.base.Preconditions.checkState;
 
 import com.google.common.base.Function;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import java.io.Serializable;
+import java.util.Collection;
 import java.util.Set;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
@@ -20,6 +22,7 @@ import org.sosy_lab.cpachecker.core.interfaces.AbstractWrapperState;
 import org.sosy_lab.cpachecker.core.interfaces.Partitionable;
 import org.sosy_lab.cpachecker.core.interfaces.Property;
 import org.sosy_lab.cpachecker.core.interfaces.PseudoPartitionable;
+import org.sosy_lab.cpachecker.core.interfaces.SubsumptionIndexable;
 import org.sosy_lab.cpachecker.core.interfaces.Targetable;
 
 /**
@@ -27,7 +30,12 @@ import org.sosy_lab.cpachecker.core.interfaces.Targetable;
  * one CPA.
  */
 public abstract class AbstractSingleWrapperState
-    implements AbstractWrapperState, Targetable, Partitionable, PseudoPartitionable, Serializable {
+    implements AbstractWrapperState,
+        Targetable,
+        Partitionable,
+        PseudoPartitionable,
+        SubsumptionIndexable,
+        Serializable {
 
   private static final long serialVersionUID = -332757795984736107L;
 
@@ -89,6 +97,15 @@ public abstract class AbstractSingleWrapperState
     }
   }
 
+  @Override
+  public Collection<?> getSubsumptionKeys() {
+    if (wrappedState instanceof SubsumptionIndexable) {
+      return ((SubsumptionIndexable) wrappedState).getSubsumptionKeys();
+    } else {
+      return ImmutableSet.of();
+    }
+  }
+
   @Override
   public String toString() {
     return wrappedState.toString();
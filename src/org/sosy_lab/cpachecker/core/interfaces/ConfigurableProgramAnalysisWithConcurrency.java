@@ -0,0 +1,41 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core.interfaces;
+
+import org.sosy_lab.cpachecker.core.algorithm.ConcurrentCPAAlgorithm;
+
+/**
+ * Interface for CPAs that can be used by {@link ConcurrentCPAAlgorithm}, i.e., by several threads
+ * that explore the state space at the same time and share one reached set.
+ *
+ * <p>A CPA that returns true from {@link #supportsConcurrentExploration()} guarantees that
+ *
+ * <ul>
+ *   <li>each call to {@link #getTransferRelation()} and {@link #getPrecisionAdjustment()} returns
+ *       an operator that can be used by one thread while the operators returned by other calls are
+ *       used by other threads (either because a new instance is created for each call or because
+ *       the operator has no mutable state),
+ *   <li>the abstract domain, the merge operator, and the stop operator can be used by several
+ *       threads at the same time,
+ *   <li>abstract states and precisions are not modified after they were returned by an operator,
+ *       and
+ *   <li>the precision adjustment does not access the reached set that is given to it.
+ * </ul>
+ */
+public interface ConfigurableProgramAnalysisWithConcurrency extends ConfigurableProgramAnalysis {
+
+  /**
+   * Check whether this CPA (in its current configuration) fulfills the requirements described in
+   * {@link ConfigurableProgramAnalysisWithConcurrency}. Wrapper CPAs should only return true if all
+   * wrapped CPAs do so.
+   */
+  default boolean supportsConcurrentExploration() {
+    return true;
+  }
+}
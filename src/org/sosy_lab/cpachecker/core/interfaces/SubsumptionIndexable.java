@@ -0,0 +1,32 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core.interfaces;
+
+import java.util.Collection;
+
+/**
+ * This interface can be used for abstract states whose 'lessOrEqual' relation can be
+ * over-approximated by the inclusion of simple facts, e.g., assignments of values to variables.
+ * The reached set can index the states by these facts and exclude states from coverage checks
+ * without calling the (potentially expensive) operator 'lessOrEqual'.
+ */
+public interface SubsumptionIndexable {
+
+  /**
+   * Return the facts that hold in this abstract state. The facts need to be hashable and must not
+   * change while the state is in the reached set.
+   *
+   * <p>If a state <code>s</code> is 'lessOrEqual' to a state <code>r</code>, each fact of <code>r
+   * </code> must also be a fact of <code>s</code>. An empty collection is always a valid result,
+   * in this case the state cannot be excluded from any coverage check.
+   *
+   * @return a collection of distinct facts of this state
+   */
+  Collection<?> getSubsumptionKeys();
+}
@@ -21,13 +21,28 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 public class AggregatedReachedSets {
   protected final Set<UnmodifiableReachedSet> reachedSets;
+  private final AnalysisInformationExchange informationExchange;
 
   public AggregatedReachedSets() {
-    reachedSets = ImmutableSet.of();
+    this(ImmutableSet.of());
   }
 
   public AggregatedReachedSets(Set<UnmodifiableReachedSet> pReachedSets) {
+    this(pReachedSets, new AnalysisInformationExchange());
+  }
+
+  private AggregatedReachedSets(
+      Set<UnmodifiableReachedSet> pReachedSets, AnalysisInformationExchange pInformationExchange) {
     reachedSets = checkNotNull(pReachedSets);
+    informationExchange = checkNotNull(pInformationExchange);
+  }
+
+  /**
+   * Return the exchange for intermediate results of the analyses that share these reached sets.
+   * The exchange is disabled unless the analyses run in parallel.
+   */
+  public AnalysisInformationExchange getInformationExchange() {
+    return informationExchange;
   }
 
   public Set<UnmodifiableReachedSet> snapShot() {
@@ -41,8 +56,10 @@ public class AggregatedReachedSets {
     private final List<AggregatedThreadedReachedSets> otherAggregators = new ArrayList<>();
 
     private AggregatedThreadedReachedSets(
-        final ReentrantReadWriteLock pLock, Set<UnmodifiableReachedSet> pReachedSets) {
-      super(pReachedSets);
+        final ReentrantReadWriteLock pLock,
+        Set<UnmodifiableReachedSet> pReachedSets,
+        AnalysisInformationExchange pInformationExchange) {
+      super(pReachedSets, pInformationExchange);
       lock = pLock;
     }
 
@@ -68,9 +85,16 @@ public class AggregatedReachedSets {
     private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
     private final AggregatedThreadedReachedSets reachedView;
     private final Set<UnmodifiableReachedSet> reachedSets = ConcurrentHashMap.newKeySet();
+    private final AnalysisInformationExchange informationExchange =
+        new AnalysisInformationExchange();
 
     public AggregatedReachedSetManager() {
-      reachedView = new AggregatedThreadedReachedSets(lock, reachedSets);
+      reachedView = new AggregatedThreadedReachedSets(lock, reachedSets, informationExchange);
+    }
+
+    /** Allow the analyses that use the view of this manager to exchange intermediate results. */
+    public void enableInformationExchange() {
+      informationExchange.enable();
     }
 
     public void addReachedSet(UnmodifiableReachedSet reached) {
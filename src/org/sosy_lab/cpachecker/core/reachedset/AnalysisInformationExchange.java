@@ -0,0 +1,192 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core.reachedset;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Exchange of intermediate results (e.g., predicates or precision increments) between analyses
+ * that run in parallel, such that each analysis can benefit from the refinements of the others
+ * before they terminate.
+ *
+ * <p>Results are published to a {@link Topic} via a {@link Subscription}, and each subscription
+ * receives all results of the same topic that were published by other subscriptions. Published
+ * results need to be immutable and must not reference objects that are specific to one analysis,
+ * like formulas of an SMT solver.
+ *
+ * <p>Results are kept only until all subscriptions of the topic have received them, so a
+ * subscription that is created later does not receive them anymore. Subscriptions are referenced
+ * only weakly, such that a subscription of a terminated analysis does not prevent this.
+ *
+ * <p>The exchange is disabled by default, in this case publishing is a no-op and no results are
+ * received. It is enabled by the analysis that starts the other analyses, e.g., the
+ * {@link org.sosy_lab.cpachecker.core.algorithm.ParallelAlgorithm}.
+ */
+public final class AnalysisInformationExchange {
+
+  /**
+   * The kind of results that is exchanged. Topics are compared by identity, so producers and
+   * consumers have to use the same instance, typically a constant.
+   */
+  public static final class Topic<T> {
+
+    private final String name;
+
+    public Topic(String pName) {
+      name = checkNotNull(pName);
+    }
+
+    @Override
+    public String toString() {
+      return name;
+    }
+  }
+
+  private static final class Publication {
+    // only the id, a reference to the subscription would keep it alive
+    private final int publisherId;
+    private final Object item;
+
+    private Publication(int pPublisherId, Object pItem) {
+      publisherId = pPublisherId;
+      item = pItem;
+    }
+  }
+
+  /** The results of one topic that not all subscriptions have received yet. */
+  private static final class TopicLog {
+
+    // all fields are guarded by this
+
+    private final List<Publication> publications = new ArrayList<>();
+
+    /** The number of publications that were already dropped before the first one in the list. */
+    private long firstIndex = 0;
+
+    private final Map<Subscription<?>, Boolean> subscriptions = new WeakHashMap<>();
+
+    /** Drop all publications that were received by all subscriptions. */
+    private void dropReceivedPublications() {
+      long received = firstIndex + publications.size();
+      for (Subscription<?> subscription : subscriptions.keySet()) {
+        received = Math.min(received, subscription.nextIndex);
+      }
+      int toDrop = (int) (received - firstIndex);
+      if (toDrop > 0) {
+        publications.subList(0, toDrop).clear();
+        firstIndex = received;
+      }
+    }
+  }
+
+  /**
+   * The access of one analysis to one topic. A subscription remembers which results were already
+   * received, it should be used by a single thread only.
+   */
+  public final class Subscription<T> {
+
+    private final Topic<T> topic;
+    private final TopicLog log;
+    private final int id = subscriptionIds.getAndIncrement();
+
+    // guarded by log
+    private long nextIndex;
+
+    private Subscription(Topic<T> pTopic) {
+      topic = pTopic;
+      log = publicationsPerTopic.computeIfAbsent(pTopic, t -> new TopicLog());
+      synchronized (log) {
+        nextIndex = log.firstIndex;
+        log.subscriptions.put(this, Boolean.TRUE);
+      }
+    }
+
+    /** Make a result available to all other subscriptions of the same topic. */
+    public void publish(T pItem) {
+      checkNotNull(pItem);
+      if (!enabled) {
+        return;
+      }
+      synchronized (log) {
+        log.publications.add(new Publication(id, pItem));
+      }
+      numPublished.increment();
+    }
+
+    /**
+     * Return all results that were published by other subscriptions of the same topic since the
+     * last call to this method.
+     */
+    @SuppressWarnings("unchecked") // all publications of a topic have the type of the topic
+    public ImmutableList<T> poll() {
+      if (!enabled) {
+        return ImmutableList.of();
+      }
+      ImmutableList.Builder<T> result = ImmutableList.builder();
+      synchronized (log) {
+        List<Publication> publications = log.publications;
+        int start = (int) (nextIndex - log.firstIndex);
+        for (Publication publication : publications.subList(start, publications.size())) {
+          if (publication.publisherId != id) {
+            result.add((T) publication.item);
+          }
+        }
+        nextIndex = log.firstIndex + publications.size();
+        log.dropReceivedPublications();
+      }
+      ImmutableList<T> received = result.build();
+      numReceived.add(received.size());
+      return received;
+    }
+
+    @Override
+    public String toString() {
+      return "Subscription to " + topic;
+    }
+  }
+
+  private final ConcurrentMap<Topic<?>, TopicLog> publicationsPerTopic =
+      new ConcurrentHashMap<>();
+  private final AtomicInteger subscriptionIds = new AtomicInteger();
+  private final LongAdder numPublished = new LongAdder();
+  private final LongAdder numReceived = new LongAdder();
+  private volatile boolean enabled = false;
+
+  public <T> Subscription<T> subscribe(Topic<T> pTopic) {
+    return new Subscription<>(pTopic);
+  }
+
+  void enable() {
+    enabled = true;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /** Return how many results were published so far. */
+  public long getNumberOfPublishedItems() {
+    return numPublished.sum();
+  }
+
+  /** Return how many results were received by other analyses so far. */
+  public long getNumberOfReceivedItems() {
+    return numReceived.sum();
+  }
+}
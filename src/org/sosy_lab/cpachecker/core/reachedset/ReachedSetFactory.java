@@ -41,7 +41,7 @@ import org.sosy_lab.cpachecker.cpa.usage.storage.UsageConfiguration;
 public class ReachedSetFactory {
 
   private enum ReachedSetType {
-    NORMAL, LOCATIONMAPPED, PARTITIONED, PSEUDOPARTITIONED, USAGE
+    NORMAL, LOCATIONMAPPED, PARTITIONED, PSEUDOPARTITIONED, SUBSUMPTIONINDEXED, USAGE
   }
 
   @Option(
@@ -176,6 +176,9 @@ public class ReachedSetFactory {
             + "\nPARTITIONED: partitioning depending on CPAs (e.g Location, Callstack etc.)"
             + "\nPSEUDOPARTITIONED: based on PARTITIONED, uses additional info about the states' lattice "
             + "(maybe faster for some special analyses which use merge_sep and stop_sep"
+            + "\nSUBSUMPTIONINDEXED: based on PARTITIONED, indexes states by simple facts "
+            + "(e.g. variable assignments of ValueAnalysisCPA) to avoid coverage checks, "
+            + "only for analyses which use merge_sep and stop_sep"
   )
   private ReachedSetType reachedSet = ReachedSetType.PARTITIONED;
 
@@ -274,6 +277,9 @@ public class ReachedSetFactory {
     case PSEUDOPARTITIONED:
         reached = new PseudoPartitionedReachedSet(waitlistFactory);
         break;
+    case SUBSUMPTIONINDEXED:
+        reached = new SubsumptionIndexedReachedSet(waitlistFactory);
+        break;
     case LOCATIONMAPPED:
         reached = new LocationMappedReachedSet(waitlistFactory);
         break;
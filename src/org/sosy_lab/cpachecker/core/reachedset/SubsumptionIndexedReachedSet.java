@@ -0,0 +1,155 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core.reachedset;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.SetMultimap;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.interfaces.SubsumptionIndexable;
+import org.sosy_lab.cpachecker.core.waitlist.Waitlist.WaitlistFactory;
+import org.sosy_lab.cpachecker.util.statistics.AbstractStatValue;
+import org.sosy_lab.cpachecker.util.statistics.StatInt;
+import org.sosy_lab.cpachecker.util.statistics.StatKind;
+
+/**
+ * Special implementation of the partitioned reached set {@link PartitionedReachedSet}, which
+ * additionally indexes the states of each partition by the facts returned by {@link
+ * SubsumptionIndexable#getSubsumptionKeys()}.
+ *
+ * <p>Whenever the method {@link SubsumptionIndexedReachedSet#getReached(AbstractState)} is called
+ * (which is usually done by the CPAAlgorithm to get the candidates for merging and coverage
+ * checks), it will return a subset of the partition of the given state. This subset contains
+ * exactly those states whose facts are all facts of the given state, because only those states
+ * might cover the given state. States that are not {@link SubsumptionIndexable} are always
+ * returned.
+ *
+ * <p>This type of reached-set is only useful for an analysis that uses the operators merge_sep
+ * and stop_sep, because states that are excluded by the index are not considered for merging.
+ */
+public class SubsumptionIndexedReachedSet extends PartitionedReachedSet {
+
+  private static final long serialVersionUID = 1L;
+
+  /** Mapping from partition key to the states of this partition, indexed by their facts. */
+  @SuppressFBWarnings("SE_BAD_FIELD")
+  private final Map<Object, SetMultimap<Object, AbstractState>> index = new HashMap<>();
+
+  /** Number of facts of each state, states without facts are not contained. */
+  private final Map<AbstractState, Integer> numberOfKeys = new HashMap<>();
+
+  /** Records 100 for each state excluded by the index and 0 for each state returned. */
+  @SuppressFBWarnings("SE_BAD_FIELD")
+  private final StatInt hitRate =
+      new StatInt(StatKind.AVG, "Hit rate of subsumption index (%)");
+
+  @SuppressFBWarnings("SE_BAD_FIELD")
+  private final StatInt avoidedCoverageChecks =
+      new StatInt(StatKind.SUM, "Number of coverage checks avoided by subsumption index");
+
+  public SubsumptionIndexedReachedSet(WaitlistFactory waitlistFactory) {
+    super(waitlistFactory);
+  }
+
+  @Override
+  public void add(AbstractState pState, Precision pPrecision) {
+    super.add(pState, pPrecision);
+
+    Collection<?> keys = getSubsumptionKeys(pState);
+    if (!keys.isEmpty()) {
+      SetMultimap<Object, AbstractState> partition =
+          index.computeIfAbsent(getPartitionKey(pState), k -> HashMultimap.create());
+      for (Object key : keys) {
+        partition.put(key, pState);
+      }
+      numberOfKeys.put(pState, keys.size());
+    }
+  }
+
+  @Override
+  public void remove(AbstractState pState) {
+    super.remove(pState);
+
+    if (numberOfKeys.remove(pState) != null) {
+      Object partitionKey = getPartitionKey(pState);
+      SetMultimap<Object, AbstractState> partition = index.get(partitionKey);
+      for (Object key : getSubsumptionKeys(pState)) {
+        partition.remove(key, pState);
+      }
+      if (partition.isEmpty()) {
+        index.remove(partitionKey);
+      }
+    }
+  }
+
+  @Override
+  public void clear() {
+    super.clear();
+
+    index.clear();
+    numberOfKeys.clear();
+  }
+
+  @Override
+  public Collection<AbstractState> getReached(AbstractState pState) {
+    Collection<AbstractState> reached = super.getReached(pState);
+    SetMultimap<Object, AbstractState> partition = index.get(getPartitionKey(pState));
+    if (reached.isEmpty() || !(pState instanceof SubsumptionIndexable) || partition == null) {
+      return reached;
+    }
+
+    // count for each state how many of its facts are also facts of the given state
+    Map<AbstractState, Integer> matchingKeys = new HashMap<>();
+    for (Object key : getSubsumptionKeys(pState)) {
+      for (AbstractState reachedState : partition.get(key)) {
+        matchingKeys.merge(reachedState, 1, Integer::sum);
+      }
+    }
+
+    // iterate over the partition instead of the index to keep the order of the states
+    List<AbstractState> candidates = new ArrayList<>();
+    for (AbstractState reachedState : reached) {
+      Integer keys = numberOfKeys.get(reachedState);
+      if (keys == null || keys.equals(matchingKeys.get(reachedState))) {
+        candidates.add(reachedState);
+        hitRate.setNextValue(0);
+      } else {
+        hitRate.setNextValue(100);
+      }
+    }
+
+    avoidedCoverageChecks.setNextValue(reached.size() - candidates.size());
+    return Collections.unmodifiableList(candidates);
+  }
+
+  @Override
+  public ImmutableMap<String, AbstractStatValue> getStatistics() {
+    return ImmutableMap.<String, AbstractStatValue>builder()
+        .putAll(super.getStatistics())
+        .put(hitRate.getTitle(), hitRate)
+        .put(avoidedCoverageChecks.getTitle(), avoidedCoverageChecks)
+        .build();
+  }
+
+  private static Collection<?> getSubsumptionKeys(AbstractState pState) {
+    if (pState instanceof SubsumptionIndexable) {
+      return ((SubsumptionIndexable) pState).getSubsumptionKeys();
+    } else {
+      return Collections.emptySet();
+    }
+  }
+}
@@ -0,0 +1,121 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core.reachedset;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.cpachecker.cfa.types.MachineModel;
+import org.sosy_lab.cpachecker.cfa.types.c.CNumericTypes;
+import org.sosy_lab.cpachecker.cfa.types.c.CType;
+import org.sosy_lab.cpachecker.core.defaults.SingletonPrecision;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.waitlist.Waitlist.TraversalMethod;
+import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisState;
+import org.sosy_lab.cpachecker.cpa.value.type.NumericValue;
+import org.sosy_lab.cpachecker.util.states.MemoryLocation;
+
+public class SubsumptionIndexedReachedSetTest {
+
+  private SubsumptionIndexedReachedSet reached;
+
+  @Before
+  public void setUp() {
+    reached =
+        new SubsumptionIndexedReachedSet(TraversalMethod.DFS) {
+          private static final long serialVersionUID = 1L;
+
+          @Override
+          protected Object getPartitionKey(AbstractState pState) {
+            // ValueAnalysisState is not Partitionable, put all states into one partition
+            return "partition";
+          }
+        };
+  }
+
+  private static ValueAnalysisState state(Map<String, Integer> pValues) {
+    return state(pValues, CNumericTypes.INT);
+  }
+
+  private static ValueAnalysisState state(Map<String, Integer> pValues, CType pType) {
+    ValueAnalysisState state = new ValueAnalysisState(MachineModel.LINUX32);
+    pValues.forEach(
+        (variable, value) ->
+            state.assignConstant(
+                MemoryLocation.valueOf(variable), new NumericValue(value), pType));
+    return state;
+  }
+
+  private void add(ValueAnalysisState... pStates) {
+    for (ValueAnalysisState state : pStates) {
+      reached.add(state, SingletonPrecision.getInstance());
+    }
+  }
+
+  /** Check that getReached returns every state of the reached set that covers the given state. */
+  private void assertCoveringStatesReturned(ValueAnalysisState pState) {
+    ImmutableList.Builder<AbstractState> covering = ImmutableList.builder();
+    for (AbstractState reachedState : reached) {
+      if (pState.isLessOrEqual((ValueAnalysisState) reachedState)) {
+        covering.add(reachedState);
+      }
+    }
+    assertThat(reached.getReached(pState)).containsAtLeastElementsIn(covering.build());
+  }
+
+  @Test
+  public void coveringStatesReturned() {
+    ValueAnalysisState empty = state(ImmutableMap.of());
+    ValueAnalysisState x1 = state(ImmutableMap.of("x", 1));
+    ValueAnalysisState y2 = state(ImmutableMap.of("y", 2));
+    ValueAnalysisState x1y2 = state(ImmutableMap.of("x", 1, "y", 2));
+    ValueAnalysisState x2 = state(ImmutableMap.of("x", 2));
+    ValueAnalysisState x1z3 = state(ImmutableMap.of("x", 1, "z", 3));
+    add(empty, x1, y2, x1y2, x2, x1z3);
+
+    ValueAnalysisState newState = state(ImmutableMap.of("x", 1, "y", 2));
+    assertCoveringStatesReturned(newState);
+    assertThat(reached.getReached(newState)).containsExactly(empty, x1, y2, x1y2).inOrder();
+
+    assertCoveringStatesReturned(state(ImmutableMap.of("x", 1, "y", 2, "z", 3)));
+    assertCoveringStatesReturned(state(ImmutableMap.of("x", 2, "y", 2)));
+    assertCoveringStatesReturned(state(ImmutableMap.of()));
+  }
+
+  @Test
+  public void coveringStatesWithDifferentTypesReturned() {
+    // coverage ignores the types of the values, so the index has to ignore them, too
+    ValueAnalysisState x1Long = state(ImmutableMap.of("x", 1), CNumericTypes.LONG_INT);
+    add(x1Long);
+
+    ValueAnalysisState newState = state(ImmutableMap.of("x", 1, "y", 2));
+    assertCoveringStatesReturned(newState);
+    assertThat(reached.getReached(newState)).containsExactly(x1Long);
+  }
+
+  @Test
+  public void coveringStatesReturnedAfterRemove() {
+    ValueAnalysisState x1 = state(ImmutableMap.of("x", 1));
+    ValueAnalysisState x1y2 = state(ImmutableMap.of("x", 1, "y", 2));
+    ValueAnalysisState y2 = state(ImmutableMap.of("y", 2));
+    add(x1, x1y2, y2);
+    reached.remove(x1y2);
+
+    ValueAnalysisState newState = state(ImmutableMap.of("x", 1, "y", 2));
+    assertCoveringStatesReturned(newState);
+    assertThat(reached.getReached(newState)).containsExactly(x1, y2);
+
+    reached.add(x1y2, SingletonPrecision.getInstance());
+    assertThat(reached.getReached(newState)).containsExactly(x1, y2, x1y2);
+  }
+}
@@ -39,7 +39,7 @@ import org.sosy_lab.cpachecker.util.CPAs;
  * To use this, implement {@link ARGBasedRefiner} and call
  * {@link AbstractARGBasedRefiner#forARGBasedRefiner(ARGBasedRefiner, ConfigurableProgramAnalysis)}.
  */
-public class AbstractARGBasedRefiner implements Refiner, StatisticsProvider {
+public class AbstractARGBasedRefiner implements Refiner, StatisticsProvider, AutoCloseable {
 
   private int refinementNumber;
 
@@ -182,6 +182,11 @@ public class AbstractARGBasedRefiner implements Refiner, StatisticsProvider {
     }
   }
 
+  @Override
+  public void close() {
+    CPAs.closeIfPossible(refiner, logger);
+  }
+
   @Override
   public String toString() {
     return refiner.toString();
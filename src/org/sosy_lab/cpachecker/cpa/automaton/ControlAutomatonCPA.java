@@ -48,6 +48,7 @@ import org.sosy_lab.cpachecker.core.interfaces.AbstractDomain;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.CPAFactory;
 import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysisWithBAM;
+import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysisWithConcurrency;
 import org.sosy_lab.cpachecker.core.interfaces.MergeOperator;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.interfaces.PrecisionAdjustment;
@@ -66,6 +67,7 @@ import org.sosy_lab.cpachecker.util.globalinfo.AutomatonInfo;
 public class ControlAutomatonCPA
     implements StatisticsProvider,
         ConfigurableProgramAnalysisWithBAM,
+        ConfigurableProgramAnalysisWithConcurrency,
         ProofCheckerCPA {
 
   @Option(secure=true, name="dotExport",
@@ -296,6 +298,12 @@ public class ControlAutomatonCPA
         topState, lPrecisionAdjustment, topOnFinalSelfLoopingState);
   }
 
+  @Override
+  public boolean supportsConcurrentExploration() {
+    // each thread has its own precision adjustment, so we cannot count targets globally
+    return breakOnTargetState <= 1;
+  }
+
   @Override
   public StopOperator getStopOperator() {
       return new StopSepOperator(getAbstractDomain());
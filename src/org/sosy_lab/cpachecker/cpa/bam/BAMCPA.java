@@ -34,7 +34,6 @@ import org.sosy_lab.cpachecker.core.interfaces.pcc.ProofChecker;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSetFactory;
 import org.sosy_lab.cpachecker.core.specification.Specification;
 import org.sosy_lab.cpachecker.cpa.arg.ARGState;
-import org.sosy_lab.cpachecker.cpa.bam.cache.BAMCache;
 import org.sosy_lab.cpachecker.cpa.bam.cache.BAMCacheAggressiveImpl;
 import org.sosy_lab.cpachecker.cpa.bam.cache.BAMCacheImpl;
 import org.sosy_lab.cpachecker.cpa.bam.cache.BAMDataManager;
@@ -88,11 +87,25 @@ public class BAMCPA extends AbstractBAMCPA implements StatisticsProvider, ProofC
       this.wrappedProofChecker = null;
     }
 
-    final BAMCache cache;
+    // the fix-point algorithm for recursion and the copy-on-write refinement need all cached
+    // reached-sets, so we must not evict them, not even if memory is getting short
+    final boolean reduceMemoryOnPressure =
+        !handleRecursiveProcedures && !useCopyOnWriteRefinement();
+    final BAMCacheImpl cache;
     if (aggressiveCaching) {
-      cache = new BAMCacheAggressiveImpl(config, getReducer(), logger);
+      cache = new BAMCacheAggressiveImpl(config, getReducer(), logger, reduceMemoryOnPressure);
     } else {
-      cache = new BAMCacheImpl(config, getReducer(), logger);
+      cache = new BAMCacheImpl(config, getReducer(), logger, reduceMemoryOnPressure);
+    }
+    if (handleRecursiveProcedures && cache.isEvictionEnabled()) {
+      // the fix-point algorithm for recursion needs all reached-sets of recursive blocks
+      throw new InvalidConfigurationException(
+          "Eviction from the BAM cache is not supported together with recursion handling.");
+    }
+    if (useCopyOnWriteRefinement() && cache.isEvictionEnabled()) {
+      // copy-on-write refinement expects that all blocks on a path are still available
+      throw new InvalidConfigurationException(
+          "Eviction from the BAM cache is not supported together with copy-on-write refinement.");
     }
     data = new BAMDataManagerImpl(cache, pReachedSetFactory, pLogger);
 
@@ -32,6 +32,7 @@ import org.sosy_lab.cpachecker.cfa.blocks.Block;
 import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
 import org.sosy_lab.cpachecker.core.interfaces.Statistics;
 import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
+import org.sosy_lab.cpachecker.cpa.bam.cache.BAMCacheImpl;
 import org.sosy_lab.cpachecker.util.statistics.StatCounter;
 import org.sosy_lab.cpachecker.util.statistics.StatHist;
 import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer;
@@ -120,6 +121,14 @@ class BAMCPAStatistics implements Statistics {
     put(out, 0, cpa.reducerStatistics.reducePrecisionTime);
     put(out, 0, cpa.reducerStatistics.expandPrecisionTime);
     put(out, 0, algorithmInstances);
+    if (cpa.getData().getCache() instanceof BAMCacheImpl) {
+      BAMCacheImpl cache = (BAMCacheImpl) cpa.getData().getCache();
+      if (cache.isEvictionEnabled()) {
+        put(out, "Number of evicted cache entries", cache.getNumberOfEvictions());
+        put(out, 1, "Number of evicted abstract states", cache.getNumberOfEvictedStates());
+        put(out, 1, "Number of recomputed cache entries", cache.getNumberOfRecomputations());
+      }
+    }
     if (depthsOfTargetStates.getUpdateCount() > 0) {
       put(out, 0, depthsOfTargetStates);
       put(out, 0, depthsOfFoundTargetStates);
@@ -23,6 +23,7 @@ import org.sosy_lab.cpachecker.core.interfaces.TransferRelation;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSetFactory;
 import org.sosy_lab.cpachecker.core.specification.Specification;
 import org.sosy_lab.cpachecker.cpa.bam.cache.BAMCache;
+import org.sosy_lab.cpachecker.cpa.bam.cache.BAMCacheConcurrent;
 import org.sosy_lab.cpachecker.cpa.bam.cache.BAMCacheSynchronized;
 import org.sosy_lab.cpachecker.cpa.bam.cache.BAMDataManager;
 import org.sosy_lab.cpachecker.cpa.bam.cache.BAMDataManagerSynchronized;
@@ -41,6 +42,13 @@ public class BAMCPAWithBreakOnMissingBlock extends AbstractBAMCPA {
   )
   private boolean breakForMissingBlock = true;
 
+  @Option(
+      secure = true,
+      description =
+          "use a sharded cache that allows concurrent accesses from several threads"
+              + " instead of synchronizing all accesses to the cache")
+  private boolean useConcurrentCache = true;
+
   private final BAMCache cache;
   private final BAMDataManager data;
 
@@ -56,7 +64,11 @@ public class BAMCPAWithBreakOnMissingBlock extends AbstractBAMCPA {
     super(pCpa, pConfig, pLogger, pShutdownNotifier, pSpecification, pCfa);
     pConfig.inject(this);
 
-    cache = new BAMCacheSynchronized(pConfig, getReducer(), pLogger);
+    if (useConcurrentCache) {
+      cache = new BAMCacheConcurrent(pConfig, getReducer());
+    } else {
+      cache = new BAMCacheSynchronized(pConfig, getReducer(), pLogger);
+    }
     data = new BAMDataManagerSynchronized(cache, reachedsetFactory, pLogger);
   }
 
@@ -0,0 +1,50 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.bam;
+
+import org.junit.Test;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.cpachecker.util.test.CPATestRunner;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+import org.sosy_lab.cpachecker.util.test.TestResults;
+
+public class BAMCacheEvictionTest {
+
+  private static final String CONFIG_FILE = "config/predicateAnalysis-bam.properties";
+
+  private static TestResults run(String pProgram, int pMaxCachedStates) throws Exception {
+    Configuration config =
+        TestDataTools.configurationForTest()
+            .loadFromFile(CONFIG_FILE)
+            .setOption("cpa.bam.cacheEviction.maxStates", Integer.toString(pMaxCachedStates))
+            .build();
+    return CPATestRunner.run(config, pProgram);
+  }
+
+  @Test
+  public void safeWithoutEviction() throws Exception {
+    run("test/programs/simple/FunctionPredicatesTest.c", -1).assertIsSafe();
+  }
+
+  @Test
+  public void safeWithEviction() throws Exception {
+    // evict every completed block, refinements have to re-analyze the missing blocks
+    run("test/programs/simple/FunctionPredicatesTest.c", 0).assertIsSafe();
+  }
+
+  @Test
+  public void unsafeWithoutEviction() throws Exception {
+    run("test/programs/bam/BAMCache-failure-test.c", -1).assertIsUnsafe();
+  }
+
+  @Test
+  public void unsafeWithEviction() throws Exception {
+    run("test/programs/bam/BAMCache-failure-test.c", 0).assertIsUnsafe();
+  }
+}
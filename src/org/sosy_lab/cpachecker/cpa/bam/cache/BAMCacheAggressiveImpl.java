@@ -30,9 +30,13 @@ public class BAMCacheAggressiveImpl extends BAMCacheImpl {
 
   private final Map<AbstractStateHash, BAMCacheEntry> impreciseReachedCache = new LinkedHashMap<>();
 
-  public BAMCacheAggressiveImpl(Configuration config, Reducer reducer, LogManager logger)
+  public BAMCacheAggressiveImpl(
+      Configuration config,
+      Reducer reducer,
+      LogManager logger,
+      boolean pReduceMemoryOnPressure)
       throws InvalidConfigurationException {
-    super(config, reducer, logger);
+    super(config, reducer, logger, pReduceMemoryOnPressure);
   }
 
   @Override
@@ -68,7 +72,10 @@ public class BAMCacheAggressiveImpl extends BAMCacheImpl {
     int min = Integer.MAX_VALUE;
     BAMCacheEntry result = null;
 
-    for (AbstractStateHash cacheKey : preciseReachedCache.keySet()) {
+    // iterate over entries instead of calling get(),
+    // because the cache might be ordered by accesses (with eviction)
+    for (Map.Entry<AbstractStateHash, BAMCacheEntry> cacheEntry : preciseReachedCache.entrySet()) {
+      AbstractStateHash cacheKey = cacheEntry.getKey();
       //searchKey != cacheKey, check whether it is the same if we ignore the precision
       AbstractStateHash ignorePrecisionSearchKey =
           getHashCode(pStateKey, cacheKey.precisionKey, pContext);
@@ -76,11 +83,16 @@ public class BAMCacheAggressiveImpl extends BAMCacheImpl {
         int distance = reducer.measurePrecisionDifference(pPrecisionKey, cacheKey.precisionKey);
         if (distance < min) { //prefer similar precisions
           min = distance;
-          result = preciseReachedCache.get(ignorePrecisionSearchKey);
+          result = cacheEntry.getValue();
         }
       }
     }
 
     return result;
   }
+
+  @Override
+  protected void onEviction(BAMCacheEntry pEntry) {
+    impreciseReachedCache.values().removeIf(entry -> entry == pEntry);
+  }
 }
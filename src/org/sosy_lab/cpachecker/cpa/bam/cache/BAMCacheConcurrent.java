@@ -0,0 +1,314 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.bam.cache;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.sosy_lab.cpachecker.util.statistics.StatisticsUtils.toPercent;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.time.TimeSpan;
+import org.sosy_lab.cpachecker.cfa.blocks.Block;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.interfaces.Reducer;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
+import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
+import org.sosy_lab.cpachecker.cpa.arg.ARGState;
+import org.sosy_lab.cpachecker.util.statistics.StatHist;
+
+/**
+ * A {@link BAMCache} that can be accessed by several threads at the same time, as needed by
+ * {@link org.sosy_lab.cpachecker.core.algorithm.parallel_bam.ParallelBAMAlgorithm}.
+ *
+ * <p>The cache is split into several shards, and the shard of an entry is determined by the hash
+ * of its key. Each shard has its own lock, so threads only block each other if they access the
+ * same shard. The (potentially expensive) computation of the key from the abstract state and
+ * precision happens outside of any lock. In contrast to {@link BAMCacheImpl}, this implementation
+ * does not gather statistics about the causes of cache misses.
+ */
+@Options(prefix = "cpa.bam.concurrentCache")
+public class BAMCacheConcurrent implements BAMCache {
+
+  @Option(
+      secure = true,
+      description =
+          "number of shards of the concurrent BAM cache, "
+              + "each shard can be accessed by one thread at a time")
+  private int shards = 64;
+
+  private final Reducer reducer;
+  private final Shard[] shardArray;
+
+  private volatile @Nullable BAMCacheEntry lastAnalyzedEntry = null;
+
+  /** One part of the cache. All fields may only be accessed while holding the lock. */
+  private static final class Shard {
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // we use LinkedHashMaps to avoid non-determinism
+    private final Map<CacheKey, BAMCacheEntry> entries = new LinkedHashMap<>();
+
+    private int accesses = 0;
+    private int contendedAccesses = 0;
+    private long lockWaitNanos = 0;
+    private int cacheMisses = 0;
+    private int partialCacheHits = 0;
+    private int fullCacheHits = 0;
+  }
+
+  private static final class CacheKey {
+
+    private final Object wrappedHash;
+    private final Block context;
+    private final int hashCode;
+
+    private CacheKey(Object pWrappedHash, Block pContext) {
+      wrappedHash = pWrappedHash;
+      context = checkNotNull(pContext);
+      hashCode = wrappedHash.hashCode() * 17 + context.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object pObj) {
+      if (pObj == this) {
+        return true;
+      }
+      if (!(pObj instanceof CacheKey)) {
+        return false;
+      }
+      CacheKey other = (CacheKey) pObj;
+      return hashCode == other.hashCode
+          && context.equals(other.context)
+          && wrappedHash.equals(other.wrappedHash);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+
+    @Override
+    public String toString() {
+      return "CacheKey [wrappedHash=" + wrappedHash + ", context=" + context + "]";
+    }
+  }
+
+  public BAMCacheConcurrent(Configuration pConfig, Reducer pReducer)
+      throws InvalidConfigurationException {
+    pConfig.inject(this);
+    if (shards < 1) {
+      throw new InvalidConfigurationException(
+          "Number of shards for the concurrent BAM cache must be positive, but is " + shards);
+    }
+    reducer = pReducer;
+    shardArray = new Shard[shards];
+    for (int i = 0; i < shards; i++) {
+      shardArray[i] = new Shard();
+    }
+  }
+
+  private CacheKey getKey(AbstractState pStateKey, Precision pPrecisionKey, Block pContext) {
+    return new CacheKey(reducer.getHashCodeForState(pStateKey, pPrecisionKey), pContext);
+  }
+
+  private Shard getShard(CacheKey pKey) {
+    int h = pKey.hashCode();
+    return shardArray[Math.floorMod(h ^ (h >>> 16), shardArray.length)];
+  }
+
+  /** Lock the given shard, and record whether we had to wait for another thread. */
+  private static void lock(Shard pShard) {
+    if (!pShard.lock.tryLock()) {
+      long start = System.nanoTime();
+      pShard.lock.lock();
+      pShard.lockWaitNanos += System.nanoTime() - start;
+      pShard.contendedAccesses++;
+    }
+    pShard.accesses++;
+  }
+
+  @Override
+  public BAMCacheEntry put(
+      AbstractState pStateKey, Precision pPrecisionKey, Block pContext, ReachedSet pItem) {
+    CacheKey key = getKey(pStateKey, pPrecisionKey, pContext);
+    BAMCacheEntry entry = new BAMCacheEntry(pItem);
+    Shard shard = getShard(key);
+    lock(shard);
+    try {
+      shard.entries.put(key, entry);
+    } finally {
+      shard.lock.unlock();
+    }
+    return entry;
+  }
+
+  @Override
+  public @Nullable BAMCacheEntry get(
+      AbstractState pStateKey, Precision pPrecisionKey, Block pContext) {
+    CacheKey key = getKey(pStateKey, pPrecisionKey, pContext);
+    Shard shard = getShard(key);
+    BAMCacheEntry entry;
+    lock(shard);
+    try {
+      entry = shard.entries.get(key);
+      if (entry == null) {
+        shard.cacheMisses++;
+      } else if (entry.getExitStates() == null) {
+        // we have cached a partly computed reached-set
+        shard.partialCacheHits++;
+      } else {
+        shard.fullCacheHits++;
+      }
+    } finally {
+      shard.lock.unlock();
+    }
+    lastAnalyzedEntry = entry;
+    return entry;
+  }
+
+  @Override
+  @Deprecated
+  public ARGState getLastAnalyzedBlock() {
+    return lastAnalyzedEntry.getRootOfBlock();
+  }
+
+  @Override
+  public boolean containsPreciseKey(
+      AbstractState pStateKey, Precision pPrecisionKey, Block pContext) {
+    CacheKey key = getKey(pStateKey, pPrecisionKey, pContext);
+    Shard shard = getShard(key);
+    lock(shard);
+    try {
+      return shard.entries.containsKey(key);
+    } finally {
+      shard.lock.unlock();
+    }
+  }
+
+  @Override
+  public Collection<ReachedSet> getAllCachedReachedStates() {
+    List<ReachedSet> result = new ArrayList<>();
+    for (Shard shard : shardArray) {
+      shard.lock.lock();
+      try {
+        for (BAMCacheEntry entry : shard.entries.values()) {
+          result.add(entry.getReachedSet());
+        }
+      } finally {
+        shard.lock.unlock();
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public void clear() {
+    for (Shard shard : shardArray) {
+      shard.lock.lock();
+      try {
+        shard.entries.clear();
+      } finally {
+        shard.lock.unlock();
+      }
+    }
+    lastAnalyzedEntry = null;
+  }
+
+  /** Sum up a value over all shards. */
+  private long sum(Function<Shard, Number> pValue) {
+    long sum = 0;
+    for (Shard shard : shardArray) {
+      shard.lock.lock();
+      try {
+        sum += pValue.apply(shard).longValue();
+      } finally {
+        shard.lock.unlock();
+      }
+    }
+    return sum;
+  }
+
+  /** Summarize the distribution of a value over all shards. */
+  private String perShard(Function<Shard, Integer> pValue) {
+    StatHist hist = new StatHist("");
+    for (Shard shard : shardArray) {
+      shard.lock.lock();
+      try {
+        hist.insertValue(pValue.apply(shard));
+      } finally {
+        shard.lock.unlock();
+      }
+    }
+    // printing all values is not that interesting
+    return String.format(
+        "avg=%.2f, dev=%.2f, min=%d, max=%d",
+        hist.getAvg(), hist.getStdDeviation(), hist.getMin(), hist.getMax());
+  }
+
+  /** Return the number of all accesses to the cache. */
+  public long getNumberOfAccesses() {
+    return sum(shard -> shard.accesses);
+  }
+
+  /** Return the number of accesses that had to wait because another thread used the same shard. */
+  public long getNumberOfContendedAccesses() {
+    return sum(shard -> shard.contendedAccesses);
+  }
+
+  /** Return the total time threads have waited for access to a shard. */
+  public TimeSpan getLockWaitTime() {
+    return TimeSpan.ofNanos(sum(shard -> shard.lockWaitNanos));
+  }
+
+  @Override
+  public void printStatistics(PrintStream out, Result pResult, UnmodifiableReachedSet pReached) {
+    long misses = sum(shard -> shard.cacheMisses);
+    long partialHits = sum(shard -> shard.partialCacheHits);
+    long fullHits = sum(shard -> shard.fullCacheHits);
+    long sumCalls = misses + partialHits + fullHits;
+    long accesses = getNumberOfAccesses();
+    long contended = getNumberOfContendedAccesses();
+
+    StatHist argStats = new StatHist("");
+    for (UnmodifiableReachedSet subreached : getAllCachedReachedStates()) {
+      argStats.insertValue(subreached.size());
+    }
+
+    out.println("Total size of all ARGs:                              " + (long) argStats.getSum());
+    out.println("Total number of recursive CPA calls:                 " + sumCalls);
+    out.println("  Number of cache misses:                            " + misses + " (" + toPercent(misses, sumCalls) + " of all calls)");
+    out.println("  Number of partial cache hits:                      " + partialHits + " (" + toPercent(partialHits, sumCalls) + " of all calls)");
+    out.println("  Number of full cache hits:                         " + fullHits + " (" + toPercent(fullHits, sumCalls) + " of all calls)");
+    out.println("Number of cache shards:                              " + shardArray.length);
+    out.println("  Entries per shard:                                 " + perShard(shard -> shard.entries.size()));
+    out.println("  Accesses per shard:                                " + perShard(shard -> shard.accesses));
+    out.println("  Contended accesses per shard:                      " + perShard(shard -> shard.contendedAccesses));
+    out.println("Number of contended cache accesses:                  " + contended + " (" + toPercent(contended, accesses) + " of all accesses)");
+    out.println("Time for waiting on cache shards:                    " + getLockWaitTime().formatAs(TimeUnit.SECONDS));
+  }
+
+  @Override
+  public String getName() {
+    return "BAMCache (concurrent)";
+  }
+}
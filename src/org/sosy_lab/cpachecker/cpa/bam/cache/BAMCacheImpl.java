@@ -14,9 +14,13 @@ import static org.sosy_lab.cpachecker.util.statistics.StatisticsUtils.toPercent;
 import com.google.common.collect.Collections2;
 import java.io.PrintStream;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
@@ -31,6 +35,7 @@ import org.sosy_lab.cpachecker.core.interfaces.Reducer;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
 import org.sosy_lab.cpachecker.cpa.arg.ARGState;
+import org.sosy_lab.cpachecker.util.resources.MemoryPressure;
 import org.sosy_lab.cpachecker.util.statistics.StatHist;
 
 @Options(prefix = "cpa.bam")
@@ -40,6 +45,19 @@ public class BAMCacheImpl implements BAMCache {
       + "for each cache miss to find the cause of the miss.")
   private boolean gatherCacheMissStatistics = false;
 
+  @Option(
+      secure = true,
+      name = "cacheEviction.maxStates",
+      description =
+          "Limit the number of abstract states in all cached reached-sets. If the limit is"
+              + " exceeded, the least recently used blocks are removed from the cache and will be"
+              + " re-analyzed when they are needed again. The value -1 means no limit."
+              + " The ARG of an evicted block is removed, thus a refinement or a counterexample"
+              + " that passes through it has to re-analyze the block. Blocks are evicted at most"
+              + " once because of this limit. Eviction is not supported by parallel BAM,"
+              + " recursion handling, and copy-on-write refinement.")
+  private int maxCachedStates = -1;
+
   private final Timer hashingTimer = new Timer();
   private final Timer equalsTimer = new Timer();
 
@@ -51,20 +69,77 @@ public class BAMCacheImpl implements BAMCache {
   private int precisionCausedMisses = 0;
   private int noSimilarCausedMisses = 0;
 
+  private int evictions = 0;
+  private long evictedStates = 0;
+  private int recomputations = 0;
+
   // we use LinkedHashMaps to avoid non-determinism
-  protected final Map<AbstractStateHash, BAMCacheEntry> preciseReachedCache = new LinkedHashMap<>();
+  // (if eviction is enabled, in access order, such that we can evict the least recently used)
+  protected final Map<AbstractStateHash, BAMCacheEntry> preciseReachedCache;
+
+  /**
+   * Number of states in all reached-sets in {@link #preciseReachedCache}, counted when an entry
+   * is put into the cache and updated when its block is completely analyzed. Reached-sets may
+   * change in between (e.g., during refinement), so this is only an approximation.
+   */
+  private long cachedStates = 0;
+
+  /** Keys of evicted entries, needed to identify recomputations. */
+  private final Set<AbstractStateHash> evictedKeys = new HashSet<>();
+
+  /**
+   * Keys of evicted entries that are currently re-analyzed. Their new entries are not evicted
+   * again because of the size limit, otherwise a refinement that needs several of them might
+   * never find all of them in the cache.
+   */
+  private final Set<AbstractStateHash> recomputedKeys = new HashSet<>();
 
   protected BAMCacheEntry lastAnalyzedEntry = null;
   protected final Reducer reducer;
   protected final LogManager logger;
 
+  /**
+   * @param pReduceMemoryOnPressure whether to evict entries if memory is getting short. This
+   *     happens in the thread that created the cache, so it must not be used if the cache is
+   *     accessed by other threads or if all reached-sets are needed (e.g., for recursion).
+   */
   public BAMCacheImpl(
       Configuration config,
       Reducer reducer,
-      LogManager logger) throws InvalidConfigurationException {
+      LogManager logger,
+      boolean pReduceMemoryOnPressure)
+      throws InvalidConfigurationException {
     config.inject(this, BAMCacheImpl.class);
+    if (maxCachedStates < -1) {
+      throw new InvalidConfigurationException(
+          "Invalid value " + maxCachedStates + " for option cpa.bam.cacheEviction.maxStates");
+    }
     this.reducer = reducer;
     this.logger = logger;
+    preciseReachedCache =
+        isEvictionEnabled() ? new LinkedHashMap<>(16, 0.75f, true) : new LinkedHashMap<>();
+    if (pReduceMemoryOnPressure) {
+      MemoryPressure.register(this, (cache, level) -> cache.evictCompletedEntries());
+    }
+  }
+
+  public boolean isEvictionEnabled() {
+    return maxCachedStates >= 0;
+  }
+
+  /** Return how often an entry was removed from the cache because of the size limit. */
+  public int getNumberOfEvictions() {
+    return evictions;
+  }
+
+  /** Return the sum of the sizes of all evicted reached-sets. */
+  public long getNumberOfEvictedStates() {
+    return evictedStates;
+  }
+
+  /** Return how often a block had to be analyzed again because its entry had been evicted. */
+  public int getNumberOfRecomputations() {
+    return recomputations;
   }
 
   protected AbstractStateHash getHashCode(AbstractState stateKey, Precision precisionKey, Block context) {
@@ -75,12 +150,123 @@ public class BAMCacheImpl implements BAMCache {
   public BAMCacheEntry put(
       AbstractState stateKey, Precision precisionKey, Block context, ReachedSet rs) {
     AbstractStateHash hash = getHashCode(stateKey, precisionKey, context);
-    BAMCacheEntry entry = new BAMCacheEntry(rs);
+    CountingCacheEntry entry = new CountingCacheEntry(rs);
+    entry.isRecomputation = !recomputedKeys.isEmpty() && recomputedKeys.remove(hash);
     // assert !preciseReachedCache.containsKey(hash);
-    preciseReachedCache.put(hash, entry);
+    BAMCacheEntry previous = preciseReachedCache.put(hash, entry);
+    if (previous != null) {
+      ((CountingCacheEntry) previous).uncount();
+    }
+    if (isEvictionEnabled()) {
+      evictLeastRecentlyUsed(entry);
+    }
     return entry;
   }
 
+  /**
+   * Remove the least recently used entries from the cache until the cached reached-sets contain
+   * at most {@link #maxCachedStates} states. We only remove entries with a completely analyzed
+   * reached-set, because the other entries might be in use by a currently running analysis, and
+   * we keep entries of blocks that were already re-analyzed after an eviction.
+   */
+  private void evictLeastRecentlyUsed(BAMCacheEntry pNewEntry) {
+    evict(pNewEntry, maxCachedStates, false);
+  }
+
+  /**
+   * Remove all entries with a completely analyzed reached-set from the cache, e.g., if memory is
+   * getting short. The blocks will be re-analyzed when they are needed again.
+   */
+  public void evictCompletedEntries() {
+    int evictionsBefore = evictions;
+    evict(null, 0, true);
+    logger.log(
+        Level.INFO,
+        "Evicted",
+        evictions - evictionsBefore,
+        "blocks from the BAM cache because of memory pressure");
+  }
+
+  private void evict(
+      @Nullable BAMCacheEntry pNewEntry, long pMaxCachedStates, boolean pEvictRecomputations) {
+    Iterator<Map.Entry<AbstractStateHash, BAMCacheEntry>> it =
+        preciseReachedCache.entrySet().iterator();
+    while (cachedStates > pMaxCachedStates && it.hasNext()) {
+      Map.Entry<AbstractStateHash, BAMCacheEntry> eldest = it.next();
+      CountingCacheEntry entry = (CountingCacheEntry) eldest.getValue();
+      if (entry == pNewEntry
+          || entry.getExitStates() == null
+          || (entry.isRecomputation && !pEvictRecomputations)) {
+        continue;
+      }
+      it.remove();
+      evictedKeys.add(eldest.getKey());
+      onEviction(entry);
+      entry.uncount();
+      evictedStates += entry.getReachedSet().size();
+      evictions++;
+      if (entry == lastAnalyzedEntry) {
+        lastAnalyzedEntry = null;
+      }
+      logger.log(
+          Level.FINEST,
+          "CACHE_EVICTION: removed reached-set with root",
+          entry.getReachedSet().getFirstState());
+      destroyARG(entry.getReachedSet());
+    }
+  }
+
+  /**
+   * Remove all states of an evicted reached-set from the ARG. The BAM data manager drops its
+   * references to destroyed states (cf. {@link BAMDataManagerImpl}), such that the reached-set
+   * can be garbage collected, and the destroyed states tell refinements that the block is missing
+   * and has to be re-analyzed.
+   */
+  private static void destroyARG(ReachedSet pReached) {
+    for (AbstractState state : pReached) {
+      ARGState argState = (ARGState) state;
+      if (!argState.isDestroyed()) {
+        argState.removeFromARG();
+      }
+    }
+  }
+
+  /** A cache entry that updates {@link #cachedStates} when its block is completely analyzed. */
+  private class CountingCacheEntry extends BAMCacheEntry {
+
+    private int countedStates;
+    private boolean isCached = true;
+    private boolean isRecomputation = false;
+
+    private CountingCacheEntry(ReachedSet pRs) {
+      super(pRs);
+      countedStates = pRs.size();
+      cachedStates += countedStates;
+    }
+
+    @Override
+    public void setExitStates(Set<AbstractState> pExitStates) {
+      super.setExitStates(pExitStates);
+      if (isCached) {
+        int size = getReachedSet().size();
+        cachedStates += size - countedStates;
+        countedStates = size;
+      }
+    }
+
+    /** Called when the entry is removed from the cache. */
+    private void uncount() {
+      if (isCached) {
+        cachedStates -= countedStates;
+        isCached = false;
+      }
+    }
+  }
+
+  /** Called after an entry was evicted from {@link #preciseReachedCache}. */
+  @SuppressWarnings("unused") /* parameter used in subclass */
+  protected void onEviction(BAMCacheEntry pEntry) {}
+
   protected static boolean allStatesContainedInReachedSet(Collection<AbstractState> pElements, ReachedSet reached) {
     return reached.asCollection().containsAll(pElements);
   }
@@ -94,6 +280,12 @@ public class BAMCacheImpl implements BAMCache {
     // get some statistics
     if (entry == null) {
       cacheMisses++;
+      if (!evictedKeys.isEmpty()
+          && evictedKeys.remove(getHashCode(stateKey, precisionKey, context))) {
+        // the block will be re-analyzed
+        recomputations++;
+        recomputedKeys.add(getHashCode(stateKey, precisionKey, context));
+      }
       if (gatherCacheMissStatistics) {
         findCacheMissCause(stateKey, precisionKey, context);
       }
@@ -263,7 +455,12 @@ public class BAMCacheImpl implements BAMCache {
 
   @Override
   public void clear() {
+    for (BAMCacheEntry entry : preciseReachedCache.values()) {
+      ((CountingCacheEntry) entry).uncount();
+    }
     preciseReachedCache.clear();
+    evictedKeys.clear();
+    recomputedKeys.clear();
     lastAnalyzedEntry = null;
   }
 }
@@ -33,7 +33,13 @@ public class BAMCacheSynchronized implements BAMCache {
 
   public BAMCacheSynchronized(Configuration pConfig, Reducer pReducer, LogManager pLogger)
       throws InvalidConfigurationException {
-    cache = new BAMCacheImpl(pConfig, pReducer, pLogger);
+    BAMCacheImpl cacheImpl = new BAMCacheImpl(pConfig, pReducer, pLogger, false);
+    if (cacheImpl.isEvictionEnabled()) {
+      // evicting entries would need to be synchronized with all users of the reached-sets
+      throw new InvalidConfigurationException(
+          "Eviction from the BAM cache is not supported together with parallel BAM.");
+    }
+    cache = cacheImpl;
   }
 
   @Override
@@ -21,6 +21,7 @@ import com.google.common.collect.Table.Cell;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -90,6 +91,16 @@ public class BAMDataManagerImpl implements BAMDataManager {
    */
   private final Set<CFANode> uncachedBlockEntries = new HashSet<>();
 
+  /**
+   * Non-reduced initial states whose reached-sets were removed together with their ARG, e.g.,
+   * because they were evicted from the cache. They still count as initial states, such that
+   * refinements detect the missing block and re-analyze it.
+   */
+  private final Set<AbstractState> initialStatesOfMissingBlocks = new HashSet<>();
+
+  /** Number of evictions of the cache when we last removed data of destroyed states. */
+  private int lastSeenEvictions = 0;
+
   public BAMDataManagerImpl(
       BAMCache pArgCache,
       ReachedSetFactory pReachedSetFactory,
@@ -124,7 +135,44 @@ public class BAMDataManagerImpl implements BAMDataManager {
       AbstractState initialState, Precision initialPrecision, Block context) {
     final ReachedSet reached = reachedSetFactory.create();
     reached.add(initialState, initialPrecision);
-    return bamCache.put(initialState, initialPrecision, context, reached);
+    BAMCacheEntry entry = bamCache.put(initialState, initialPrecision, context, reached);
+    if (bamCache instanceof BAMCacheImpl) {
+      int evictions = ((BAMCacheImpl) bamCache).getNumberOfEvictions();
+      if (evictions != lastSeenEvictions) {
+        lastSeenEvictions = evictions;
+        removeDataOfDestroyedStates();
+      }
+    }
+    return entry;
+  }
+
+  /**
+   * Remove all data about states that were removed from the ARG, e.g., during refinement or
+   * because their reached-set was evicted from the cache. Without this, evicted reached-sets would
+   * still be reachable from here and could not be garbage collected.
+   *
+   * <p>Expanded states keep their (destroyed) reduced state, such that a refinement through the
+   * block notices that the block is missing.
+   */
+  private void removeDataOfDestroyedStates() {
+    initialStateToReachedSet.rowKeySet().removeIf(BAMDataManagerImpl::isDestroyed);
+    Iterator<Cell<AbstractState, AbstractState, ReachedSet>> cells =
+        initialStateToReachedSet.cellSet().iterator();
+    while (cells.hasNext()) {
+      Cell<AbstractState, AbstractState, ReachedSet> cell = cells.next();
+      if (isDestroyed(cell.getColumnKey())) {
+        initialStatesOfMissingBlocks.add(cell.getRowKey());
+        cells.remove();
+      }
+    }
+    initialStatesOfMissingBlocks.removeIf(BAMDataManagerImpl::isDestroyed);
+    reducedToNonReduced.keySet().removeIf(BAMDataManagerImpl::isDestroyed);
+    reducedToNonReduced.values().removeIf(BAMDataManagerImpl::isDestroyed);
+    expandedStateToBlockExit.keySet().removeIf(BAMDataManagerImpl::isDestroyed);
+  }
+
+  private static boolean isDestroyed(AbstractState state) {
+    return state instanceof ARGState && ((ARGState) state).isDestroyed();
   }
 
   @Override
@@ -231,7 +279,8 @@ public class BAMDataManagerImpl implements BAMDataManager {
 
   @Override
   public boolean hasInitialState(AbstractState state) {
-    return initialStateToReachedSet.containsRow(state);
+    return initialStateToReachedSet.containsRow(state)
+        || initialStatesOfMissingBlocks.contains(state);
   }
 
   @Override
@@ -305,6 +354,7 @@ public class BAMDataManagerImpl implements BAMDataManager {
   @Override
   public void clear() {
     initialStateToReachedSet.clear();
+    initialStatesOfMissingBlocks.clear();
     expandedStateToBlockExit.clear();
     bamCache.clear();
     reducedToNonReduced.clear();
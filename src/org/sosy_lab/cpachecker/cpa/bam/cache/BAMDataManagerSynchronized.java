@@ -40,16 +40,14 @@ public class BAMDataManagerSynchronized implements BAMDataManager {
   @Override
   public BAMCacheEntry createAndRegisterNewReachedSet(
       AbstractState pInitialState, Precision pInitialPrecision, Block pContext) {
-    synchronized (this) {
-      return manager.createAndRegisterNewReachedSet(pInitialState, pInitialPrecision, pContext);
-    }
+    // no synchronization needed, this only creates a new reached-set
+    // and puts it into the cache, which is thread-safe on its own.
+    return manager.createAndRegisterNewReachedSet(pInitialState, pInitialPrecision, pContext);
   }
 
   @Override
   public ReachedSetFactory getReachedSetFactory() {
-    synchronized (this) {
-      return manager.getReachedSetFactory();
-    }
+    return manager.getReachedSetFactory();
   }
 
   @Override
@@ -136,9 +134,7 @@ public class BAMDataManagerSynchronized implements BAMDataManager {
 
   @Override
   public BAMCache getCache() {
-    synchronized (this) {
-      return manager.getCache();
-    }
+    return manager.getCache();
   }
 
   @Override
@@ -40,7 +40,8 @@ import org.sosy_lab.cpachecker.util.predicates.regions.NamedRegionManager;
 import org.sosy_lab.cpachecker.util.predicates.regions.RegionManager;
 
 @Options(prefix="cpa.bdd")
-public class BDDCPA implements ConfigurableProgramAnalysisWithBAM, StatisticsProvider {
+public class BDDCPA
+    implements ConfigurableProgramAnalysisWithBAM, StatisticsProvider, AutoCloseable {
 
   public static CPAFactory factory() {
     return AutomaticCPAFactory.forType(BDDCPA.class);
@@ -155,6 +156,11 @@ public class BDDCPA implements ConfigurableProgramAnalysisWithBAM, StatisticsPro
     statsCollection.add(stats);
   }
 
+  @Override
+  public void close() {
+    manager.shutdown();
+  }
+
   @Override
   public Reducer getReducer() {
     return new BDDReducer(
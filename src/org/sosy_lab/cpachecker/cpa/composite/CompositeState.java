@@ -14,6 +14,7 @@ import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ComparisonChain;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Ordering;
 import com.google.common.collect.Sets;
 import java.io.Serializable;
@@ -28,17 +29,20 @@ import org.sosy_lab.cpachecker.core.interfaces.Graphable;
 import org.sosy_lab.cpachecker.core.interfaces.Partitionable;
 import org.sosy_lab.cpachecker.core.interfaces.Property;
 import org.sosy_lab.cpachecker.core.interfaces.PseudoPartitionable;
+import org.sosy_lab.cpachecker.core.interfaces.SubsumptionIndexable;
 import org.sosy_lab.cpachecker.core.interfaces.Targetable;
 import org.sosy_lab.cpachecker.cpa.arg.Splitable;
+import org.sosy_lab.cpachecker.util.Pair;
 
 public class CompositeState
-    implements AbstractWrapperState, Targetable, Partitionable, PseudoPartitionable, Serializable,
-        Graphable, Splitable {
+    implements AbstractWrapperState, Targetable, Partitionable, PseudoPartitionable,
+        SubsumptionIndexable, Serializable, Graphable, Splitable {
   private static final long serialVersionUID = -5143296331663510680L;
   private final ImmutableList<AbstractState> states;
   private transient Object partitionKey; // lazily initialized
   private transient Comparable<?> pseudoPartitionKey; // lazily initialized
   private transient Object pseudoHashCode; // lazily initialized
+  private transient ImmutableSet<Object> subsumptionKeys; // lazily initialized
 
   public CompositeState(List<AbstractState> elements) {
     this.states = ImmutableList.copyOf(elements);
@@ -185,6 +189,28 @@ public class CompositeState
     return pseudoHashCode;
   }
 
+  @Override
+  public ImmutableSet<Object> getSubsumptionKeys() {
+    if (subsumptionKeys == null) {
+      ImmutableSet.Builder<Object> keys = ImmutableSet.builder();
+
+      int i = 0;
+      for (AbstractState element : states) {
+        if (element instanceof SubsumptionIndexable) {
+          // facts of different components must not be mixed up
+          for (Object key : ((SubsumptionIndexable) element).getSubsumptionKeys()) {
+            keys.add(Pair.of(i, key));
+          }
+        }
+        i++;
+      }
+
+      subsumptionKeys = keys.build();
+    }
+
+    return subsumptionKeys;
+  }
+
   private static final class CompositePartitionKey implements Serializable {
 
     private static final long serialVersionUID = 1L;
@@ -43,6 +43,7 @@ import org.sosy_lab.cpachecker.util.predicates.pathformula.ctoformula.CtoFormula
 import org.sosy_lab.cpachecker.util.predicates.smt.BooleanFormulaManagerView;
 import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
 import org.sosy_lab.cpachecker.util.predicates.smt.Solver;
+import org.sosy_lab.cpachecker.util.resources.MemoryPressure;
 import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.Model.ValueAssignment;
 import org.sosy_lab.java_smt.api.ProverEnvironment;
@@ -112,16 +113,27 @@ public class ConstraintsSolver {
     locator = SymbolicIdentifierLocator.getInstance();
     stats = pStats;
 
+    cache = createCache();
     if (doCaching) {
-      cache = new MatchingConstraintsCache();
+      // the cached results can be recomputed, so simply start with an empty cache
+      MemoryPressure.register(
+          this,
+          (constraintsSolver, level) -> constraintsSolver.cache = constraintsSolver.createCache());
+    }
+  }
+
+  private ConstraintsCache createCache() {
+    if (doCaching) {
+      ConstraintsCache newCache = new MatchingConstraintsCache();
       if (cacheSubsets) {
-        cache = new SubsetConstraintsCache(cache);
+        newCache = new SubsetConstraintsCache(newCache);
       }
       if (cacheSupersets) {
-        cache = new SupersetConstraintsCache(cache);
+        newCache = new SupersetConstraintsCache(newCache);
       }
+      return newCache;
     } else {
-      cache = new DummyCache();
+      return new DummyCache();
     }
   }
 
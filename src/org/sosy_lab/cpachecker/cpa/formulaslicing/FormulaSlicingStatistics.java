@@ -57,7 +57,7 @@ class FormulaSlicingStatistics implements Statistics {
   @Override
   public void printStatistics(PrintStream out, Result result, UnmodifiableReachedSet reached) {
     printTimer(out, propagation, "propagating formulas",
-        cachingPathFormulaManager.pathFormulaCacheHits);
+        cachingPathFormulaManager.getCacheHits());
 
     printTimer(out, inductiveWeakening, "inductive weakening",
         cachedInductiveWeakenings);
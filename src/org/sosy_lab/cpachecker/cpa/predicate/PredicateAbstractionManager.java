@@ -17,6 +17,7 @@ import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import java.io.IOException;
 import java.io.Writer;
@@ -29,6 +30,8 @@ import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -42,6 +45,7 @@ import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.collect.Collections3;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -54,6 +58,7 @@ import org.sosy_lab.cpachecker.cfa.model.CFANode;
 import org.sosy_lab.cpachecker.core.algorithm.invariants.InvariantSupplier;
 import org.sosy_lab.cpachecker.core.algorithm.invariants.InvariantSupplier.TrivialInvariantSupplier;
 import org.sosy_lab.cpachecker.cpa.callstack.CallstackStateEqualsWrapper;
+import org.sosy_lab.cpachecker.cpa.predicate.persistence.PersistentAbstractionCache;
 import org.sosy_lab.cpachecker.cpa.predicate.persistence.PredicateAbstractionsStorage;
 import org.sosy_lab.cpachecker.cpa.predicate.persistence.PredicateAbstractionsStorage.AbstractionNode;
 import org.sosy_lab.cpachecker.cpa.predicate.persistence.PredicatePersistenceUtils.PredicateParsingFailedException;
@@ -72,9 +77,11 @@ import org.sosy_lab.cpachecker.util.predicates.smt.BooleanFormulaManagerView;
 import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
 import org.sosy_lab.cpachecker.util.predicates.smt.Solver;
 import org.sosy_lab.cpachecker.util.predicates.weakening.InductiveWeakeningManager;
+import org.sosy_lab.cpachecker.util.resources.MemoryPressure;
 import org.sosy_lab.cpachecker.util.statistics.StatTimer;
 import org.sosy_lab.java_smt.api.BasicProverEnvironment.AllSatCallback;
 import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Model;
 import org.sosy_lab.java_smt.api.ProverEnvironment;
 import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
 import org.sosy_lab.java_smt.api.SolverException;
@@ -90,6 +97,7 @@ public class PredicateAbstractionManager {
     public int numSymbolicAbstractions = 0; // precision completely empty, no computation
     public int numSatCheckAbstractions = 0; // precision was {false}, only sat check
     public int numCallsAbstractionCached = 0; // result was cached, no computation
+    public int numCallsAbstractionPersistentlyCached = 0; // subset of the above from disk
     public int numInductivePathFormulaCacheUsed = 0; // loop was cached, no new computation
 
     public int numTotalPredicates = 0;
@@ -99,7 +107,9 @@ public class PredicateAbstractionManager {
     public int numInductivePredicates = 0;
     public int numCartesianAbsPredicates = 0;
     public int numCartesianAbsPredicatesCached = 0;
+    public int numCartesianAbsBatchQueries = 0; // solver queries for groups of predicates
     public int numBooleanAbsPredicates = 0;
+    public int numIncrementalProverReuses = 0; // abstraction formula was still on solver stack
     public final Timer abstractionReuseTime = new Timer();
     public final StatTimer abstractionReuseImplicationTime = new StatTimer("Time for checking reusability of abstractions");
     public final Timer trivialPredicatesTime = new Timer();
@@ -109,6 +119,7 @@ public class PredicateAbstractionManager {
     public final Timer booleanAbstractionTime = new Timer();
     public final NestedTimer abstractionEnumTime = new NestedTimer(); // outer: solver time, inner: bdd time
     public final Timer abstractionSolveTime = new Timer(); // only the time for solving, not for model enumeration
+    public final Timer persistentCacheTime = new Timer();
 
     public long allSatCount = 0;
     public int maxAllSatCount = 0;
@@ -147,6 +158,18 @@ public class PredicateAbstractionManager {
       description = "whether to use Boolean or Cartesian abstraction or both")
   private AbstractionType abstractionType = AbstractionType.BOOLEAN;
 
+  @Option(
+      secure = true,
+      name = "abstraction.cartesianBatchSize",
+      description =
+          "Maximal number of predicates that are checked together in one solver query by the"
+              + " Cartesian abstraction. Instead of two queries per predicate, a group is checked"
+              + " with one query for the disjunction of the negated predicates, and the model of"
+              + " each satisfiable query rules out predicates. Use 1 to check each predicate"
+              + " individually.")
+  @IntegerOption(min = 1)
+  private int cartesianBatchSize = 1;
+
   @Option(secure=true, name = "abstraction.dumpHardQueries",
       description = "dump the abstraction formulas if they took to long")
   private boolean dumpHardAbstractions = false;
@@ -162,6 +185,18 @@ public class PredicateAbstractionManager {
   @Option(secure=true, name = "abs.useCache", description = "use caching of abstractions")
   private boolean useCache = true;
 
+  @Option(
+      secure = true,
+      name = "abs.persistentCacheDirectory",
+      description =
+          "directory for a cache of abstractions that is kept across runs of CPAchecker"
+              + " (disabled if not given). Entries are only reused if the versions of"
+              + " CPAchecker and the solver as well as all options of the predicate analysis"
+              + " and the solver are the same. The cache is not used if abstractions are"
+              + " strengthened with invariants.")
+  @FileOption(FileOption.Type.OPTIONAL_INPUT_FILE)
+  private @Nullable Path persistentCacheDirectory = null;
+
   @Option(secure=true, name="refinement.splitItpAtoms",
       description="split each arithmetic equality into two inequalities when extracting predicates from interpolants")
   private boolean splitItpAtoms = false;
@@ -174,6 +209,19 @@ public class PredicateAbstractionManager {
       description="Simplify the abstraction formula that is stored to represent the state space. Helpful when debugging (formulas get smaller).")
   private boolean simplifyAbstractionFormula = false;
 
+  @Option(
+      secure = true,
+      name = "abstraction.incremental",
+      description =
+          "Keep one prover environment for all abstraction computations instead of creating a"
+              + " new one for each. The abstraction formula of the predecessor stays on the solver"
+              + " stack as long as the following abstractions start from the same abstraction"
+              + " formula (e.g., for sibling blocks), such that the solver can reuse what it has"
+              + " learned about it. A prover environment that was used for a Boolean abstraction"
+              + " is not reused. Requires a solver that supports several prover environments at"
+              + " the same time.")
+  private boolean incrementalAbstraction = false;
+
   private boolean warnedOfCartesianAbstraction = false;
 
   private boolean abstractionReuseDisabledBecauseOfAmbiguity = false;
@@ -189,6 +237,13 @@ public class PredicateAbstractionManager {
   // 1: predicate is true
   private final Map<Pair<BooleanFormula, AbstractionPredicate>, Byte> cartesianAbstractionCache;
 
+  private final @Nullable PersistentAbstractionCache persistentCache;
+
+  // for incremental abstraction computation: the prover environment
+  // and the abstraction formula that is the only formula on its stack between two abstractions
+  private @Nullable ProverEnvironment incrementalProver = null;
+  private @Nullable BooleanFormula incrementalProverBase = null;
+
   public PredicateAbstractionManager(
       AbstractionManager pAmgr,
       PathFormulaManager pPfmgr,
@@ -238,7 +293,29 @@ public class PredicateAbstractionManager {
       cartesianAbstractionCache = null;
     }
 
+    if (useCache
+        && persistentCacheDirectory != null
+        && invariantSupplier != TrivialInvariantSupplier.INSTANCE) {
+      // Abstractions are strengthened with invariants that are only valid for this program,
+      // but entries of the persistent cache could be reused for a different program.
+      logger.log(
+          Level.WARNING,
+          "Persistent abstraction cache is not used because abstractions are strengthened with"
+              + " invariants.");
+      persistentCache = null;
+    } else if (useCache && persistentCacheDirectory != null) {
+      persistentCache =
+          new PersistentAbstractionCache(
+              persistentCacheDirectory, solver.getVersion(), pConfig, fmgr, logger);
+    } else {
+      persistentCache = null;
+    }
+
     abstractionStorage = new PredicateAbstractionsStorage(reuseAbstractionsFrom, logger, fmgr, null);
+
+    if (useCache) {
+      MemoryPressure.register(this, (manager, level) -> manager.clearCachesOnMemoryPressure());
+    }
   }
 
   /**
@@ -282,6 +359,15 @@ public class PredicateAbstractionManager {
       unsatisfiabilityCache.clear();
     }
   }
+
+  private void clearCachesOnMemoryPressure() {
+    clear();
+    closeIncrementalProver();
+    if (cartesianAbstractionCache != null) {
+      cartesianAbstractionCache.clear();
+    }
+    logger.log(Level.INFO, "Cleared abstraction caches because of memory pressure");
+  }
   /**
    * Compute an abstraction of the conjunction of an AbstractionFormula and
    * a PathFormula. The AbstractionFormula will be used in its instantiated form,
@@ -338,9 +424,12 @@ public class PredicateAbstractionManager {
     final Collection<AbstractionPredicate> remainingPredicates =
         getRelevantPredicates(pPredicates, primaryFormula, instantiator);
 
+    // the part of primaryFormula without absFormula, for incremental abstraction computation
+    BooleanFormula blockFormula = symbFormula;
     if (fmgr.useBitwiseAxioms()) {
       for (AbstractionPredicate predicate : remainingPredicates) {
         primaryFormula = pfmgr.addBitwiseAxiomsIfNeeded(primaryFormula, predicate.getSymbolicAtom());
+        blockFormula = pfmgr.addBitwiseAxiomsIfNeeded(blockFormula, predicate.getSymbolicAtom());
       }
     }
 
@@ -380,6 +469,37 @@ public class PredicateAbstractionManager {
             bfmgr.makeFalse(), bfmgr.makeFalse(),
             pathFormula, noAbstractionReuse);
       }
+
+      if (persistentCache != null) {
+        Optional<BooleanFormula> persistentResult;
+        stats.persistentCacheTime.start();
+        try {
+          persistentResult = persistentCache.get(f, absKey.getSecond());
+        } finally {
+          stats.persistentCacheTime.stop();
+        }
+        if (persistentResult.isPresent()) {
+          BooleanFormula stateFormula = persistentResult.orElseThrow();
+          result =
+              new AbstractionFormula(
+                  fmgr,
+                  amgr.convertFormulaToRegion(stateFormula),
+                  stateFormula,
+                  fmgr.instantiate(stateFormula, ssa),
+                  pathFormula,
+                  noAbstractionReuse);
+          abstractionCache.put(absKey, result);
+          if (result.isFalse()) {
+            unsatisfiabilityCache.add(f);
+          }
+          logger.log(
+              Level.FINEST, "Abstraction", stats.numCallsAbstraction, "was cached on disk");
+          logger.log(Level.ALL, "Abstraction result is", result.asFormula());
+          stats.numCallsAbstractionCached++;
+          stats.numCallsAbstractionPersistentlyCached++;
+          return result;
+        }
+      }
     }
 
 
@@ -418,7 +538,11 @@ public class PredicateAbstractionManager {
       abs = rmgr.makeAnd(abs, buildCartesianAbstractionUsingWeakening(f, ssa, remainingPredicates));
 
     } else {
-      abs = rmgr.makeAnd(abs, computeAbstraction(f, remainingPredicates, instantiator));
+      abs =
+          rmgr.makeAnd(
+              abs,
+              computeAbstraction(
+                  f, absFormula, blockFormula, remainingPredicates, instantiator));
     }
 
     AbstractionFormula result = makeAbstractionFormula(abs, ssa, pathFormula);
@@ -429,6 +553,15 @@ public class PredicateAbstractionManager {
       if (result.isFalse()) {
         unsatisfiabilityCache.add(f);
       }
+
+      if (persistentCache != null) {
+        stats.persistentCacheTime.start();
+        try {
+          persistentCache.put(f, absKey.getSecond(), result.asFormula());
+        } finally {
+          stats.persistentCacheTime.stop();
+        }
+      }
     }
 
     long abstractionTime = TimeSpan.sum(stats.abstractionSolveTime.getLengthOfLastInterval(),
@@ -479,7 +612,7 @@ public class PredicateAbstractionManager {
     final Collection<AbstractionPredicate> predicates =
         getRelevantPredicates(pPredicates, pF, dummyInstantiator);
 
-    Region abs = computeAbstraction(pF, predicates, dummyInstantiator);
+    Region abs = computeAbstraction(pF, bfmgr.makeTrue(), pF, predicates, dummyInstantiator);
 
     BooleanFormula symbolicAbs = amgr.convertRegionToFormula(abs);
 
@@ -733,6 +866,12 @@ public class PredicateAbstractionManager {
    * Actually compute an abstraction of a formula, without fancy caching etc.
    *
    * @param f The formula to be abstracted.
+   * @param base A formula that is implied by f and is likely to be shared by several calls (the
+   *     abstraction formula of the predecessor), such that it can be kept on the solver stack if
+   *     {@link #incrementalAbstraction} is enabled.
+   * @param rest The remaining part of f, such that f is equivalent to the conjunction of base and
+   *     rest. Only this part is pushed on top of base if {@link #incrementalAbstraction} is
+   *     enabled.
    * @param remainingPredicates The set of predicates.
    *     Each predicate that is handled will be removed from the set.
    * @param instantiator A function that will be applied to instantiate each abstraction predicate,
@@ -741,14 +880,21 @@ public class PredicateAbstractionManager {
    */
   private Region computeAbstraction(
       final BooleanFormula f,
+      final BooleanFormula base,
+      final BooleanFormula rest,
       final Collection<AbstractionPredicate> remainingPredicates,
       final Function<BooleanFormula, BooleanFormula> instantiator)
       throws SolverException, InterruptedException {
     Region abs = rmgr.makeTrue();
 
-    try (ProverEnvironment thmProver =
-        solver.newProverEnvironment(ProverOptions.GENERATE_ALL_SAT)) {
-      thmProver.push(f);
+    final ProverEnvironment thmProver =
+        incrementalAbstraction
+            ? getIncrementalProver(base)
+            : newAbstractionProver();
+    // whether the solver stack is in a known state afterwards, such that the prover can be reused
+    boolean reusable = false;
+    try {
+      thmProver.push(incrementalAbstraction ? rest : f);
 
       if (remainingPredicates.isEmpty()) {
         stats.numSatCheckAbstractions++;
@@ -764,6 +910,7 @@ public class PredicateAbstractionManager {
         if (!feasibility) {
           abs = rmgr.makeFalse();
         }
+        reusable = true;
 
       } else {
         if (abstractionType != AbstractionType.BOOLEAN) {
@@ -778,11 +925,13 @@ public class PredicateAbstractionManager {
             stats.cartesianAbstractionTime.stop();
           }
         }
+        reusable = true;
 
         if (abstractionType != AbstractionType.CARTESIAN && !remainingPredicates.isEmpty()) {
           // Last do boolean abstraction if desired and necessary
           stats.numBooleanAbsPredicates += remainingPredicates.size();
           stats.booleanAbstractionTime.start();
+          reusable = false;
           try {
             abs =
                 rmgr.makeAnd(
@@ -796,10 +945,55 @@ public class PredicateAbstractionManager {
           // remainingPredicates is now empty.
         }
       }
+    } finally {
+      if (!incrementalAbstraction) {
+        thmProver.close();
+      } else if (reusable) {
+        thmProver.pop(); // back to base
+      } else {
+        closeIncrementalProver();
+      }
     }
     return abs;
   }
 
+  private ProverEnvironment newAbstractionProver() {
+    if (cartesianBatchSize > 1) {
+      // batched Cartesian abstraction uses models
+      return solver.newProverEnvironment(
+          ProverOptions.GENERATE_ALL_SAT, ProverOptions.GENERATE_MODELS);
+    }
+    return solver.newProverEnvironment(ProverOptions.GENERATE_ALL_SAT);
+  }
+
+  /**
+   * Get the prover environment for incremental abstraction computation, with the given formula as
+   * the only formula on the solver stack.
+   */
+  private ProverEnvironment getIncrementalProver(BooleanFormula pBase)
+      throws InterruptedException {
+    if (incrementalProver == null) {
+      incrementalProver = newAbstractionProver();
+    } else if (pBase.equals(incrementalProverBase)) {
+      stats.numIncrementalProverReuses++;
+      return incrementalProver;
+    } else if (incrementalProverBase != null) {
+      incrementalProver.pop(); // old base
+      incrementalProverBase = null;
+    }
+    incrementalProver.push(pBase);
+    incrementalProverBase = pBase;
+    return incrementalProver;
+  }
+
+  private void closeIncrementalProver() {
+    if (incrementalProver != null) {
+      incrementalProver.close();
+      incrementalProver = null;
+      incrementalProverBase = null;
+    }
+  }
+
   /**
    * Compute a Cartesian abstraction of a formula given a set of predicates.
    * The abstracted formula is expected to have been pushed onto the solver stack already.
@@ -839,6 +1033,7 @@ public class PredicateAbstractionManager {
 
       // check whether each of the predicate is implied in the next state...
 
+      final List<AbstractionPredicate> uncachedPredicates = new ArrayList<>();
       final Iterator<AbstractionPredicate> predicateIt = pPredicates.iterator();
       while (predicateIt.hasNext()) {
         final AbstractionPredicate p = predicateIt.next();
@@ -861,6 +1056,9 @@ public class PredicateAbstractionManager {
           }
           stats.abstractionEnumTime.getCurentInnerTimer().stop();
 
+        } else if (cartesianBatchSize > 1) {
+          uncachedPredicates.add(p);
+
         } else {
           logger.log(Level.ALL, "DEBUG_1",
               "CHECKING VALUE OF PREDICATE: ", p.getSymbolicAtom());
@@ -911,6 +1109,30 @@ public class PredicateAbstractionManager {
         }
       }
 
+      for (List<AbstractionPredicate> batch :
+          Lists.partition(uncachedPredicates, cartesianBatchSize)) {
+        Map<AbstractionPredicate, Byte> values =
+            computeCartesianValuesBatched(thmProver, batch, instantiator);
+
+        for (AbstractionPredicate p : batch) {
+          byte predVal = values.getOrDefault(p, (byte) 0);
+          if (predVal != 0) {
+            stats.numCartesianAbsPredicates++;
+            stats.abstractionEnumTime.getCurentInnerTimer().start();
+            Region v = p.getAbstractVariable();
+            if (predVal == -1) {
+              v = rmgr.makeNot(v);
+            }
+            absbdd = rmgr.makeAnd(absbdd, v);
+            pPredicates.remove(p); // mark predicate as handled
+            stats.abstractionEnumTime.getCurentInnerTimer().stop();
+          }
+          if (useCache) {
+            cartesianAbstractionCache.put(Pair.of(f, p), predVal);
+          }
+        }
+      }
+
       return absbdd;
 
     } finally {
@@ -918,6 +1140,96 @@ public class PredicateAbstractionManager {
     }
   }
 
+  /**
+   * Determine for a group of predicates whether they are implied or contradicted by the formula
+   * on the solver stack, with fewer queries than checking each predicate individually.
+   *
+   * <p>The disjunction of the negated predicates is unsatisfiable iff all of them are implied.
+   * Otherwise, each model rules out those predicates that are false in it from being implied, and
+   * those that are true in it from being contradicted, so every query makes progress as long as
+   * the model assigns the predicates. The remaining predicates are checked individually if this is
+   * not the case. Contradicted predicates are found in the same way.
+   *
+   * @param thmProver The solver to use with the input formula on the stack, needs to produce
+   *     models.
+   * @return for each predicate 1 if it is implied, -1 if it is contradicted, and 0 or no value
+   *     otherwise
+   */
+  private Map<AbstractionPredicate, Byte> computeCartesianValuesBatched(
+      final ProverEnvironment thmProver,
+      final List<AbstractionPredicate> pPredicates,
+      final Function<BooleanFormula, BooleanFormula> instantiator)
+      throws SolverException, InterruptedException {
+
+    final Map<AbstractionPredicate, BooleanFormula> instantiated = new LinkedHashMap<>();
+    for (AbstractionPredicate p : pPredicates) {
+      instantiated.put(p, instantiator.apply(p.getSymbolicAtom()));
+    }
+    // predicates that may still be implied or contradicted, respectively
+    final Set<AbstractionPredicate> maybeTrue = new LinkedHashSet<>(pPredicates);
+    final Set<AbstractionPredicate> maybeFalse = new LinkedHashSet<>(pPredicates);
+    final Map<AbstractionPredicate, Byte> result = new HashMap<>();
+
+    for (final boolean positive : new boolean[] {true, false}) {
+      final Set<AbstractionPredicate> candidates = positive ? maybeTrue : maybeFalse;
+      final byte value = positive ? (byte) 1 : (byte) -1;
+      boolean checkIndividually = false;
+
+      while (!candidates.isEmpty() && !checkIndividually) {
+        shutdownNotifier.shutdownIfNecessary();
+        List<BooleanFormula> refutations = new ArrayList<>(candidates.size());
+        for (AbstractionPredicate p : candidates) {
+          BooleanFormula predTrue = instantiated.get(p);
+          refutations.add(positive ? bfmgr.not(predTrue) : predTrue);
+        }
+
+        stats.numCartesianAbsBatchQueries++;
+        thmProver.push(bfmgr.or(refutations));
+        try {
+          if (thmProver.isUnsat()) {
+            for (AbstractionPredicate p : candidates) {
+              result.put(p, value);
+            }
+            break;
+          }
+
+          int candidatesBefore = candidates.size();
+          try (Model model = thmProver.getModel()) {
+            for (Map.Entry<AbstractionPredicate, BooleanFormula> entry : instantiated.entrySet()) {
+              Boolean predValue = model.evaluate(entry.getValue());
+              if (predValue != null) {
+                (predValue ? maybeFalse : maybeTrue).remove(entry.getKey());
+              }
+            }
+          }
+          checkIndividually = candidates.size() == candidatesBefore;
+        } finally {
+          thmProver.pop();
+        }
+      }
+
+      if (checkIndividually) {
+        for (AbstractionPredicate p : candidates) {
+          BooleanFormula predTrue = instantiated.get(p);
+          thmProver.push(positive ? bfmgr.not(predTrue) : predTrue);
+          try {
+            if (thmProver.isUnsat()) {
+              result.put(p, value);
+            }
+          } finally {
+            thmProver.pop();
+          }
+        }
+      }
+
+      if (positive) {
+        // implied predicates are not contradicted, because the formula is satisfiable
+        maybeFalse.removeAll(result.keySet());
+      }
+    }
+    return result;
+  }
+
   /** Build cartesian abstraction using the inductive weakening approach. */
   private Region buildCartesianAbstractionUsingWeakening(
       final BooleanFormula f, final SSAMap ssa, final Collection<AbstractionPredicate> pPredicates)
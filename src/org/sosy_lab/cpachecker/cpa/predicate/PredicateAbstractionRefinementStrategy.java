@@ -37,6 +37,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.FileOption;
 import org.sosy_lab.common.configuration.FileOption.Type;
@@ -53,6 +54,9 @@ import org.sosy_lab.cpachecker.core.defaults.precision.VariableTrackingPrecision
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.interfaces.Statistics;
 import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
+import org.sosy_lab.cpachecker.core.reachedset.AnalysisInformationExchange;
+import org.sosy_lab.cpachecker.core.reachedset.AnalysisInformationExchange.Subscription;
+import org.sosy_lab.cpachecker.core.reachedset.AnalysisInformationExchange.Topic;
 import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
 import org.sosy_lab.cpachecker.cpa.arg.ARGReachedSet;
 import org.sosy_lab.cpachecker.cpa.arg.ARGState;
@@ -153,9 +157,29 @@ public class PredicateAbstractionRefinementStrategy extends RefinementStrategy
   private final FormulaMeasuring formulaMeasuring;
   private final PredicateMapWriter precisionWriter;
 
+  /** Topic for exchanging predicates with other predicate analyses running in parallel. */
+  private static final Topic<ExchangedPredicate> EXCHANGED_PREDICATES = new Topic<>("predicates");
+
+  private @Nullable Subscription<ExchangedPredicate> predicateExchange = null;
+
+  /**
+   * A predicate found by one analysis. It is stored in SMT-LIB format, because each analysis has
+   * its own solver instance.
+   */
+  private static final class ExchangedPredicate {
+    private final CFANode location;
+    private final String atom;
+
+    private ExchangedPredicate(CFANode pLocation, String pAtom) {
+      location = pLocation;
+      atom = pAtom;
+    }
+  }
+
   // statistics
   private StatCounter numberOfRefinementsWithStrategy2 = new StatCounter("Number of refs with location-based cutoff");
   private StatInt irrelevantPredsInItp = new StatInt(StatKind.SUM, "Number of irrelevant preds in interpolants");
+  private StatInt receivedPredicates = new StatInt(StatKind.SUM, "Number of preds from parallel analyses");
 
   private StatTimer predicateCreation = new StatTimer(StatKind.SUM, "Predicate creation");
   private StatTimer precisionUpdate = new StatTimer(StatKind.SUM, "Precision update");
@@ -202,6 +226,8 @@ public class PredicateAbstractionRefinementStrategy extends RefinementStrategy
       w0.put(numberOfRefinementsWithStrategy2)
         .ifUpdatedAtLeastOnce(itpSimplification)
           .put(irrelevantPredsInItp);
+      w0.ifTrue(predicateExchange != null)
+          .put(receivedPredicates);
     }
   }
 
@@ -235,6 +261,16 @@ public class PredicateAbstractionRefinementStrategy extends RefinementStrategy
     this.atomicPredicates = pAtomicPredicates;
   }
 
+  /**
+   * Exchange the predicates found during refinement with other analyses running in parallel, if
+   * the given exchange is enabled.
+   */
+  final void setInformationExchange(AnalysisInformationExchange pInformationExchange) {
+    if (pInformationExchange.isEnabled()) {
+      predicateExchange = pInformationExchange.subscribe(EXCHANGED_PREDICATES);
+    }
+  }
+
   @Override
   protected final void startRefinementOfPath() {
     checkState(newPredicates == null);
@@ -399,6 +435,9 @@ public class PredicateAbstractionRefinementStrategy extends RefinementStrategy
     logger.log(Level.ALL, "New predicates are", newPredicates);
 
     PredicatePrecision newPrecision = addPredicatesToPrecision(basePrecision);
+    if (predicateExchange != null) {
+      newPrecision = exchangePredicates(newPrecision);
+    }
 
     logger.log(Level.ALL, "Predicate map now is", newPrecision);
     logger.log(Level.ALL, "Difference of predicates is", newPrecision.subtract(basePrecision));
@@ -503,6 +542,40 @@ public class PredicateAbstractionRefinementStrategy extends RefinementStrategy
     return newPrecision;
   }
 
+  /**
+   * Publish the new predicates to the other analyses running in parallel, and add all predicates
+   * that the other analyses have found since the last refinement.
+   */
+  private PredicatePrecision exchangePredicates(PredicatePrecision pPrecision) {
+    for (Map.Entry<LocationInstance, AbstractionPredicate> entry : newPredicates.entries()) {
+      BooleanFormula atom = entry.getValue().getSymbolicAtom();
+      if (!bfmgr.isFalse(atom)) { // every analysis adds "false" on its own
+        predicateExchange.publish(
+            new ExchangedPredicate(
+                entry.getKey().getLocation(), fmgr.dumpFormula(atom).toString()));
+      }
+    }
+
+    ListMultimap<CFANode, AbstractionPredicate> received = ArrayListMultimap.create();
+    for (ExchangedPredicate predicate : predicateExchange.poll()) {
+      try {
+        received.put(
+            predicate.location, predAbsMgr.getPredicateFor(fmgr.parse(predicate.atom)));
+      } catch (IllegalArgumentException e) {
+        // the other analysis uses a different encoding, e.g., bitvectors instead of integers
+        logger.logDebugException(e, "Ignoring predicate from parallel analysis");
+      }
+    }
+    receivedPredicates.setNextValue(received.size());
+    logger.log(Level.ALL, "Predicates from parallel analyses are", received);
+
+    if (predicateSharing == PredicateSharing.GLOBAL) {
+      return pPrecision.addGlobalPredicates(received.values());
+    } else {
+      return pPrecision.addLocalPredicates(received.entries());
+    }
+  }
+
   private PredicatePrecision extractPredicatePrecision(Precision oldPrecision) throws IllegalStateException {
     PredicatePrecision oldPredicatePrecision = Precisions.extractPrecisionByType(oldPrecision, PredicatePrecision.class);
     checkState(
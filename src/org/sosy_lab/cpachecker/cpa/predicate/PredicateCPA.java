@@ -40,6 +40,7 @@ import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
 import org.sosy_lab.cpachecker.core.interfaces.StopOperator;
 import org.sosy_lab.cpachecker.core.interfaces.pcc.ProofChecker;
 import org.sosy_lab.cpachecker.core.reachedset.AggregatedReachedSets;
+import org.sosy_lab.cpachecker.core.reachedset.AnalysisInformationExchange;
 import org.sosy_lab.cpachecker.core.specification.Specification;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.exceptions.CPATransferException;
@@ -76,6 +77,14 @@ public class PredicateCPA
   @Option(secure=true, name="blk.useCache", description="use caching of path formulas")
   private boolean useCache = true;
 
+  @Option(
+      secure = true,
+      name = "blk.cacheSize",
+      description =
+          "maximum number of entries in each cache of path formulas (-1 for unbounded caches),"
+              + " the least-recently used entries are evicted first")
+  private long cacheSize = -1;
+
   @Option(secure=true, name="enableBlockreducer", description="Enable the possibility to precompute explicit abstraction locations.")
   private boolean enableBlockreducer = false;
 
@@ -115,12 +124,14 @@ public class PredicateCPA
   private final PredicatePrecisionBootstrapper precisionBootstraper;
   private final CFA cfa;
   private final AbstractionManager abstractionManager;
+  private final RegionManager regionManager;
   private final PredicateCPAInvariantsManager invariantsManager;
   private final BlockOperator blk;
   private final PredicateStatistics statistics;
   private final PredicateProvider predicateProvider;
   private final FormulaManagerView formulaManager;
   private final PredicateCpaOptions options;
+  private final AnalysisInformationExchange informationExchange;
 
   // path formulas for PCC
   private final Map<PredicateAbstractState, PathFormula> computedPathFormulaePcc = new HashMap<>();
@@ -140,8 +151,14 @@ public class PredicateCPA
     this.logger = logger;
     this.shutdownNotifier = pShutdownNotifier;
 
+    if (cacheSize < -1) {
+      throw new InvalidConfigurationException(
+          "Size of path-formula cache needs to be non-negative or -1 for unbounded caches.");
+    }
+
     cfa = pCfa;
     blk = pBlk;
+    informationExchange = pAggregatedReachedSets.getInformationExchange();
 
     if (enableBlockreducer) {
       BlockComputer blockComputer = new BlockedCFAReducer(config, logger);
@@ -155,11 +172,10 @@ public class PredicateCPA
 
     PathFormulaManager pfMgr = new PathFormulaManagerImpl(formulaManager, config, logger, shutdownNotifier, cfa, direction);
     if (useCache) {
-      pfMgr = new CachingPathFormulaManager(pfMgr);
+      pfMgr = new CachingPathFormulaManager(pfMgr, cacheSize);
     }
     pathFormulaManager = pfMgr;
 
-    RegionManager regionManager;
     if (abstractionType.equals("FORMULA") || blk.alwaysReturnsFalse()) {
       // No need to load BDD library if we never abstract (might use lots of memory)
       regionManager = new SymbolicRegionManager(solver);
@@ -326,6 +342,7 @@ public class PredicateCPA
 
   @Override
   public void close() {
+    regionManager.shutdown();
     solver.close();
   }
 
@@ -369,6 +386,10 @@ public class PredicateCPA
     return abstractionManager;
   }
 
+  public AnalysisInformationExchange getInformationExchange() {
+    return informationExchange;
+  }
+
   public PredicateCPAInvariantsManager getInvariantsManager() {
     return invariantsManager;
   }
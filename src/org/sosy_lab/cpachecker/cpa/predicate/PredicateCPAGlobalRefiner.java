@@ -12,9 +12,12 @@ import static java.util.Collections.unmodifiableList;
 import static org.sosy_lab.cpachecker.cpa.predicate.PredicateAbstractState.getPredicateState;
 import static org.sosy_lab.cpachecker.util.statistics.StatisticsWriter.writingStatisticsTo;
 
+import com.google.common.base.Throwables;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Lists;
 import com.google.common.collect.SetMultimap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.PrintStream;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
@@ -24,7 +27,15 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.Classes.UnexpectedCheckedException;
+import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
@@ -45,8 +56,11 @@ import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.util.AbstractStates;
 import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
 import org.sosy_lab.cpachecker.util.predicates.smt.Solver;
+import org.sosy_lab.cpachecker.util.statistics.StatCounter;
 import org.sosy_lab.cpachecker.util.statistics.StatTimer;
 import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
+import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer;
+import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer.TimerWrapper;
 import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.BooleanFormulaManager;
 import org.sosy_lab.java_smt.api.InterpolatingProverEnvironment;
@@ -59,7 +73,7 @@ import org.sosy_lab.java_smt.api.SolverException;
  * abstraction, this is left to an instance of {@link GlobalRefinementStrategy}.
  */
 @Options(prefix="cpa.predicate.refinement.global")
-public class PredicateCPAGlobalRefiner implements Refiner, StatisticsProvider {
+public class PredicateCPAGlobalRefiner implements Refiner, StatisticsProvider, AutoCloseable {
 
   @Option(secure = true,
           description = "Instead of updating precision and arg we say that the refinement was not successful"
@@ -68,16 +82,42 @@ public class PredicateCPAGlobalRefiner implements Refiner, StatisticsProvider {
   @IntegerOption(min = 0)
   private int stopAfterNRefinements = 0;
 
+  @Option(
+      secure = true,
+      description =
+          "Number of threads for checking and interpolating the error paths to all target states"
+              + " concurrently, each thread with its own solver instance. With a single thread,"
+              + " the error paths are refined in one solver environment in a depth-first"
+              + " traversal, which shares the work for common prefixes of the paths.")
+  @IntegerOption(min = 1)
+  private int threads = 1;
+
   // statistics
   private final StatTimer totalTime = new StatTimer("Time for refinement");
-  private final StatTimer interpolationTime = new StatTimer("Time for interpolation");
-  private final StatTimer satCheckTime = new StatTimer("Time for sat-checks");
+  // the times of the worker threads of the concurrent refinement are summed up
+  private final ThreadSafeTimerContainer interpolationTimes =
+      new ThreadSafeTimerContainer("Time for interpolation");
+  private final ThreadSafeTimerContainer satCheckTimes =
+      new ThreadSafeTimerContainer("Time for sat-checks");
+  private final TimerWrapper interpolationTime = interpolationTimes.getNewTimer();
+  private final TimerWrapper satCheckTime = satCheckTimes.getNewTimer();
+  private final StatTimer parallelRefinementTime =
+      new StatTimer("Time for concurrent path refinement");
+  private final StatCounter parallelRefinedPaths =
+      new StatCounter("Number of paths refined concurrently");
 
   private final LogManager logger;
   private final GlobalRefinementStrategy strategy;
   private final Solver solver;
+  private final FormulaManagerView fmgr;
   private final BooleanFormulaManager bfmgr;
   private final ARGCPA argCPA;
+  private final Configuration config;
+  private final ShutdownNotifier shutdownNotifier;
+
+  // for concurrent refinement, created lazily and kept for the whole analysis
+  private final List<Solver> workerSolvers = new ArrayList<>();
+  private @Nullable ExecutorService executor = null;
 
   public PredicateCPAGlobalRefiner(
       final LogManager pLogger,
@@ -85,14 +125,19 @@ public class PredicateCPAGlobalRefiner implements Refiner, StatisticsProvider {
       final GlobalRefinementStrategy pStrategy,
       final Solver pSolver,
       final ARGCPA pArgcpa,
-      final Configuration pConfig) throws InvalidConfigurationException {
+      final Configuration pConfig,
+      final ShutdownNotifier pShutdownNotifier)
+      throws InvalidConfigurationException {
     pConfig.inject(this);
 
     logger = pLogger;
+    fmgr = pFmgr;
     bfmgr = pFmgr.getBooleanFormulaManager();
     solver = pSolver;
     strategy = pStrategy;
     argCPA = pArgcpa;
+    config = pConfig;
+    shutdownNotifier = pShutdownNotifier;
 
     logger.log(
         Level.INFO,
@@ -113,7 +158,10 @@ public class PredicateCPAGlobalRefiner implements Refiner, StatisticsProvider {
 
       ARGReachedSet argReachedSet = new ARGReachedSet(pReached, argCPA);
       strategy.initializeGlobalRefinement();
-      Optional<ARGState> errorState = doPathWiseRefinement(argReachedSet, targets);
+      Optional<ARGState> errorState =
+          threads > 1 && targets.size() > 1
+              ? doConcurrentPathRefinement(argReachedSet, targets)
+              : doPathWiseRefinement(argReachedSet, targets);
 
       // TODO fix handling of counterexamples
       // + 1 for update count as the current interval is not finished
@@ -336,6 +384,241 @@ public class PredicateCPAGlobalRefiner implements Refiner, StatisticsProvider {
     strategy.performRefinement(reached, pAbstractionStatesTrace, interpolants, false);
   }
 
+  /**
+   * Do refinement for a set of target states by checking the error path to each target state
+   * separately. The paths are distributed to several threads, and each thread checks its paths and
+   * computes interpolants with its own solver instance. Formulas are translated between the solver
+   * instances only in the current thread, such that no solver instance is used concurrently.
+   * Afterwards, the interpolants of all infeasible paths are given to the strategy, which combines
+   * them into one precision update.
+   */
+  private Optional<ARGState> doConcurrentPathRefinement(
+      ARGReachedSet pReached, List<AbstractState> targets)
+      throws CPAException, InterruptedException, SolverException {
+    logger.log(Level.FINE, "Starting concurrent refinement for", targets.size(), "elements.");
+    parallelRefinementTime.start();
+    try {
+      final int usedThreads = Math.min(threads, targets.size());
+      final ExecutorService pool = initializeWorkers(usedThreads);
+
+      // distribute paths round-robin to the worker solvers
+      List<List<ErrorPath>> tasks = new ArrayList<>(usedThreads);
+      for (int i = 0; i < usedThreads; i++) {
+        tasks.add(new ArrayList<>());
+      }
+      for (int i = 0; i < targets.size(); i++) {
+        Solver workerSolver = workerSolvers.get(i % usedThreads);
+        tasks.get(i % usedThreads)
+            .add(new ErrorPath((ARGState) targets.get(i), workerSolver.getFormulaManager()));
+      }
+
+      // set when a feasible path was found, such that the other threads stop early
+      final AtomicBoolean stop = new AtomicBoolean(false);
+      List<Future<Optional<ARGState>>> futures = new ArrayList<>(usedThreads);
+      for (int i = 0; i < usedThreads; i++) {
+        final Solver workerSolver = workerSolvers.get(i);
+        final List<ErrorPath> paths = tasks.get(i);
+        futures.add(pool.submit(() -> checkPaths(paths, workerSolver, stop)));
+      }
+
+      // always wait for all threads, because the worker solvers are reused
+      Optional<ARGState> errorState = Optional.empty();
+      List<Throwable> errors = new ArrayList<>();
+      try {
+        for (Future<Optional<ARGState>> future : futures) {
+          try {
+            Optional<ARGState> result = future.get();
+            if (!errorState.isPresent()) {
+              errorState = result;
+            }
+          } catch (ExecutionException e) {
+            stop.set(true);
+            errors.add(e.getCause());
+          }
+        }
+      } finally {
+        stop.set(true);
+      }
+
+      if (!errors.isEmpty()) {
+        Throwable error = errors.get(0);
+        for (Throwable other : errors.subList(1, errors.size())) {
+          error.addSuppressed(other);
+        }
+        Throwables.throwIfInstanceOf(error, SolverException.class);
+        Throwables.propagateIfPossible(error, CPAException.class, InterruptedException.class);
+        throw new UnexpectedCheckedException("concurrent refinement", error);
+      }
+      if (errorState.isPresent()) {
+        logger.log(Level.FINE, "Found reachable target state", errorState.orElseThrow());
+        return errorState;
+      }
+
+      for (int i = 0; i < usedThreads; i++) {
+        FormulaManagerView workerFmgr = workerSolvers.get(i).getFormulaManager();
+        for (ErrorPath path : tasks.get(i)) {
+          List<BooleanFormula> interpolants = new ArrayList<>(path.interpolants.size());
+          for (BooleanFormula itp : path.interpolants) {
+            interpolants.add(fmgr.translateFrom(itp, workerFmgr));
+          }
+          // TODO repeated counterexample is always false currently, we also ignore the result
+          strategy.performRefinement(pReached, path.abstractionStatesTrace, interpolants, false);
+          parallelRefinedPaths.inc();
+        }
+      }
+      return Optional.empty();
+
+    } finally {
+      parallelRefinementTime.stop();
+    }
+  }
+
+  private ExecutorService initializeWorkers(int pThreads) throws InterruptedException {
+    if (executor == null) {
+      // daemon threads, because close() is not called if the CEGAR algorithm is wrapped by others
+      executor =
+          Executors.newFixedThreadPool(
+              threads,
+              new ThreadFactoryBuilder()
+                  .setDaemon(true)
+                  .setNameFormat("PredicateGlobalRefiner-thread-%d")
+                  .build());
+    }
+    try {
+      while (workerSolvers.size() < pThreads) {
+        workerSolvers.add(Solver.create(config, logger, shutdownNotifier));
+      }
+    } catch (InvalidConfigurationException e) {
+      // the same configuration was already used for the main solver
+      throw new AssertionError(e);
+    }
+    return executor;
+  }
+
+  /** Stop the worker threads and close the worker solvers of the concurrent refinement. */
+  @Override
+  public void close() {
+    if (executor != null) {
+      executor.shutdownNow();
+      executor = null;
+    }
+    for (Solver workerSolver : workerSolvers) {
+      workerSolver.close();
+    }
+    workerSolvers.clear();
+  }
+
+  /**
+   * Check the given paths with the given solver, stop at the first feasible path (of any thread).
+   * Runs in a worker thread.
+   */
+  private Optional<ARGState> checkPaths(
+      List<ErrorPath> pPaths, Solver pWorkerSolver, AtomicBoolean pStop)
+      throws InterruptedException, SolverException {
+    TimerWrapper satCheckTimer = satCheckTimes.getNewTimer();
+    TimerWrapper interpolationTimer = interpolationTimes.getNewTimer();
+    for (ErrorPath path : pPaths) {
+      shutdownNotifier.shutdownIfNecessary();
+      if (pStop.get()) {
+        break;
+      }
+      try (InterpolatingProverEnvironment<?> itpProver =
+          pWorkerSolver.newProverEnvironmentWithInterpolation()) {
+        if (!checkPath(path, itpProver, satCheckTimer, interpolationTimer)) {
+          pStop.set(true);
+          return Optional.of(path.target);
+        }
+      }
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Check whether one error path is infeasible, and if so, store its interpolants in the path. Like
+   * in the depth-first traversal, the interpolants are computed only up to the first infeasible
+   * prefix of the path, the remaining ones are false.
+   *
+   * @return whether the path is infeasible
+   */
+  private <T> boolean checkPath(
+      ErrorPath pPath,
+      InterpolatingProverEnvironment<T> itpProver,
+      TimerWrapper pSatCheckTimer,
+      TimerWrapper pInterpolationTimer)
+      throws InterruptedException, SolverException {
+    BooleanFormulaManager workerBfmgr = pPath.workerFmgr.getBooleanFormulaManager();
+    List<T> itpStack = new ArrayList<>(pPath.blockFormulas.size());
+    int unsatPrefix = -1;
+    for (BooleanFormula blockFormula : pPath.blockFormulas) {
+      itpStack.add(itpProver.push(blockFormula));
+      pSatCheckTimer.start();
+      try {
+        if (itpProver.isUnsat()) {
+          unsatPrefix = itpStack.size();
+          break;
+        }
+      } finally {
+        pSatCheckTimer.stop();
+      }
+    }
+    if (unsatPrefix < 0) {
+      return false;
+    }
+
+    // no interpolant for the target state, which is always false
+    pInterpolationTimer.start();
+    try {
+      for (int i = 1; i < pPath.blockFormulas.size(); i++) {
+        pPath.interpolants.add(
+            i < unsatPrefix
+                ? itpProver.getInterpolant(itpStack.subList(0, i))
+                : workerBfmgr.makeFalse());
+      }
+    } finally {
+      pInterpolationTimer.stop();
+    }
+    return true;
+  }
+
+  /**
+   * The error path to one target state, with its block formulas translated to the solver instance
+   * that will check it. Created in the main thread, interpolants are filled in by a worker thread.
+   */
+  private final class ErrorPath {
+
+    private final ARGState target;
+
+    /** The abstraction states of the path, without the root. */
+    private final List<ARGState> abstractionStatesTrace;
+
+    private final FormulaManagerView workerFmgr;
+    private final List<BooleanFormula> blockFormulas;
+    private final List<BooleanFormula> interpolants = new ArrayList<>();
+
+    private ErrorPath(ARGState pTarget, FormulaManagerView pWorkerFmgr) {
+      target = pTarget;
+      workerFmgr = pWorkerFmgr;
+
+      List<ARGState> trace = new ArrayList<>();
+      ARGState current = pTarget;
+      while (!current.getParents().isEmpty()) {
+        assert current.mayCover();
+        trace.add(current);
+        do {
+          current = current.getParents().iterator().next();
+        } while (!getPredicateState(current).isAbstractionState());
+      }
+      abstractionStatesTrace = Lists.reverse(trace);
+
+      blockFormulas = new ArrayList<>(abstractionStatesTrace.size());
+      for (ARGState state : abstractionStatesTrace) {
+        BooleanFormula blockFormula =
+            getPredicateState(state).getAbstractionFormula().getBlockFormula().getFormula();
+        blockFormulas.add(workerFmgr.translateFrom(blockFormula, fmgr));
+      }
+    }
+  }
+
   @Override
   public void collectStatistics(Collection<Statistics> pStatsCollection) {
     pStatsCollection.add(new Stats());
@@ -349,7 +632,10 @@ public class PredicateCPAGlobalRefiner implements Refiner, StatisticsProvider {
       int numberOfRefinements = totalTime.getUpdateCount();
       w0.put("Number of predicate refinements", numberOfRefinements);
       if (numberOfRefinements > 0) {
-        w0.put(totalTime).put(interpolationTime).put(satCheckTime);
+        w0.put(totalTime).put(interpolationTimes).put(satCheckTimes);
+        if (parallelRefinementTime.getUpdateCount() > 0) {
+          w0.put(parallelRefinementTime).put(parallelRefinedPaths);
+        }
       }
     }
 
@@ -84,7 +84,7 @@ import org.sosy_lab.java_smt.api.BooleanFormula;
  * It does, however, produce a nice error path in case of a feasible counterexample.
  */
 @Options(prefix = "cpa.predicate.refinement")
-public class PredicateCPARefiner implements ARGBasedRefiner, StatisticsProvider {
+public class PredicateCPARefiner implements ARGBasedRefiner, StatisticsProvider, AutoCloseable {
 
   @Option(secure=true, description="which sliced prefix should be used for interpolation")
   private List<PrefixPreference> prefixPreference = PrefixSelector.NO_SELECTION;
@@ -632,6 +632,11 @@ public class PredicateCPARefiner implements ARGBasedRefiner, StatisticsProvider
     }
   }
 
+  @Override
+  public void close() {
+    interpolationManager.close();
+  }
+
   @Override
   public void collectStatistics(Collection<Statistics> pStatsCollection) {
     pStatsCollection.add(new Stats());
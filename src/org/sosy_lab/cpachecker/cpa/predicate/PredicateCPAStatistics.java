@@ -254,7 +254,21 @@ class PredicateCPAStatistics implements Statistics {
       out.println("  Times precision was empty:       " + valueWithPercentage(as.numSymbolicAbstractions, as.numCallsAbstraction));
       out.println("  Times precision was {false}:     " + valueWithPercentage(as.numSatCheckAbstractions, as.numCallsAbstraction));
       out.println("  Times result was cached:         " + valueWithPercentage(as.numCallsAbstractionCached, as.numCallsAbstraction));
+      if (as.numIncrementalProverReuses > 0) {
+        out.println(
+            "  Times solver stack was reused:   "
+                + valueWithPercentage(as.numIncrementalProverReuses, as.numCallsAbstraction));
+      }
+      if (as.persistentCacheTime.getNumberOfIntervals() > 0) {
+        out.println(
+            "    Times cached on disk:          "
+                + valueWithPercentage(
+                    as.numCallsAbstractionPersistentlyCached, as.numCallsAbstraction));
+      }
       out.println("  Times cartesian abs was used:    " + valueWithPercentage(as.cartesianAbstractionTime.getNumberOfIntervals(), as.numCallsAbstraction));
+      if (as.numCartesianAbsBatchQueries > 0) {
+        out.println("    Solver queries for groups:     " + as.numCartesianAbsBatchQueries);
+      }
       out.println("  Times boolean abs was used:      " + valueWithPercentage(as.booleanAbstractionTime.getNumberOfIntervals(), as.numCallsAbstraction));
       out.println("  Times result was 'false':        " + valueWithPercentage(statistics.numAbstractionsFalse.getUpdateCount(), numAbstractions));
       if (as.inductivePredicatesTime.getNumberOfIntervals() > 0) {
@@ -340,6 +354,9 @@ class PredicateCPAStatistics implements Statistics {
       if (as.booleanAbstractionTime.getNumberOfIntervals() > 0) {
         out.println("    Boolean abstraction:             " + as.booleanAbstractionTime);
       }
+      if (as.persistentCacheTime.getNumberOfIntervals() > 0) {
+        out.println("    Persistent cache access:         " + as.persistentCacheTime);
+      }
       if (as.abstractionReuseTime.getNumberOfIntervals() > 0) {
         out.println("    Abstraction reuse:              " + as.abstractionReuseTime);
         out.println("    Abstraction reuse implication:  " + as.abstractionReuseImplicationTime);
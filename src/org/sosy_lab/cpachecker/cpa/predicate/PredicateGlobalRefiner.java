@@ -41,6 +41,7 @@ public abstract class PredicateGlobalRefiner implements Refiner {
         strategy,
         solver,
         CPAs.retrieveCPAOrFail(pCpa, ARGCPA.class, PredicateGlobalRefiner.class),
-        config);
+        config,
+        predicateCpa.getShutdownNotifier());
   }
 }
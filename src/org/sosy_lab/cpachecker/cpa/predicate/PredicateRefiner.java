@@ -27,11 +27,13 @@ public abstract class PredicateRefiner implements Refiner {
       throws InvalidConfigurationException {
     PredicateCPA predicateCpa =
         CPAs.retrieveCPAOrFail(pCpa, PredicateCPA.class, PredicateRefiner.class);
-    RefinementStrategy strategy = new PredicateAbstractionRefinementStrategy(
-        predicateCpa.getConfiguration(),
-        predicateCpa.getLogger(),
-        predicateCpa.getPredicateManager(),
-        predicateCpa.getSolver());
+    PredicateAbstractionRefinementStrategy strategy =
+        new PredicateAbstractionRefinementStrategy(
+            predicateCpa.getConfiguration(),
+            predicateCpa.getLogger(),
+            predicateCpa.getPredicateManager(),
+            predicateCpa.getSolver());
+    strategy.setInformationExchange(predicateCpa.getInformationExchange());
 
     return new PredicateCPARefinerFactory(pCpa).create(strategy);
   }
@@ -0,0 +1,191 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.predicate.persistence;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.collect.Collections2;
+import com.google.common.collect.Ordering;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.logging.Level;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.core.CPAchecker;
+import org.sosy_lab.cpachecker.util.predicates.smt.BooleanFormulaManagerView;
+import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+
+/**
+ * A cache for results of predicate abstractions that is stored on disk and can be shared between
+ * several runs of CPAchecker.
+ *
+ * <p>Each entry is keyed by the SMT-LIB representation of the (instantiated) formula that is
+ * abstracted and of the set of (instantiated) predicates, and it stores the uninstantiated
+ * abstraction result in SMT-LIB format. Entries are stored in a subdirectory of the given cache
+ * directory whose name is derived from the versions of CPAchecker and the SMT solver as well as
+ * from all options of the predicate analysis and the solver. Thus a change of any of these
+ * implicitly invalidates all existing entries, and outdated subdirectories can simply be deleted.
+ *
+ * <p>Each entry is a separate file that is written atomically, so several runs can use the same
+ * cache directory concurrently. Problems with reading and writing the cache are not fatal, the
+ * affected entries are just ignored.
+ */
+public class PersistentAbstractionCache {
+
+  private static final String FILE_SUFFIX = ".smt2";
+  private static final String TRUE = "true";
+  private static final String FALSE = "false";
+
+  private final Path cacheDirectory;
+  private final FormulaManagerView fmgr;
+  private final BooleanFormulaManagerView bfmgr;
+  private final LogManager logger;
+
+  private boolean warnedAboutWriteFailure = false;
+
+  public PersistentAbstractionCache(
+      Path pDirectory,
+      String pSolverVersion,
+      Configuration pConfig,
+      FormulaManagerView pFmgr,
+      LogManager pLogger) {
+    fmgr = checkNotNull(pFmgr);
+    bfmgr = fmgr.getBooleanFormulaManager();
+    logger = checkNotNull(pLogger);
+    cacheDirectory = pDirectory.resolve(computeIdentity(pSolverVersion, pConfig));
+  }
+
+  /**
+   * Compute a name that identifies all circumstances under which a cached abstraction is valid:
+   * the versions of CPAchecker and of the solver, and all options that influence how formulas are
+   * created and abstracted.
+   */
+  private static String computeIdentity(String pSolverVersion, Configuration pConfig) {
+    Hasher hasher = Hashing.sha256().newHasher();
+    hasher.putString(CPAchecker.getPlainVersion(), UTF_8);
+    hasher.putChar('\n');
+    hasher.putString(pSolverVersion, UTF_8);
+    hasher.putChar('\n');
+    // asPropertiesString() is sorted, so this is deterministic
+    for (String line :
+        PredicatePersistenceUtils.LINE_SPLITTER.split(pConfig.asPropertiesString())) {
+      if (line.startsWith("cpa.predicate.")
+          || line.startsWith("solver.")
+          || line.startsWith("analysis.machineModel")) {
+        hasher.putString(line, UTF_8);
+        hasher.putChar('\n');
+      }
+    }
+    return hasher.hash().toString();
+  }
+
+  private Path getFileFor(BooleanFormula pFormula, Collection<BooleanFormula> pPredicates) {
+    Hasher hasher = Hashing.sha256().newHasher();
+    hasher.putString(fmgr.dumpFormula(pFormula).toString(), UTF_8);
+    // the order of the predicates is irrelevant, so sort their string representations
+    List<String> predicates =
+        Ordering.natural()
+            .sortedCopy(Collections2.transform(pPredicates, p -> fmgr.dumpFormula(p).toString()));
+    for (String predicate : predicates) {
+      hasher.putChar('\0');
+      hasher.putString(predicate, UTF_8);
+    }
+    return cacheDirectory.resolve(hasher.hash() + FILE_SUFFIX);
+  }
+
+  /**
+   * Look up the abstraction of a formula.
+   *
+   * @param pFormula The instantiated formula that is abstracted.
+   * @param pPredicates The instantiated predicates that are used for the abstraction.
+   * @return The uninstantiated abstraction, if it is present in the cache.
+   */
+  public Optional<BooleanFormula> get(
+      BooleanFormula pFormula, Collection<BooleanFormula> pPredicates) {
+    Path file = getFileFor(pFormula, pPredicates);
+    String content;
+    try {
+      content = Files.readString(file, UTF_8);
+    } catch (NoSuchFileException e) {
+      return Optional.empty();
+    } catch (IOException e) {
+      logger.logUserException(
+          Level.FINE, e, "Could not read entry of persistent abstraction cache");
+      return Optional.empty();
+    }
+
+    if (content.equals(TRUE)) {
+      return Optional.of(bfmgr.makeTrue());
+    } else if (content.equals(FALSE)) {
+      return Optional.of(bfmgr.makeFalse());
+    }
+    try {
+      return Optional.of(fmgr.parse(content));
+    } catch (IllegalArgumentException e) {
+      // probably a partially written or otherwise corrupted file
+      logger.logDebugException(e, "Ignoring invalid entry " + file + " of abstraction cache");
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Store the abstraction of a formula.
+   *
+   * @param pFormula The instantiated formula that was abstracted.
+   * @param pPredicates The instantiated predicates that were used for the abstraction.
+   * @param pAbstraction The uninstantiated abstraction.
+   */
+  public void put(
+      BooleanFormula pFormula,
+      Collection<BooleanFormula> pPredicates,
+      BooleanFormula pAbstraction) {
+    Path file = getFileFor(pFormula, pPredicates);
+    String content;
+    if (bfmgr.isTrue(pAbstraction)) {
+      content = TRUE;
+    } else if (bfmgr.isFalse(pAbstraction)) {
+      content = FALSE;
+    } else {
+      content = fmgr.dumpFormula(pAbstraction).toString();
+    }
+
+    try {
+      Files.createDirectories(cacheDirectory);
+      // Write to a temporary file first such that other runs never see partial entries.
+      Path tmpFile = Files.createTempFile(cacheDirectory, "entry", ".tmp");
+      try {
+        Files.writeString(tmpFile, content, UTF_8);
+        try {
+          Files.move(tmpFile, file, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+          Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+      } finally {
+        Files.deleteIfExists(tmpFile);
+      }
+    } catch (IOException e) {
+      if (!warnedAboutWriteFailure) {
+        logger.logUserException(
+            Level.WARNING, e, "Could not write entry of persistent abstraction cache");
+        warnedAboutWriteFailure = true;
+      }
+    }
+  }
+}
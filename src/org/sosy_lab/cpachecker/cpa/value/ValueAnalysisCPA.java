@@ -40,6 +40,7 @@ import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.CPAFactory;
 import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysisWithBAM;
 import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysisWithConcreteCex;
+import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysisWithConcurrency;
 import org.sosy_lab.cpachecker.core.interfaces.MergeOperator;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.interfaces.PrecisionAdjustment;
@@ -49,6 +50,8 @@ import org.sosy_lab.cpachecker.core.interfaces.Statistics;
 import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
 import org.sosy_lab.cpachecker.core.interfaces.StopOperator;
 import org.sosy_lab.cpachecker.core.interfaces.pcc.ProofChecker.ProofCheckerCPA;
+import org.sosy_lab.cpachecker.core.reachedset.AggregatedReachedSets;
+import org.sosy_lab.cpachecker.core.reachedset.AnalysisInformationExchange;
 import org.sosy_lab.cpachecker.cpa.arg.path.ARGPath;
 import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisPrecisionAdjustment.PrecAdjustmentOptions;
 import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisPrecisionAdjustment.PrecAdjustmentStatistics;
@@ -68,7 +71,8 @@ public class ValueAnalysisCPA extends AbstractCPA
     implements ConfigurableProgramAnalysisWithBAM,
         StatisticsProvider,
         ProofCheckerCPA,
-        ConfigurableProgramAnalysisWithConcreteCex {
+        ConfigurableProgramAnalysisWithConcreteCex,
+        ConfigurableProgramAnalysisWithConcurrency {
 
   private enum UnknownValueStrategy {
     /** This strategy discards all unknown values from the value analysis state */
@@ -115,6 +119,7 @@ public class ValueAnalysisCPA extends AbstractCPA
   private final LogManager logger;
   private final ShutdownNotifier shutdownNotifier;
   private final CFA cfa;
+  private final AnalysisInformationExchange informationExchange;
 
   private boolean refineablePrecisionSet = false;
   private ValueAnalysisConcreteErrorPathAllocator errorPathAllocator;
@@ -127,13 +132,19 @@ public class ValueAnalysisCPA extends AbstractCPA
 
   private SymbolicStatistics symbolicStats;
 
-  private ValueAnalysisCPA(Configuration config, LogManager logger,
-      ShutdownNotifier pShutdownNotifier, CFA cfa) throws InvalidConfigurationException {
+  private ValueAnalysisCPA(
+      Configuration config,
+      LogManager logger,
+      ShutdownNotifier pShutdownNotifier,
+      CFA cfa,
+      AggregatedReachedSets pAggregatedReachedSets)
+      throws InvalidConfigurationException {
     super(DelegateAbstractDomain.<ValueAnalysisState>getInstance(), null);
     this.config           = config;
     this.logger           = logger;
     this.shutdownNotifier = pShutdownNotifier;
     this.cfa              = cfa;
+    informationExchange = pAggregatedReachedSets.getInformationExchange();
 
     config.inject(this, ValueAnalysisCPA.class);
 
@@ -282,6 +293,12 @@ public class ValueAnalysisCPA extends AbstractCPA
     }
   }
 
+  @Override
+  public boolean supportsConcurrentExploration() {
+    // symbolic values are handled with a shared constraint solver
+    return unknownValueStrategy == UnknownValueStrategy.DISCARD;
+  }
+
   public Configuration getConfiguration() {
     return config;
   }
@@ -298,6 +315,10 @@ public class ValueAnalysisCPA extends AbstractCPA
     return cfa;
   }
 
+  public AnalysisInformationExchange getInformationExchange() {
+    return informationExchange;
+  }
+
   @Override
   public Reducer getReducer() {
     return new ValueAnalysisReducer();
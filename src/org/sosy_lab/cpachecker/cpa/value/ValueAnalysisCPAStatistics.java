@@ -39,9 +39,10 @@ public class ValueAnalysisCPAStatistics implements Statistics {
   @FileOption(FileOption.Type.OUTPUT_FILE)
   private Path precisionFile = null;
 
-  private LongAdder iterations = new LongAdder();
-  private StatCounter assumptions = new StatCounter("Number of assumptions");
-  private StatCounter deterministicAssumptions =
+  // the counters are updated concurrently by the transfer relations of ConcurrentCPAAlgorithm
+  private final LongAdder iterations = new LongAdder();
+  private final StatCounter assumptions = new StatCounter("Number of assumptions");
+  private final StatCounter deterministicAssumptions =
       new StatCounter("Number of deterministic assumptions");
   private final ValueAnalysisCPA cpa;
 
@@ -40,6 +40,7 @@ import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisState.ValueAndType;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.util.AbstractStates;
 import org.sosy_lab.cpachecker.util.LiveVariables;
+import org.sosy_lab.cpachecker.util.resources.MemoryPressure;
 import org.sosy_lab.cpachecker.util.states.MemoryLocation;
 import org.sosy_lab.cpachecker.util.statistics.StatCounter;
 import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
@@ -138,6 +139,10 @@ public class ValueAnalysisPrecisionAdjustment implements PrecisionAdjustment {
     }
   }
 
+  /**
+   * Statistics that are shared by all precision adjustments of the CPA. They are thread-safe,
+   * because the precision adjustments of ConcurrentCPAAlgorithm use them concurrently.
+   */
   public static class PrecAdjustmentStatistics implements Statistics {
 
     final StatCounter abstractions = new StatCounter("Number of abstraction computations");
@@ -176,6 +181,10 @@ public class ValueAnalysisPrecisionAdjustment implements PrecisionAdjustment {
   @SuppressFBWarnings(value = "URF_UNREAD_FIELD", justification = "false alarm")
   private boolean performPrecisionBasedAbstraction = false;
 
+  // set if memory is almost exhausted, then we abstract as much as the precision allows
+  // (written by the thread that detects the memory pressure)
+  private volatile boolean coarsenedBecauseOfMemoryPressure = false;
+
   public ValueAnalysisPrecisionAdjustment(
       final ValueAnalysisCPAStatistics pStats,
       final CFA pCfa,
@@ -190,6 +199,14 @@ public class ValueAnalysisPrecisionAdjustment implements PrecisionAdjustment {
     totalLiveness = pStatistics.totalLivenessTimer.getNewTimer();
     totalAbstraction = pStatistics.totalAbstractionTimer.getNewTimer();
     totalEnforcePath = pStatistics.totalEnforcePathTimer.getNewTimer();
+
+    MemoryPressure.register(
+        this,
+        (precAdjustment, level) -> {
+          if (level == MemoryPressure.Level.CRITICAL) {
+            precAdjustment.coarsenedBecauseOfMemoryPressure = true;
+          }
+        });
   }
 
   @Override
@@ -210,7 +227,8 @@ public class ValueAnalysisPrecisionAdjustment implements PrecisionAdjustment {
       UniqueAssignmentsInPathConditionState assignments) {
     ValueAnalysisState resultState = ValueAnalysisState.copyOf(pState);
 
-    if (options.doLivenessAbstraction && liveVariables.isPresent()) {
+    if ((options.doLivenessAbstraction || coarsenedBecauseOfMemoryPressure)
+        && liveVariables.isPresent()) {
       totalLiveness.start();
       enforceLiveness(pState, location, resultState);
       totalLiveness.stop();
@@ -243,8 +261,8 @@ public class ValueAnalysisPrecisionAdjustment implements PrecisionAdjustment {
    * @return true, if abstractions should be computed, else false
    */
   private boolean performPrecisionBasedAbstraction() {
-    // always compute abstraction if option is disabled
-    if (options.iterationThreshold == -1) {
+    // always compute abstraction if option is disabled or memory is short
+    if (options.iterationThreshold == -1 || coarsenedBecauseOfMemoryPressure) {
       return true;
     }
 
@@ -299,7 +317,8 @@ public class ValueAnalysisPrecisionAdjustment implements PrecisionAdjustment {
    * @param precision the current precision
    */
   private void enforcePrecision(ValueAnalysisState state, LocationState location, VariableTrackingPrecision precision) {
-    if (options.abstractAtEachLocation()
+    if (coarsenedBecauseOfMemoryPressure
+        || options.abstractAtEachLocation()
         || options.abstractAtBranch(location)
         || options.abstractAtJoin(location)
         || options.abstractAtFunction(location)
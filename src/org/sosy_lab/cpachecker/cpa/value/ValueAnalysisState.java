@@ -13,6 +13,9 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import java.io.Serializable;
 import java.math.BigInteger;
 import java.util.ArrayList;
@@ -39,6 +42,7 @@ import org.sosy_lab.cpachecker.core.interfaces.AbstractQueryableState;
 import org.sosy_lab.cpachecker.core.interfaces.FormulaReportingState;
 import org.sosy_lab.cpachecker.core.interfaces.Graphable;
 import org.sosy_lab.cpachecker.core.interfaces.PseudoPartitionable;
+import org.sosy_lab.cpachecker.core.interfaces.SubsumptionIndexable;
 import org.sosy_lab.cpachecker.cpa.value.refiner.ValueAnalysisInterpolant;
 import org.sosy_lab.cpachecker.cpa.value.symbolic.type.ConstantSymbolicExpression;
 import org.sosy_lab.cpachecker.cpa.value.symbolic.type.SymbolicIdentifier;
@@ -47,6 +51,7 @@ import org.sosy_lab.cpachecker.cpa.value.type.NumericValue;
 import org.sosy_lab.cpachecker.cpa.value.type.Value;
 import org.sosy_lab.cpachecker.exceptions.InvalidQueryException;
 import org.sosy_lab.cpachecker.exceptions.UnrecognizedCodeException;
+import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.cpachecker.util.predicates.smt.BitvectorFormulaManagerView;
 import org.sosy_lab.cpachecker.util.predicates.smt.FloatingPointFormulaManagerView;
 import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
@@ -62,12 +67,19 @@ import org.sosy_lab.java_smt.api.FormulaType.FloatingPointType;
 public final class ValueAnalysisState
     implements AbstractQueryableState, FormulaReportingState,
         ForgetfulState<ValueAnalysisInformation>, Serializable, Graphable,
-        LatticeAbstractState<ValueAnalysisState>, PseudoPartitionable {
+        LatticeAbstractState<ValueAnalysisState>, PseudoPartitionable, SubsumptionIndexable {
 
   private static final long serialVersionUID = -3152134511524554358L;
 
   private static final Set<MemoryLocation> blacklist = new HashSet<>();
 
+  /**
+   * Canonical instances of all values in the maps of states. Equal states reached over different
+   * paths thus reference the same value objects, which saves memory and lets most comparisons of
+   * values succeed on identity. The interner is weak, unused values are garbage collected.
+   */
+  private static final Interner<ValueAndType> valueInterner = Interners.newWeakInterner();
+
   static void addToBlacklist(MemoryLocation var) {
     blacklist.add(checkNotNull(var));
   }
@@ -142,9 +154,14 @@ public final class ValueAnalysisState
       valueToAdd = ((SymbolicValue) valueToAdd).copyForLocation(pMemLoc);
     }
 
-    ValueAndType valueAndType = new ValueAndType(checkNotNull(valueToAdd), pType);
+    ValueAndType valueAndType =
+        valueInterner.intern(new ValueAndType(checkNotNull(valueToAdd), pType));
     ValueAndType oldValueAndType = constantsMap.get(pMemLoc);
     if (oldValueAndType != null) {
+      if (oldValueAndType.equals(valueAndType)) {
+        // do not copy the path of the map, it stays shared with other states
+        return;
+      }
       hashCode -= (pMemLoc.hashCode() ^ oldValueAndType.hashCode());
     }
     constantsMap = constantsMap.putAndCopy(pMemLoc, valueAndType);
@@ -370,6 +387,11 @@ public final class ValueAnalysisState
   @Override
   public boolean isLessOrEqual(ValueAnalysisState other) {
 
+    // states that were copied without changes share their map
+    if (constantsMap == other.constantsMap) {
+      return true;
+    }
+
     // also, this element is not less or equal than the other element, if it contains less elements
     if (constantsMap.size() < other.constantsMap.size()) {
       return false;
@@ -387,8 +409,11 @@ public final class ValueAnalysisState
     // the tolerant way: ignore all type information. TODO really correct?
     for (Entry<MemoryLocation, ValueAndType> otherEntry : other.constantsMap.entrySet()) {
       MemoryLocation key = otherEntry.getKey();
-      Value otherValue = otherEntry.getValue().getValue();
       ValueAndType thisValueAndType = constantsMap.get(key);
+      if (thisValueAndType == otherEntry.getValue()) {
+        continue; // interned, no need to compare the values
+      }
+      Value otherValue = otherEntry.getValue().getValue();
       if (thisValueAndType == null || !otherValue.equals(thisValueAndType.getValue())) {
         return false;
       }
@@ -413,7 +438,9 @@ public final class ValueAnalysisState
 
     ValueAnalysisState otherElement = (ValueAnalysisState) other;
     // hashCode is used as optimization: about 20% speedup when using many SingletonSets
-    return otherElement.hashCode == hashCode && otherElement.constantsMap.equals(constantsMap);
+    return otherElement.hashCode == hashCode
+        && (otherElement.constantsMap == constantsMap
+            || otherElement.constantsMap.equals(constantsMap));
   }
 
   @Override
@@ -737,10 +764,25 @@ public final class ValueAnalysisState
     return this;
   }
 
+  /**
+   * The facts of this state are the assignments of values to memory locations. Like {@link
+   * #isLessOrEqual(ValueAnalysisState)}, the facts ignore the type of the values.
+   */
+  @Override
+  public ImmutableList<Pair<MemoryLocation, Value>> getSubsumptionKeys() {
+    ImmutableList.Builder<Pair<MemoryLocation, Value>> keys =
+        ImmutableList.builderWithExpectedSize(constantsMap.size());
+    for (Entry<MemoryLocation, ValueAndType> entry : constantsMap.entrySet()) {
+      keys.add(Pair.of(entry.getKey(), entry.getValue().getValue()));
+    }
+    return keys.build();
+  }
+
   public static class ValueAndType implements Serializable {
     private static final long serialVersionUID = 1L;
     private final Value value;
     private final Type type;
+    private transient int hashCode; // lazily initialized, might depend on the JVM
 
     public ValueAndType(Value pValue, Type pType) {
       value = checkNotNull(pValue);
@@ -765,12 +807,17 @@ public final class ValueAnalysisState
       }
 
       ValueAndType other = (ValueAndType) o;
-      return Objects.equals(value, other.value) && Objects.equals(type, other.type);
+      return hashCode() == other.hashCode()
+          && Objects.equals(value, other.value)
+          && Objects.equals(type, other.type);
     }
 
     @Override
     public int hashCode() {
-      return Objects.hash(value, type);
+      if (hashCode == 0) {
+        hashCode = Objects.hash(value, type);
+      }
+      return hashCode;
     }
 
     @Override
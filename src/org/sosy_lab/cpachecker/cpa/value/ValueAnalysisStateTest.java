@@ -0,0 +1,87 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.value;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.Optional;
+import org.junit.Test;
+import org.sosy_lab.common.collect.PathCopyingPersistentTreeMap;
+import org.sosy_lab.common.collect.PersistentMap;
+import org.sosy_lab.cpachecker.cfa.types.MachineModel;
+import org.sosy_lab.cpachecker.cfa.types.c.CNumericTypes;
+import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisState.ValueAndType;
+import org.sosy_lab.cpachecker.cpa.value.type.NumericValue;
+import org.sosy_lab.cpachecker.util.states.MemoryLocation;
+
+public class ValueAnalysisStateTest {
+
+  private static final MachineModel MACHINE_MODEL = MachineModel.LINUX32;
+
+  private static final MemoryLocation X = MemoryLocation.valueOf("main::x");
+  private static final MemoryLocation Y = MemoryLocation.valueOf("main::y");
+
+  @Test
+  public void equalValuesInterned() {
+    ValueAnalysisState state1 = new ValueAnalysisState(MACHINE_MODEL);
+    state1.assignConstant(X, new NumericValue(1), CNumericTypes.INT);
+    ValueAnalysisState state2 = new ValueAnalysisState(MACHINE_MODEL);
+    state2.assignConstant(Y, new NumericValue(1), CNumericTypes.INT);
+
+    assertThat(state2.getValueAndTypeFor(Y)).isSameInstanceAs(state1.getValueAndTypeFor(X));
+  }
+
+  @Test
+  public void differentTypesNotInterned() {
+    ValueAnalysisState state1 = new ValueAnalysisState(MACHINE_MODEL);
+    state1.assignConstant(X, new NumericValue(1), CNumericTypes.INT);
+    ValueAnalysisState state2 = new ValueAnalysisState(MACHINE_MODEL);
+    state2.assignConstant(X, new NumericValue(1), CNumericTypes.LONG_INT);
+
+    assertThat(state2.getValueAndTypeFor(X)).isNotEqualTo(state1.getValueAndTypeFor(X));
+    assertThat(state2).isNotEqualTo(state1);
+  }
+
+  @Test
+  public void equalityUnchangedByInterning() {
+    ValueAnalysisState interned = new ValueAnalysisState(MACHINE_MODEL);
+    interned.assignConstant(X, new NumericValue(1), CNumericTypes.INT);
+    interned.assignConstant(Y, new NumericValue(2), CNumericTypes.INT);
+
+    // a state created directly from its map does not intern its values
+    PersistentMap<MemoryLocation, ValueAndType> constants =
+        PathCopyingPersistentTreeMap.<MemoryLocation, ValueAndType>of()
+            .putAndCopy(X, new ValueAndType(new NumericValue(1), CNumericTypes.INT))
+            .putAndCopy(Y, new ValueAndType(new NumericValue(2), CNumericTypes.INT));
+    ValueAnalysisState notInterned = new ValueAnalysisState(Optional.of(MACHINE_MODEL), constants);
+
+    assertThat(interned).isEqualTo(notInterned);
+    assertThat(notInterned).isEqualTo(interned);
+    assertThat(interned.hashCode()).isEqualTo(notInterned.hashCode());
+    assertThat(interned.isLessOrEqual(notInterned)).isTrue();
+    assertThat(notInterned.isLessOrEqual(interned)).isTrue();
+  }
+
+  @Test
+  public void reassignmentOfEqualValue() {
+    ValueAnalysisState state = new ValueAnalysisState(MACHINE_MODEL);
+    state.assignConstant(X, new NumericValue(1), CNumericTypes.INT);
+    ValueAnalysisState copy = ValueAnalysisState.copyOf(state);
+    copy.assignConstant(X, new NumericValue(1), CNumericTypes.INT);
+
+    assertThat(copy).isEqualTo(state);
+    assertThat(copy.hashCode()).isEqualTo(state.hashCode());
+
+    copy.assignConstant(X, new NumericValue(2), CNumericTypes.INT);
+    copy.assignConstant(X, new NumericValue(1), CNumericTypes.INT);
+
+    assertThat(copy).isEqualTo(state);
+    assertThat(copy.hashCode()).isEqualTo(state.hashCode());
+  }
+}
@@ -15,8 +15,10 @@ import com.google.common.base.Predicate;
 import com.google.common.base.Predicates;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.Multimap;
 import com.google.common.collect.SetMultimap;
 import com.google.common.collect.Sets;
 import java.io.PrintStream;
@@ -33,6 +35,7 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
@@ -41,12 +44,16 @@ import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.cpachecker.cfa.CFA;
 import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
 import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
 import org.sosy_lab.cpachecker.core.counterexample.CFAPathWithAssumptions;
 import org.sosy_lab.cpachecker.core.defaults.precision.VariableTrackingPrecision;
 import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.interfaces.Refiner;
+import org.sosy_lab.cpachecker.core.reachedset.AnalysisInformationExchange;
+import org.sosy_lab.cpachecker.core.reachedset.AnalysisInformationExchange.Subscription;
+import org.sosy_lab.cpachecker.core.reachedset.AnalysisInformationExchange.Topic;
 import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
 import org.sosy_lab.cpachecker.cpa.arg.ARGBasedRefiner;
 import org.sosy_lab.cpachecker.cpa.arg.ARGReachedSet;
@@ -128,6 +135,15 @@ public class ValueAnalysisRefiner
   // Statistics
   private final StatCounter rootRelocations = new StatCounter("Number of root relocations");
   private final StatCounter repeatedRefinements = new StatCounter("Number of similar, repeated refinements");
+  private final StatCounter receivedIncrements =
+      new StatCounter("Number of precision increments from parallel analyses");
+
+  /** Topic for exchanging precision increments with other value analyses running in parallel. */
+  private static final Topic<ImmutableSetMultimap<CFANode, MemoryLocation>>
+      EXCHANGED_INCREMENTS = new Topic<>("value-analysis precision increments");
+
+  private @Nullable Subscription<ImmutableSetMultimap<CFANode, MemoryLocation>>
+      incrementExchange = null;
 
   public static Refiner create(final ConfigurableProgramAnalysis pCpa)
       throws InvalidConfigurationException {
@@ -155,14 +171,18 @@ public class ValueAnalysisRefiner
         new ValueAnalysisPrefixProvider(
             logger, cfa, config, valueAnalysisCpa.getShutdownNotifier());
 
-    return new ValueAnalysisRefiner(checker,
-        strongestPostOp,
-        new PathExtractor(logger, config),
-        prefixProvider,
-        config,
-        logger,
-        valueAnalysisCpa.getShutdownNotifier(),
-        cfa);
+    ValueAnalysisRefiner refiner =
+        new ValueAnalysisRefiner(
+            checker,
+            strongestPostOp,
+            new PathExtractor(logger, config),
+            prefixProvider,
+            config,
+            logger,
+            valueAnalysisCpa.getShutdownNotifier(),
+            cfa);
+    refiner.setInformationExchange(valueAnalysisCpa.getInformationExchange());
+    return refiner;
   }
 
   ValueAnalysisRefiner(
@@ -191,6 +211,16 @@ public class ValueAnalysisRefiner
     shutdownNotifier = pShutdownNotifier;
   }
 
+  /**
+   * Exchange the precision increments found during refinement with other analyses running in
+   * parallel, if the given exchange is enabled.
+   */
+  final void setInformationExchange(AnalysisInformationExchange pInformationExchange) {
+    if (pInformationExchange.isEnabled()) {
+      incrementExchange = pInformationExchange.subscribe(EXCHANGED_INCREMENTS);
+    }
+  }
+
   @Override
   protected void refineUsingInterpolants(
       final ARGReachedSet pReached,
@@ -201,6 +231,7 @@ public class ValueAnalysisRefiner
 
     Map<ARGState, List<Precision>> refinementInformation = new LinkedHashMap<>();
     Collection<ARGState> refinementRoots = pInterpolationTree.obtainRefinementRoots(restartStrategy);
+    Multimap<CFANode, MemoryLocation> receivedIncrement = pollReceivedIncrements();
 
     for (ARGState root : refinementRoots) {
       shutdownNotifier.shutdownIfNecessary();
@@ -232,8 +263,16 @@ public class ValueAnalysisRefiner
       }
 
       // merge the value precisions of the subtree, and refine it
-      precisions.add(
-          basePrecision.withIncrement(pInterpolationTree.extractPrecisionIncrement(root)));
+      Multimap<CFANode, MemoryLocation> increment =
+          pInterpolationTree.extractPrecisionIncrement(root);
+      if (incrementExchange != null) {
+        incrementExchange.publish(ImmutableSetMultimap.copyOf(increment));
+      }
+      VariableTrackingPrecision refinedPrecision = basePrecision.withIncrement(increment);
+      if (!receivedIncrement.isEmpty()) {
+        refinedPrecision = refinedPrecision.withIncrement(receivedIncrement);
+      }
+      precisions.add(refinedPrecision);
 
       // merge the predicate precisions of the subtree, if available
       if (predicatePrecisionIsAvailable) {
@@ -256,6 +295,19 @@ public class ValueAnalysisRefiner
     }
   }
 
+  /** Collect all precision increments that other analyses found since the last refinement. */
+  private Multimap<CFANode, MemoryLocation> pollReceivedIncrements() {
+    if (incrementExchange == null) {
+      return ImmutableSetMultimap.of();
+    }
+    SetMultimap<CFANode, MemoryLocation> result = LinkedHashMultimap.create();
+    for (ImmutableSetMultimap<CFANode, MemoryLocation> increment : incrementExchange.poll()) {
+      result.putAll(increment);
+      receivedIncrements.inc();
+    }
+    return result;
+  }
+
   private boolean isPredicatePrecisionAvailable(final UnmodifiableReachedSet pReached) {
     return Precisions.extractPrecisionByType(
             pReached.getPrecision(pReached.getFirstState()), PredicatePrecision.class)
@@ -430,6 +482,8 @@ public class ValueAnalysisRefiner
 
     writer.put(rootRelocations)
         .put(repeatedRefinements)
-        .put("Number of unique precision increments", previousRefinementIds.size());
+        .put("Number of unique precision increments", previousRefinementIds.size())
+        .ifTrue(incrementExchange != null)
+        .put(receivedIncrements);
   }
 }
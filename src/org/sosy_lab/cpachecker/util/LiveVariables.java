@@ -30,6 +30,10 @@ import com.google.common.collect.Multimap;
 import com.google.common.collect.Multimaps;
 import com.google.common.collect.SortedSetMultimap;
 import com.google.common.collect.TreeMultimap;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -78,7 +82,9 @@ import org.sosy_lab.cpachecker.util.resources.ResourceLimitChecker;
 import org.sosy_lab.cpachecker.util.resources.WalltimeLimit;
 import org.sosy_lab.cpachecker.util.variableclassification.VariableClassification;
 
-public class LiveVariables {
+public class LiveVariables implements Serializable {
+
+  private static final long serialVersionUID = -4310725371626382957L;
 
   public enum EvaluationStrategy {
     FUNCTION_WISE, GLOBAL
@@ -149,8 +155,14 @@ public class LiveVariables {
    */
   private static class AllVariablesAsLiveVariables extends LiveVariables {
 
+    private static final long serialVersionUID = 3513493226186236415L;
+
     private final ImmutableSet<ASimpleDeclaration> allVariables;
 
+    private AllVariablesAsLiveVariables(ImmutableSet<ASimpleDeclaration> pAllVariables) {
+      allVariables = checkNotNull(pAllVariables);
+    }
+
     private AllVariablesAsLiveVariables(CFA cfa, List<Pair<ADeclaration, String>> globalsList) {
       checkNotNull(cfa);
       checkNotNull(globalsList);
@@ -199,6 +211,29 @@ public class LiveVariables {
     public Set<ASimpleDeclaration> getAllLiveVariables() {
       return allVariables;
     }
+
+    private Object writeReplace() {
+      return new AllVariablesSerializationProxy(allVariables);
+    }
+
+    @SuppressWarnings("UnusedVariable") // parameter is required by API
+    private void readObject(ObjectInputStream in) throws IOException {
+      throw new InvalidObjectException("Proxy required");
+    }
+  }
+
+  private static class AllVariablesSerializationProxy implements Serializable {
+
+    private static final long serialVersionUID = -1827407934620531563L;
+    private final ImmutableSet<ASimpleDeclaration> allVariables;
+
+    private AllVariablesSerializationProxy(ImmutableSet<ASimpleDeclaration> pAllVariables) {
+      allVariables = pAllVariables;
+    }
+
+    private Object readResolve() {
+      return new AllVariablesAsLiveVariables(allVariables);
+    }
   }
 
   /**
@@ -257,6 +292,50 @@ public class LiveVariables {
     liveVariablesStrings = ImmutableSetMultimap.copyOf(Multimaps.transformValues(liveVariables, FROM_EQUIV_WRAPPER_TO_STRING));
   }
 
+  /*
+   * The equivalence wrappers are not serializable (LIVE_DECL_EQUIVALENCE is not), so we store
+   * the plain declarations and wrap them again when reading.
+   */
+  private Object writeReplace() {
+    return new SerializationProxy(this);
+  }
+
+  @SuppressWarnings("UnusedVariable") // parameter is required by API
+  private void readObject(ObjectInputStream in) throws IOException {
+    throw new InvalidObjectException("Proxy required");
+  }
+
+  private static class SerializationProxy implements Serializable {
+
+    private static final long serialVersionUID = 6307591209622960126L;
+    private final ImmutableSetMultimap<CFANode, ASimpleDeclaration> liveVariables;
+    private final ImmutableList<ASimpleDeclaration> globalVariables;
+    private final VariableClassification variableClassification;
+    private final EvaluationStrategy evaluationStrategy;
+    private final Language language;
+
+    private SerializationProxy(LiveVariables pLiveVariables) {
+      liveVariables =
+          ImmutableSetMultimap.copyOf(
+              Multimaps.transformValues(pLiveVariables.liveVariables, FROM_EQUIV_WRAPPER));
+      globalVariables =
+          ImmutableList.copyOf(
+              Collections2.transform(pLiveVariables.globalVariables, FROM_EQUIV_WRAPPER));
+      variableClassification = pLiveVariables.variableClassification;
+      evaluationStrategy = pLiveVariables.evaluationStrategy;
+      language = pLiveVariables.language;
+    }
+
+    private Object readResolve() {
+      return new LiveVariables(
+          Multimaps.transformValues(liveVariables, TO_EQUIV_WRAPPER),
+          variableClassification,
+          ImmutableSet.copyOf(Collections2.transform(globalVariables, TO_EQUIV_WRAPPER)),
+          evaluationStrategy,
+          language);
+    }
+  }
+
   public boolean isVariableLive(ASimpleDeclaration variable, CFANode location) {
     String varName = variable.getQualifiedName();
     final Wrapper<ASimpleDeclaration> wrappedDecl = LIVE_DECL_EQUIVALENCE.wrap(variable);
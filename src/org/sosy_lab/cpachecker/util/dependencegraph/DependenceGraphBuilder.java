@@ -11,6 +11,7 @@ package org.sosy_lab.cpachecker.util.dependencegraph;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.base.Predicate;
+import com.google.common.base.Throwables;
 import com.google.common.collect.ForwardingTable;
 import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.ImmutableList;
@@ -18,6 +19,8 @@ import com.google.common.collect.Iterables;
 import com.google.common.collect.Iterators;
 import com.google.common.collect.Table;
 import com.google.common.collect.Table.Cell;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.io.Writer;
@@ -35,11 +38,18 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
+import org.sosy_lab.common.Classes.UnexpectedCheckedException;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.ConfigurationBuilder;
 import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -84,6 +94,7 @@ import org.sosy_lab.cpachecker.util.AbstractStates;
 import org.sosy_lab.cpachecker.util.CFATraversal;
 import org.sosy_lab.cpachecker.util.CFATraversal.EdgeCollectingCFAVisitor;
 import org.sosy_lab.cpachecker.util.CFAUtils;
+import org.sosy_lab.cpachecker.util.Triple;
 import org.sosy_lab.cpachecker.util.dependencegraph.DGNode.EdgeNode;
 import org.sosy_lab.cpachecker.util.dependencegraph.DGNode.UnknownPointerNode;
 import org.sosy_lab.cpachecker.util.dependencegraph.DependenceGraph.DependenceType;
@@ -138,6 +149,15 @@ public class DependenceGraphBuilder implements StatisticsProvider {
       description = "Whether to consider (data-)flow dependencies.")
   private boolean considerFlowDeps = true;
 
+  @Option(
+      secure = true,
+      name = "flowdeps.threads",
+      description =
+          "Number of threads for computing the flow dependences of different functions"
+              + " in parallel.")
+  @IntegerOption(min = 1)
+  private int flowDependenceThreads = 1;
+
   public DependenceGraphBuilder(
       final MutableCFA pCfa,
       final Optional<VariableClassification> pVarClassification,
@@ -345,13 +365,31 @@ public class DependenceGraphBuilder implements StatisticsProvider {
       }
     }
 
-    for (FunctionEntryNode entryNode : cfa.getAllFunctionHeads()) {
+    // The analyses of different functions are independent of each other and only read the shared
+    // data, so they can run in parallel. The dependences are added to the graph afterwards in the
+    // main thread, in the same order as with a sequential computation.
+    List<FunctionEntryNode> entryNodes = ImmutableList.copyOf(cfa.getAllFunctionHeads());
+    List<Callable<List<Triple<CFAEdge, CFAEdge, MemoryLocation>>>> analyses =
+        new ArrayList<>(entryNodes.size());
+    for (FunctionEntryNode entryNode : entryNodes) {
+      boolean isMain = entryNode.equals(cfa.getMainFunction());
+      analyses.add(
+          () -> {
+            shutdownNotifier.shutdownIfNecessary();
+            return computeFlowDependences(
+                entryNode,
+                isMain ? ImmutableList.of() : globalEdges,
+                pointerState,
+                foreignDefUseData,
+                declarationEdges);
+          });
+    }
+    List<List<Triple<CFAEdge, CFAEdge, MemoryLocation>>> functionDependences =
+        runFlowDepAnalyses(analyses);
 
-      // TODO: use more reasonable counter
-      var flowDepCount =
-          new Object() {
-            int value = 0;
-          };
+    for (int i = 0; i < entryNodes.size(); i++) {
+      FunctionEntryNode entryNode = entryNodes.get(i);
+      int flowDepCount = 0;
 
       CFAEdge funcDeclEdge = declarationEdges.get(entryNode.getFunctionName());
       for (CFAEdge callEdge : CFAUtils.enteringEdges(entryNode)) {
@@ -359,50 +397,103 @@ public class DependenceGraphBuilder implements StatisticsProvider {
             getDGNode(funcDeclEdge, Optional.empty()),
             getDGNode(callEdge, Optional.empty()),
             DependenceType.FLOW);
-        flowDepCount.value++;
+        flowDepCount++;
       }
 
-      DomTree<CFANode> domTree =
-          Dominance.createDomTree(
-              entryNode,
-              DependenceGraphBuilder::iterateSuccessors,
-              DependenceGraphBuilder::iteratePredecessors);
+      for (Triple<CFAEdge, CFAEdge, MemoryLocation> dependence : functionDependences.get(i)) {
+        addFlowDependence(dependence.getFirst(), dependence.getSecond(), dependence.getThird());
+        flowDepCount++;
+      }
+
+      flowDependenceNumber.setNextValue(flowDepCount);
+    }
+  }
 
-      DependenceConsumer dependenceConsumer =
-          (defEdge, useEdge, cause) -> {
-            Optional<MemoryLocation> defEdgeCause = Optional.empty();
-            Optional<MemoryLocation> useEdgeCause = Optional.empty();
+  /**
+   * Computes the flow dependences of a single function. Does not modify the dependence graph, so
+   * this method can be called concurrently for different functions.
+   *
+   * @return the list of flow dependences as triples of def edge, use edge, and cause.
+   */
+  private static List<Triple<CFAEdge, CFAEdge, MemoryLocation>> computeFlowDependences(
+      FunctionEntryNode pEntryNode,
+      List<CFAEdge> pGlobalEdges,
+      GlobalPointerState pPointerState,
+      ForeignDefUseData pForeignDefUseData,
+      Map<String, CFAEdge> pDeclarationEdges) {
+
+    DomTree<CFANode> domTree =
+        Dominance.createDomTree(
+            pEntryNode,
+            DependenceGraphBuilder::iterateSuccessors,
+            DependenceGraphBuilder::iteratePredecessors);
+
+    List<Triple<CFAEdge, CFAEdge, MemoryLocation>> dependences = new ArrayList<>();
+    DependenceConsumer dependenceConsumer =
+        (defEdge, useEdge, cause) -> dependences.add(Triple.of(defEdge, useEdge, cause));
+
+    new FlowDepAnalysis(
+            domTree,
+            Dominance.createDomFrontiers(domTree),
+            pEntryNode,
+            pGlobalEdges,
+            pPointerState,
+            pForeignDefUseData,
+            pDeclarationEdges,
+            dependenceConsumer)
+        .run();
+
+    return dependences;
+  }
 
-            if (defEdge instanceof CFunctionCallEdge || defEdge instanceof CFunctionReturnEdge) {
-              defEdgeCause = Optional.of(cause);
-            }
+  /**
+   * Runs the given flow dependence analyses, in parallel if more than one thread is configured,
+   * and returns their results in the order of the analyses.
+   */
+  private <T> List<T> runFlowDepAnalyses(List<Callable<T>> pAnalyses)
+      throws InterruptedException {
+
+    ExecutorService executor =
+        flowDependenceThreads > 1
+            ? Executors.newFixedThreadPool(
+                flowDependenceThreads,
+                new ThreadFactoryBuilder()
+                    .setDaemon(true)
+                    .setNameFormat("DG-flowdep-thread-%d")
+                    .build())
+            : MoreExecutors.newDirectExecutorService();
+    try {
+      List<T> results = new ArrayList<>(pAnalyses.size());
+      for (Future<T> future : executor.invokeAll(pAnalyses)) {
+        try {
+          results.add(future.get());
+        } catch (ExecutionException e) {
+          Throwable cause = e.getCause();
+          Throwables.propagateIfPossible(cause, InterruptedException.class);
+          throw new UnexpectedCheckedException("flow dependence computation", cause);
+        }
+      }
+      return results;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
 
-            if (useEdge instanceof CFunctionCallEdge || useEdge instanceof CFunctionReturnEdge) {
-              useEdgeCause = Optional.of(cause);
-            }
+  private void addFlowDependence(CFAEdge pDefEdge, CFAEdge pUseEdge, MemoryLocation pCause) {
 
-            addDependence(
-                getDGNode(defEdge, defEdgeCause),
-                getDGNode(useEdge, useEdgeCause),
-                DependenceType.FLOW);
-            flowDepCount.value++;
-          };
+    Optional<MemoryLocation> defEdgeCause = Optional.empty();
+    Optional<MemoryLocation> useEdgeCause = Optional.empty();
 
-      boolean isMain = entryNode.equals(cfa.getMainFunction());
+    if (pDefEdge instanceof CFunctionCallEdge || pDefEdge instanceof CFunctionReturnEdge) {
+      defEdgeCause = Optional.of(pCause);
+    }
 
-      new FlowDepAnalysis(
-              domTree,
-              Dominance.createDomFrontiers(domTree),
-              entryNode,
-              isMain ? ImmutableList.of() : globalEdges,
-              pointerState,
-              foreignDefUseData,
-              declarationEdges,
-              dependenceConsumer)
-          .run();
-
-      flowDependenceNumber.setNextValue(flowDepCount.value);
+    if (pUseEdge instanceof CFunctionCallEdge || pUseEdge instanceof CFunctionReturnEdge) {
+      useEdgeCause = Optional.of(pCause);
     }
+
+    addDependence(
+        getDGNode(pDefEdge, defEdgeCause), getDGNode(pUseEdge, useEdgeCause), DependenceType.FLOW);
   }
 
   private void addControlDependences() {
@@ -0,0 +1,88 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.dependencegraph;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.TreeMultimap;
+import java.util.Optional;
+import java.util.TreeMap;
+import org.junit.Test;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.MutableCFA;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.util.dependencegraph.DependenceGraph.DependenceType;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+
+public class DependenceGraphBuilderTest {
+
+  private static final String[] PROGRAM = {
+    "int g;",
+    "int inc(int x) { return x + 1; }",
+    "void set(int *p, int v) { *p = v; }",
+    "int twice(int x) { int y = inc(x); return inc(y); }",
+    "int main() {",
+    "  int a = 1;",
+    "  int b;",
+    "  set(&b, a);",
+    "  g = twice(b);",
+    "  while (g > 2) {",
+    "    a = inc(a);",
+    "    g = g - a;",
+    "  }",
+    "  return a;",
+    "}"
+  };
+
+  private static MutableCFA toMutableCFA(CFA pCfa) {
+    TreeMultimap<String, CFANode> nodes = TreeMultimap.create();
+    for (CFANode node : pCfa.getAllNodes()) {
+      nodes.put(node.getFunctionName(), node);
+    }
+    return new MutableCFA(
+        pCfa.getMachineModel(),
+        new TreeMap<>(pCfa.getAllFunctions()),
+        nodes,
+        pCfa.getMainFunction(),
+        pCfa.getFileNames(),
+        pCfa.getLanguage());
+  }
+
+  private static DependenceGraph buildFlowDependences(MutableCFA pCfa, int pThreads)
+      throws Exception {
+    Configuration config =
+        TestDataTools.configurationForTest()
+            .setOption("dependencegraph.controldeps.use", "false")
+            .setOption("dependencegraph.flowdeps.threads", Integer.toString(pThreads))
+            .build();
+    return DependenceGraph.builder(
+            pCfa,
+            Optional.empty(),
+            config,
+            LogManager.createTestLogManager(),
+            ShutdownNotifier.createDummy())
+        .build();
+  }
+
+  @Test
+  public void parallelFlowDependences() throws Exception {
+    // both graphs have to be built for the same CFA, otherwise their nodes differ
+    MutableCFA cfa = toMutableCFA(TestDataTools.makeCFA(PROGRAM));
+
+    DependenceGraph sequential = buildFlowDependences(cfa, 1);
+    DependenceGraph parallel = buildFlowDependences(cfa, 3);
+
+    assertThat(sequential.getMatrix().values()).contains(DependenceType.FLOW);
+    assertThat(parallel.getMatrix()).isEqualTo(sequential.getMatrix());
+    assertThat(parallel).isEqualTo(sequential);
+  }
+}
@@ -11,6 +11,7 @@ package org.sosy_lab.cpachecker.util.dependencegraph;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
@@ -744,8 +745,11 @@ final class Dominance {
 
       Objects.requireNonNull(pNodes, "pNodes must not be null");
 
+      // node ids are compact, so bit sets are used instead of sets of boxed integers
       Set<T> frontier = new HashSet<>();
-      Set<Integer> seen = new HashSet<>(); // a node is in seen if it is or has been in the waitlist
+      BitSet inFrontier = new BitSet(nodes.length);
+      // a node is in seen if it is or has been in the waitlist
+      BitSet seen = new BitSet(nodes.length);
       Deque<Integer> waitlist = new ArrayDeque<>();
 
       for (T node : pNodes) {
@@ -758,7 +762,7 @@ final class Dominance {
         }
 
         waitlist.add(id);
-        seen.add(id);
+        seen.set(id);
       }
 
       while (!waitlist.isEmpty()) {
@@ -766,8 +770,11 @@ final class Dominance {
         int removed = waitlist.remove();
 
         for (int id : frontiers[removed].getSet()) {
-          if (frontier.add(nodes[id])) {
-            if (seen.add(id)) { // if not previously seen -> add to waitlist
+          if (!inFrontier.get(id)) {
+            inFrontier.set(id);
+            frontier.add(nodes[id]);
+            if (!seen.get(id)) { // if not previously seen -> add to waitlist
+              seen.set(id);
               waitlist.add(id);
             }
           }
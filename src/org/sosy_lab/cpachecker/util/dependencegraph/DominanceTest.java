@@ -0,0 +1,105 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.dependencegraph;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+
+public class DominanceTest {
+
+  private static Dominance.DomFrontiers<Integer> createDomFrontiers(
+      ImmutableSetMultimap<Integer, Integer> pEdges, int pStartNode) {
+    ImmutableSetMultimap<Integer, Integer> predecessors = pEdges.inverse();
+    Dominance.DomTree<Integer> domTree =
+        Dominance.createDomTree(pStartNode, pEdges::get, predecessors::get);
+    return Dominance.createDomFrontiers(domTree);
+  }
+
+  /** Graph with a loop 2 -> {3, 4} -> 5 -> 2 and the exit 5 -> 6. */
+  private static final ImmutableSetMultimap<Integer, Integer> LOOP_GRAPH =
+      ImmutableSetMultimap.<Integer, Integer>builder()
+          .put(1, 2)
+          .put(2, 3)
+          .put(2, 4)
+          .put(3, 5)
+          .put(4, 5)
+          .put(5, 2)
+          .put(5, 6)
+          .build();
+
+  @Test
+  public void frontiers() {
+    Dominance.DomFrontiers<Integer> frontiers = createDomFrontiers(LOOP_GRAPH, 1);
+
+    assertThat(frontiers.getFrontier(1)).isEmpty();
+    assertThat(frontiers.getFrontier(2)).containsExactly(2);
+    assertThat(frontiers.getFrontier(3)).containsExactly(5);
+    assertThat(frontiers.getFrontier(4)).containsExactly(5);
+    assertThat(frontiers.getFrontier(5)).containsExactly(2);
+    assertThat(frontiers.getFrontier(6)).isEmpty();
+  }
+
+  @Test
+  public void iteratedFrontiers() {
+    Dominance.DomFrontiers<Integer> frontiers = createDomFrontiers(LOOP_GRAPH, 1);
+
+    assertThat(frontiers.getIteratedFrontier(ImmutableSet.of())).isEmpty();
+    assertThat(frontiers.getIteratedFrontier(ImmutableSet.of(1))).isEmpty();
+    assertThat(frontiers.getIteratedFrontier(ImmutableSet.of(3))).containsExactly(2, 5);
+    assertThat(frontiers.getIteratedFrontier(ImmutableSet.of(3, 4))).containsExactly(2, 5);
+    assertThat(frontiers.getIteratedFrontier(ImmutableSet.of(6))).isEmpty();
+    // nodes of the given set are only contained if they are in the frontier of some node
+    assertThat(frontiers.getIteratedFrontier(ImmutableSet.of(5))).containsExactly(2);
+    assertThat(frontiers.getIteratedFrontier(ImmutableSet.of(2, 5))).containsExactly(2);
+  }
+
+  /** Compute the iterated frontier as the fixpoint of the frontiers of the given nodes. */
+  private static Set<Integer> getIteratedFrontierFixpoint(
+      Dominance.DomFrontiers<Integer> pFrontiers, Set<Integer> pNodes) {
+    Set<Integer> iteratedFrontier = new HashSet<>();
+    for (Integer node : pNodes) {
+      iteratedFrontier.addAll(pFrontiers.getFrontier(node));
+    }
+    boolean changed = true;
+    while (changed) {
+      changed = false;
+      for (Integer node : ImmutableSet.copyOf(iteratedFrontier)) {
+        changed |= iteratedFrontier.addAll(pFrontiers.getFrontier(node));
+      }
+    }
+    return iteratedFrontier;
+  }
+
+  @Test
+  public void iteratedFrontiersOfRandomGraph() {
+    final int nodeCount = 100;
+    Random random = new Random(0);
+    ImmutableSetMultimap.Builder<Integer, Integer> edges = ImmutableSetMultimap.builder();
+    for (int node = 0; node < nodeCount - 1; node++) {
+      // the chain makes all nodes reachable, the additional edges create branches and loops
+      edges.put(node, node + 1);
+      if (random.nextInt(3) == 0) {
+        edges.put(node, random.nextInt(nodeCount));
+      }
+    }
+    Dominance.DomFrontiers<Integer> frontiers = createDomFrontiers(edges.build(), 0);
+
+    for (int node = 0; node < nodeCount; node++) {
+      Set<Integer> nodes = ImmutableSet.of(node, random.nextInt(nodeCount));
+      assertThat(frontiers.getIteratedFrontier(nodes))
+          .containsExactlyElementsIn(getIteratedFrontierFixpoint(frontiers, nodes));
+    }
+  }
+}
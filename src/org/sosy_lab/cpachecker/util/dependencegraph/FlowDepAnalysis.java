@@ -15,6 +15,7 @@ import com.google.common.collect.Iterators;
 import com.google.common.collect.Multimap;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -54,6 +55,12 @@ final class FlowDepAnalysis extends ReachDefAnalysis<MemoryLocation, CFANode, CF
   private final Multimap<CFAEdge, ReachDefAnalysis.Def<MemoryLocation, CFAEdge>> dependences;
   private final Multimap<CFAEdge, MemoryLocation> maybeDefs;
 
+  // defs and uses are requested many times for every edge during the traversal,
+  // so they are only computed once per edge
+  private final Map<CFAEdge, EdgeDefUseData> edgeDefUseData;
+  private final Map<CFAEdge, ImmutableSet<MemoryLocation>> edgeDefs;
+  private final Map<CFAEdge, ImmutableSet<MemoryLocation>> edgeUses;
+
   FlowDepAnalysis(
       Dominance.DomTree<CFANode> pDomTree,
       Dominance.DomFrontiers<CFANode> pDomFrontiers,
@@ -77,6 +84,14 @@ final class FlowDepAnalysis extends ReachDefAnalysis<MemoryLocation, CFANode, CF
 
     dependences = ArrayListMultimap.create();
     maybeDefs = HashMultimap.create();
+
+    edgeDefUseData = new HashMap<>();
+    edgeDefs = new HashMap<>();
+    edgeUses = new HashMap<>();
+  }
+
+  private EdgeDefUseData getEdgeDefUseData(CFAEdge pEdge) {
+    return edgeDefUseData.computeIfAbsent(pEdge, EdgeDefUseData::extract);
   }
 
   private CFunctionCallEdge getFunctionCallEdge(CFunctionSummaryEdge pSummaryEdge) {
@@ -110,7 +125,7 @@ final class FlowDepAnalysis extends ReachDefAnalysis<MemoryLocation, CFANode, CF
 
     AFunctionDeclaration function = pSummaryEdge.getFunctionEntry().getFunction();
     CFunctionCallEdge callEdge = getFunctionCallEdge(pSummaryEdge);
-    EdgeDefUseData edgeDefUseData = EdgeDefUseData.extract(callEdge);
+    EdgeDefUseData edgeDefUseData = getEdgeDefUseData(callEdge);
 
     defs.addAll(edgeDefUseData.getDefs());
     defs.addAll(foreignDefUseData.getForeignDefs(function));
@@ -137,7 +152,7 @@ final class FlowDepAnalysis extends ReachDefAnalysis<MemoryLocation, CFANode, CF
 
     AFunctionDeclaration function = pSummaryEdge.getFunctionEntry().getFunction();
     CFunctionCallEdge callEdge = getFunctionCallEdge(pSummaryEdge);
-    EdgeDefUseData edgeDefUseData = EdgeDefUseData.extract(callEdge);
+    EdgeDefUseData edgeDefUseData = getEdgeDefUseData(callEdge);
 
     uses.addAll(edgeDefUseData.getUses());
     uses.addAll(foreignDefUseData.getForeignUses(function));
@@ -155,7 +170,7 @@ final class FlowDepAnalysis extends ReachDefAnalysis<MemoryLocation, CFANode, CF
   private Set<MemoryLocation> getOtherEdgeDefs(CFAEdge pEdge) {
 
     Set<MemoryLocation> defs = new HashSet<>();
-    EdgeDefUseData edgeDefUseData = EdgeDefUseData.extract(pEdge);
+    EdgeDefUseData edgeDefUseData = getEdgeDefUseData(pEdge);
 
     defs.addAll(edgeDefUseData.getDefs());
 
@@ -176,7 +191,7 @@ final class FlowDepAnalysis extends ReachDefAnalysis<MemoryLocation, CFANode, CF
   private Set<MemoryLocation> getOtherEdgeUses(CFAEdge pEdge) {
 
     Set<MemoryLocation> uses = new HashSet<>();
-    EdgeDefUseData edgeDefUseData = EdgeDefUseData.extract(pEdge);
+    EdgeDefUseData edgeDefUseData = getEdgeDefUseData(pEdge);
 
     uses.addAll(edgeDefUseData.getUses());
 
@@ -193,6 +208,17 @@ final class FlowDepAnalysis extends ReachDefAnalysis<MemoryLocation, CFANode, CF
   @Override
   protected Set<MemoryLocation> getEdgeDefs(CFAEdge pEdge) {
 
+    ImmutableSet<MemoryLocation> defs = edgeDefs.get(pEdge);
+    if (defs == null) {
+      defs = ImmutableSet.copyOf(computeEdgeDefs(pEdge));
+      edgeDefs.put(pEdge, defs);
+    }
+
+    return defs;
+  }
+
+  private Set<MemoryLocation> computeEdgeDefs(CFAEdge pEdge) {
+
     if (pEdge instanceof CFunctionCallEdge) {
       return getCallEdgeDefs((CFunctionCallEdge) pEdge);
     } else if (pEdge instanceof CFunctionSummaryEdge) {
@@ -204,6 +230,17 @@ final class FlowDepAnalysis extends ReachDefAnalysis<MemoryLocation, CFANode, CF
 
   private Set<MemoryLocation> getEdgeUses(CFAEdge pEdge) {
 
+    ImmutableSet<MemoryLocation> uses = edgeUses.get(pEdge);
+    if (uses == null) {
+      uses = ImmutableSet.copyOf(computeEdgeUses(pEdge));
+      edgeUses.put(pEdge, uses);
+    }
+
+    return uses;
+  }
+
+  private Set<MemoryLocation> computeEdgeUses(CFAEdge pEdge) {
+
     if (pEdge instanceof CFunctionCallEdge) {
       return ImmutableSet.of();
     } else if (pEdge instanceof CFunctionSummaryEdge) {
@@ -227,7 +264,7 @@ final class FlowDepAnalysis extends ReachDefAnalysis<MemoryLocation, CFANode, CF
 
         CFAEdge edge = optEdge.orElseThrow();
         if (!maybeDefs.get(edge).contains(pVariable)
-            && !EdgeDefUseData.extract(edge).hasPartialDefs()) {
+            && !getEdgeDefUseData(edge).hasPartialDefs()) {
           break;
         }
 
@@ -8,15 +8,29 @@
 
 package org.sosy_lab.cpachecker.util.predicates.bdd;
 
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.FileOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.configuration.TimeSpanOption;
+import org.sosy_lab.common.io.IO;
 import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.TimeSpan;
 import org.sosy_lab.cpachecker.util.predicates.regions.CountingRegionManager;
+import org.sosy_lab.cpachecker.util.predicates.regions.RecordingRegionManager;
 import org.sosy_lab.cpachecker.util.predicates.regions.RegionManager;
 import org.sosy_lab.cpachecker.util.predicates.regions.SynchronizedRegionManager;
 import org.sosy_lab.cpachecker.util.predicates.regions.TimedRegionManager;
+import org.sosy_lab.java_smt.api.SolverException;
 
 /**
  * Factory for creating a RegionManager for one of the available BDD packages
@@ -37,13 +51,20 @@ public class BDDManagerFactory {
               + "\n- buddy:  Buddy (native library required)"
               + "\n- cal:    CAL (native library required)"
               + "\n- jdd:    JDD"
-              + "\n- pjbdd:  A java native parallel bdd framework",
-      values = {"JAVA", "SYLVAN", "CUDD", "MICRO", "BUDDY", "CAL", "JDD", "PJBDD"},
+              + "\n- pjbdd:  A java native parallel bdd framework"
+              + "\n- auto:   Benchmark the packages from bdd.auto.candidates at startup"
+              + " and use the fastest one",
+      values = {"JAVA", "SYLVAN", "CUDD", "MICRO", "BUDDY", "CAL", "JDD", "PJBDD", "AUTO"},
       toUppercase = true)
   // documentation of the packages can be found at source of BDDFactory.init()
   private String bddPackage = "JAVA";
 
-  @Option(secure = true, description = "sequentialize all accesses to the BDD library.")
+  @Option(
+      secure = true,
+      description =
+          "sequentialize all accesses to the BDD library. "
+              + "This is not necessary for PJBDD, which supports concurrent accesses, "
+              + "unless bdd.measureLibraryAccess is enabled.")
   private boolean synchronizeLibraryAccess = false;
 
   @Option(
@@ -59,6 +80,47 @@ public class BDDManagerFactory {
           "Count accesses for the BDD library. " + "Counting works for concurrent accesses.")
   private boolean countLibraryAccess = false;
 
+  @Option(
+      secure = true,
+      name = "recordOperations",
+      description =
+          "Write all operations on BDDs to this file, such that they can be replayed later "
+              + "for benchmarking BDD packages (cf. bdd.auto.benchmarkFile). "
+              + "This keeps all BDDs alive and is slow, use only for creating benchmarks.")
+  @FileOption(FileOption.Type.OUTPUT_FILE)
+  private @Nullable Path recordOperationsFile = null;
+
+  @Option(
+      secure = true,
+      name = "auto.candidates",
+      description =
+          "BDD packages that are compared if bdd.package=AUTO. "
+              + "Only packages that are implemented in Java are supported, "
+              + "because native packages can not be instantiated several times.")
+  private List<String> autoCandidates = ImmutableList.of("JAVA", "PJBDD", "JDD");
+
+  @Option(
+      secure = true,
+      name = "auto.benchmarkFile",
+      description =
+          "Operations that are replayed for comparing BDD packages if bdd.package=AUTO, "
+              + "as written with bdd.recordOperations. "
+              + "If not given, a synthetic workload similar to predicate abstraction is used.")
+  @FileOption(FileOption.Type.OPTIONAL_INPUT_FILE)
+  private @Nullable Path autoBenchmarkFile = null;
+
+  @Option(
+      secure = true,
+      name = "auto.timeLimit",
+      description =
+          "Maximal time for benchmarking each BDD package if bdd.package=AUTO. "
+              + "Packages that do not finish the benchmark within this time are not chosen.")
+  @TimeSpanOption(codeUnit = TimeUnit.MILLISECONDS, defaultUserUnit = TimeUnit.SECONDS, min = 1)
+  private TimeSpan autoTimeLimit = TimeSpan.ofSeconds(5);
+
+  private static final ImmutableList<String> AUTO_SUPPORTED_PACKAGES =
+      ImmutableList.of("JAVA", "MICRO", "JDD", "PJBDD");
+
   private final Configuration config;
   private final LogManager logger;
 
@@ -67,16 +129,42 @@ public class BDDManagerFactory {
 
     config = pConfig;
     logger = pLogger;
+
+    if (bddPackage.equals("AUTO")) {
+      for (String candidate : autoCandidates) {
+        if (!AUTO_SUPPORTED_PACKAGES.contains(candidate)) {
+          throw new InvalidConfigurationException(
+              "BDD package "
+                  + candidate
+                  + " can not be chosen automatically, supported are "
+                  + AUTO_SUPPORTED_PACKAGES);
+        }
+      }
+      if (autoCandidates.isEmpty()) {
+        throw new InvalidConfigurationException("No candidates for choosing a BDD package given.");
+      }
+    }
   }
 
+  /**
+   * Create a new RegionManager according to the configuration. The caller is responsible for
+   * calling {@link RegionManager#shutdown()} once the analysis that uses it has finished, this
+   * releases worker threads of the BDD package and closes the file from bdd.recordOperations.
+   */
   public RegionManager createRegionManager() throws InvalidConfigurationException {
-    RegionManager rmgr;
-    if (bddPackage.equals("SYLVAN")) {
-      rmgr = new SylvanBDDRegionManager(config, logger);
-    } else if (bddPackage.equals("PJBDD")) {
-      rmgr = new PJBDDRegionManager(config);
-    } else {
-      rmgr = new JavaBDDRegionManager(bddPackage, config, logger);
+    if (bddPackage.equals("AUTO")) {
+      // choose only once, all region managers of one analysis should use the same package
+      bddPackage = choosePackage();
+    }
+    RegionManager rmgr = createRegionManager(bddPackage);
+    if (recordOperationsFile != null) {
+      try {
+        rmgr =
+            new RecordingRegionManager(
+                rmgr, IO.openOutputFile(recordOperationsFile, StandardCharsets.UTF_8));
+      } catch (IOException e) {
+        logger.logUserException(Level.WARNING, e, "Could not write BDD operations to file");
+      }
     }
     if (measureLibraryAccess) {
       rmgr = new TimedRegionManager(rmgr);
@@ -85,8 +173,71 @@ public class BDDManagerFactory {
       rmgr = new CountingRegionManager(rmgr);
     }
     if (synchronizeLibraryAccess) {
-      rmgr = new SynchronizedRegionManager(rmgr);
+      if (bddPackage.equals("PJBDD") && !measureLibraryAccess) {
+        // PJBDD is thread-safe, a global lock would only prevent concurrent operations
+        // (but the timers of TimedRegionManager are not thread-safe and need the lock)
+        logger.log(Level.FINE, "Not synchronizing accesses to thread-safe BDD package PJBDD");
+      } else {
+        rmgr = new SynchronizedRegionManager(rmgr);
+      }
     }
     return rmgr;
   }
+
+  private RegionManager createRegionManager(String pPackage) throws InvalidConfigurationException {
+    if (pPackage.equals("SYLVAN")) {
+      return new SylvanBDDRegionManager(config, logger);
+    } else if (pPackage.equals("PJBDD")) {
+      return new PJBDDRegionManager(config);
+    } else {
+      return new JavaBDDRegionManager(pPackage, config, logger);
+    }
+  }
+
+  /**
+   * Replay a benchmark of BDD operations on all candidate packages and return the fastest one.
+   * Regions can not be transferred between different packages, thus the package can only be
+   * chosen once before the analysis and not switched later on.
+   */
+  private String choosePackage() throws InvalidConfigurationException {
+    RegionOperationsBenchmark benchmark;
+    if (autoBenchmarkFile != null) {
+      try {
+        benchmark = RegionOperationsBenchmark.fromFile(autoBenchmarkFile);
+      } catch (IOException e) {
+        throw new InvalidConfigurationException(
+            "Could not read BDD benchmark file: " + e.getMessage(), e);
+      }
+    } else {
+      benchmark = RegionOperationsBenchmark.synthetic(64, 2000, 0);
+    }
+
+    String best = autoCandidates.get(0);
+    TimeSpan bestTime = null;
+    for (String candidate : autoCandidates) {
+      RegionOperationsBenchmark.Result result;
+      // this region manager is only used for the benchmark, so release its threads afterwards
+      RegionManager candidateManager = createRegionManager(candidate);
+      try {
+        result = benchmark.run(candidateManager, autoTimeLimit);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      } catch (SolverException | RuntimeException e) {
+        logger.logDebugException(e);
+        logger.log(Level.INFO, "BDD package", candidate, "failed on benchmark:", e.getMessage());
+        continue;
+      } finally {
+        candidateManager.shutdown();
+      }
+      logger.log(Level.INFO, "Benchmark of BDD package", candidate, "took", result);
+      if (result.isComplete()
+          && (bestTime == null || result.getTotalTime().compareTo(bestTime) < 0)) {
+        best = candidate;
+        bestTime = result.getTotalTime();
+      }
+    }
+    logger.log(Level.INFO, "Using BDD package", best);
+    return best;
+  }
 }
@@ -19,8 +19,12 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
 import java.util.function.Function;
 import java.util.stream.IntStream;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.IntegerOption;
@@ -46,17 +50,34 @@ import org.sosy_lab.pjbdd.creator.bdd.BDDBuilder;
 import org.sosy_lab.pjbdd.creator.bdd.Creator;
 import org.sosy_lab.pjbdd.node.BDD;
 
+/**
+ * RegionManager for PJBDD. PJBDD is thread-safe and parallelizes single operations internally,
+ * thus this region manager can be used concurrently from several threads without synchronization.
+ * Additionally, large conjunctions and disjunctions (e.g., when converting formulas or from a
+ * {@link RegionBuilder}) are computed by a balanced tree of operations whose independent parts are
+ * computed in parallel.
+ */
 public class PJBDDRegionManager implements RegionManager {
 
   private final Region trueFormula;
   private final Region falseFormula;
-  private Creator bddCreator;
+  private final Creator bddCreator;
+
+  // for combining many BDDs in parallel, null if disabled
+  private final @Nullable ForkJoinPool applyPool;
+  private final int parallelApplyThreshold;
 
   public PJBDDRegionManager(Configuration pConfig) throws InvalidConfigurationException {
     BuildFromConfig buildFromConfig = new BuildFromConfig(pConfig);
     bddCreator = buildFromConfig.makeCreator();
     trueFormula = wrap(bddCreator.makeTrue());
     falseFormula = wrap(bddCreator.makeFalse());
+    parallelApplyThreshold = buildFromConfig.parallelApplyThreshold;
+    if (buildFromConfig.threads > 1 && parallelApplyThreshold > 0) {
+      applyPool = new ForkJoinPool(buildFromConfig.threads);
+    } else {
+      applyPool = null;
+    }
   }
 
   @Override
@@ -97,6 +118,14 @@ public class PJBDDRegionManager implements RegionManager {
     // TODO    out.print(bddCreator.getCreatorStats().prettyPrint());
   }
 
+  @Override
+  public void shutdown() {
+    if (applyPool != null) {
+      applyPool.shutdownNow();
+    }
+    bddCreator.shutDown();
+  }
+
   @Override
   public String getVersion() {
     return bddCreator.getVersion();
@@ -166,6 +195,52 @@ public class PJBDDRegionManager implements RegionManager {
     return wrap(bddCreator.makeExists(unwrap(f1), bddF2));
   }
 
+  /**
+   * Combine all given BDDs with the given operation, which needs to be associative. If there are
+   * many BDDs, the operations are done as a balanced tree in parallel.
+   */
+  private BDD combine(List<BDD> pBDDs, BDD pNeutral, BinaryOperator<BDD> pOperation) {
+    if (pBDDs.isEmpty()) {
+      return pNeutral;
+    }
+    if (applyPool == null || pBDDs.size() < parallelApplyThreshold) {
+      BDD result = pBDDs.get(0);
+      for (BDD bdd : pBDDs.subList(1, pBDDs.size())) {
+        result = pOperation.apply(result, bdd);
+      }
+      return result;
+    }
+    return applyPool.invoke(new CombineTask(pBDDs, pOperation));
+  }
+
+  private static class CombineTask extends RecursiveTask<BDD> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<BDD> bdds;
+    private final BinaryOperator<BDD> operation;
+
+    private CombineTask(List<BDD> pBDDs, BinaryOperator<BDD> pOperation) {
+      bdds = pBDDs;
+      operation = pOperation;
+    }
+
+    @Override
+    protected BDD compute() {
+      if (bdds.size() == 1) {
+        return bdds.get(0);
+      } else if (bdds.size() == 2) {
+        return operation.apply(bdds.get(0), bdds.get(1));
+      }
+      int middle = bdds.size() / 2;
+      CombineTask left = new CombineTask(bdds.subList(0, middle), operation);
+      CombineTask right = new CombineTask(bdds.subList(middle, bdds.size()), operation);
+      left.fork();
+      BDD rightResult = right.compute();
+      return operation.apply(left.join(), rightResult);
+    }
+  }
+
   @Override
   public Region replace(Region pRegion, Region[] pOldPredicates, Region[] pNewPredicates) {
     Preconditions.checkArgument(pOldPredicates.length == pNewPredicates.length);
@@ -200,8 +275,8 @@ public class PJBDDRegionManager implements RegionManager {
 
     @Override
     public void close() {
+      // do not shut down the creator here, it is still used by the region manager
       cache.clear();
-      PJBDDRegionManager.this.bddCreator.shutDown();
     }
 
     @Override
@@ -221,28 +296,12 @@ public class PJBDDRegionManager implements RegionManager {
 
     @Override
     public BDD visitAnd(List<BooleanFormula> pList) {
-      if (pList.isEmpty()) {
-        return bddCreator.makeFalse();
-      }
-
-      BDD result = bddCreator.makeTrue();
-      for (BooleanFormula bFormula : pList) {
-        result = bddCreator.makeAnd(result, convert(bFormula));
-      }
-      return result;
+      return combine(convert(pList), bddCreator.makeTrue(), bddCreator::makeAnd);
     }
 
     @Override
     public BDD visitOr(List<BooleanFormula> pList) {
-      if (pList.isEmpty()) {
-        return bddCreator.makeFalse();
-      }
-
-      BDD result = bddCreator.makeFalse();
-      for (BooleanFormula bFormula : pList) {
-        result = bddCreator.makeOr(result, convert(bFormula));
-      }
-      return result;
+      return combine(convert(pList), bddCreator.makeFalse(), bddCreator::makeOr);
     }
 
     @Override
@@ -284,6 +343,14 @@ public class PJBDDRegionManager implements RegionManager {
       return unwrap(atomToRegion.apply(pBooleanFormula));
     }
 
+    private List<BDD> convert(List<BooleanFormula> pOperands) {
+      List<BDD> result = new ArrayList<>(pOperands.size());
+      for (BooleanFormula operand : pOperands) {
+        result.add(convert(operand));
+      }
+      return result;
+    }
+
     // Convert one BooleanFormula (recursively)
     // and return a result that is also put in the cache.
     private BDD convert(BooleanFormula pOperand) {
@@ -349,14 +416,15 @@ public class PJBDDRegionManager implements RegionManager {
         return falseFormula;
       } else {
 
-        BDD[] clauses = cubes.stream().filter(bdd -> bdd != null).toArray(BDD[]::new);
-
-        BDD result = bddCreator.makeTrue();
-
-        for (BDD bdd : clauses) {
-          result = bddCreator.makeOr(result, bdd);
+        List<BDD> clauses = new ArrayList<>(cubes.size());
+        for (BDD bdd : cubes) {
+          if (bdd != null) {
+            clauses.add(bdd);
+          }
         }
 
+        BDD result = combine(clauses, bddCreator.makeFalse(), bddCreator::makeOr);
+
         cubes.clear();
 
         cubes.add(result);
@@ -397,6 +465,14 @@ public class PJBDDRegionManager implements RegionManager {
     @IntegerOption(min = 1)
     private int threads = Runtime.getRuntime().availableProcessors();
 
+    @Option(
+        secure = true,
+        description =
+            "Conjunctions and disjunctions of at least this many BDDs are computed in parallel "
+                + "as a balanced tree of operations (0 to disable).")
+    @IntegerOption(min = 0)
+    private int parallelApplyThreshold = 8;
+
     @Option(
         secure = true,
         description =
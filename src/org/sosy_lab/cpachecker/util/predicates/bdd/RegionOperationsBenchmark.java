@@ -0,0 +1,224 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.predicates.bdd;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import org.sosy_lab.common.time.TimeSpan;
+import org.sosy_lab.cpachecker.util.predicates.regions.RecordingRegionManager;
+import org.sosy_lab.cpachecker.util.predicates.regions.Region;
+import org.sosy_lab.cpachecker.util.predicates.regions.RegionManager;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/**
+ * Replays a sequence of region operations on a {@link RegionManager} and measures the time per
+ * kind of operation. The sequence is either a trace written by {@link RecordingRegionManager}
+ * during a real analysis, or a synthetic workload that resembles the operations of predicate
+ * abstraction (conjunctions of predicates, disjunctions of abstractions, and entailment checks).
+ *
+ * <p>This is used for comparing BDD packages and for choosing one automatically.
+ */
+public final class RegionOperationsBenchmark {
+
+  private static final Splitter SPLITTER = Splitter.on(' ').omitEmptyStrings();
+
+  private final ImmutableList<String> operations;
+
+  private RegionOperationsBenchmark(List<String> pOperations) {
+    operations = ImmutableList.copyOf(pOperations);
+  }
+
+  /** Read a trace that was written by {@link RecordingRegionManager}. */
+  public static RegionOperationsBenchmark fromFile(Path pFile) throws IOException {
+    return new RegionOperationsBenchmark(Files.readAllLines(pFile, StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Create a synthetic workload with the given number of predicates and abstraction steps.
+   * The workload is deterministic for a given seed.
+   */
+  public static RegionOperationsBenchmark synthetic(int pPredicates, int pSteps, long pSeed) {
+    checkArgument(pPredicates > 1);
+    Random random = new Random(pSeed);
+    List<String> trace = new ArrayList<>();
+    int nextId = 0;
+    for (; nextId < pPredicates; nextId++) {
+      trace.add("pred " + nextId);
+    }
+    int reached = nextId++;
+    trace.add("false " + reached);
+    for (int step = 0; step < pSteps; step++) {
+      // an abstraction is a conjunction of (possibly negated) predicates
+      int abstraction = nextId++;
+      trace.add("true " + abstraction);
+      int cubeSize = 1 + random.nextInt(Math.min(pPredicates, 8));
+      for (int i = 0; i < cubeSize; i++) {
+        int predicate = random.nextInt(pPredicates);
+        if (random.nextBoolean()) {
+          trace.add("not " + nextId + " " + predicate);
+          predicate = nextId++;
+        }
+        trace.add("and " + nextId + " " + abstraction + " " + predicate);
+        abstraction = nextId++;
+      }
+      // coverage check and merge into the set of reached abstract states
+      trace.add("entails 0 " + abstraction + " " + reached);
+      trace.add("or " + nextId + " " + reached + " " + abstraction);
+      reached = nextId++;
+      if (step % 16 == 15) {
+        int predicate = random.nextInt(pPredicates);
+        trace.add("exists " + nextId + " " + reached + " " + predicate);
+        nextId++;
+      }
+    }
+    return new RegionOperationsBenchmark(trace);
+  }
+
+  public int size() {
+    return operations.size();
+  }
+
+  /**
+   * Replay all operations on the given region manager.
+   *
+   * @param pTimeLimit the replay is aborted when this time is exceeded
+   * @return the times per kind of operation, and whether all operations were performed
+   */
+  public Result run(RegionManager pRmgr, TimeSpan pTimeLimit)
+      throws SolverException, InterruptedException {
+    long limit = pTimeLimit.asNanos();
+    long start = System.nanoTime();
+    Map<String, Long> times = new TreeMap<>();
+    Map<Integer, Region> regions = new HashMap<>();
+    int performed = 0;
+
+    for (String line : operations) {
+      if (Thread.interrupted()) {
+        throw new InterruptedException();
+      }
+      if (System.nanoTime() - start > limit) {
+        break;
+      }
+      List<String> parts = SPLITTER.splitToList(line);
+      if (parts.isEmpty()) {
+        continue;
+      }
+      String op = parts.get(0);
+      int result = Integer.parseInt(parts.get(1));
+      Region[] args = new Region[parts.size() - 2];
+      for (int i = 0; i < args.length; i++) {
+        args[i] = regions.get(Integer.parseInt(parts.get(i + 2)));
+        checkArgument(args[i] != null, "Undefined region in operation '%s'", line);
+      }
+
+      long opStart = System.nanoTime();
+      Region value = perform(pRmgr, op, args);
+      times.merge(op, System.nanoTime() - opStart, Long::sum);
+      if (value != null) {
+        regions.put(result, value);
+      }
+      performed++;
+    }
+
+    ImmutableMap.Builder<String, TimeSpan> opTimes = ImmutableMap.builder();
+    times.forEach((op, time) -> opTimes.put(op, TimeSpan.of(time, TimeUnit.NANOSECONDS)));
+    return new Result(
+        TimeSpan.of(System.nanoTime() - start, TimeUnit.NANOSECONDS),
+        opTimes.build(),
+        performed == operations.size());
+  }
+
+  private static Region perform(RegionManager pRmgr, String pOp, Region[] pArgs)
+      throws SolverException, InterruptedException {
+    switch (pOp) {
+      case "pred":
+        return pRmgr.createPredicate();
+      case "true":
+        return pRmgr.makeTrue();
+      case "false":
+        return pRmgr.makeFalse();
+      case "not":
+        return pRmgr.makeNot(pArgs[0]);
+      case "and":
+        return pRmgr.makeAnd(pArgs[0], pArgs[1]);
+      case "or":
+        return pRmgr.makeOr(pArgs[0], pArgs[1]);
+      case "equal":
+        return pRmgr.makeEqual(pArgs[0], pArgs[1]);
+      case "unequal":
+        return pRmgr.makeUnequal(pArgs[0], pArgs[1]);
+      case "ite":
+        return pRmgr.makeIte(pArgs[0], pArgs[1], pArgs[2]);
+      case "exists":
+        return pRmgr.makeExists(pArgs[0], Arrays.copyOfRange(pArgs, 1, pArgs.length));
+      case "replace":
+        int n = (pArgs.length - 1) / 2;
+        return pRmgr.replace(
+            pArgs[0],
+            Arrays.copyOfRange(pArgs, 1, 1 + n),
+            Arrays.copyOfRange(pArgs, 1 + n, pArgs.length));
+      case "entails":
+        pRmgr.entails(pArgs[0], pArgs[1]);
+        return null;
+      default:
+        throw new IllegalArgumentException("Unknown region operation " + pOp);
+    }
+  }
+
+  /** The result of replaying the operations on one region manager. */
+  public static final class Result {
+
+    private final TimeSpan totalTime;
+    private final ImmutableMap<String, TimeSpan> operationTimes;
+    private final boolean complete;
+
+    private Result(
+        TimeSpan pTotalTime, ImmutableMap<String, TimeSpan> pOperationTimes, boolean pComplete) {
+      totalTime = pTotalTime;
+      operationTimes = pOperationTimes;
+      complete = pComplete;
+    }
+
+    public TimeSpan getTotalTime() {
+      return totalTime;
+    }
+
+    public ImmutableMap<String, TimeSpan> getOperationTimes() {
+      return operationTimes;
+    }
+
+    /** Whether all operations were performed within the time limit. */
+    public boolean isComplete() {
+      return complete;
+    }
+
+    @Override
+    public String toString() {
+      return totalTime.formatAs(TimeUnit.SECONDS)
+          + (complete ? "" : " (time limit reached)")
+          + " "
+          + operationTimes;
+    }
+  }
+}
@@ -0,0 +1,111 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.predicates.bdd;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.converters.FileTypeConverter;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.TimeSpan;
+import org.sosy_lab.cpachecker.util.predicates.regions.RecordingRegionManager;
+import org.sosy_lab.cpachecker.util.predicates.regions.Region;
+import org.sosy_lab.cpachecker.util.predicates.regions.RegionManager;
+
+public class RegionOperationsBenchmarkTest {
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private final LogManager logger = LogManager.createTestLogManager();
+
+  private RegionManager createRegionManager(String pPackage) throws Exception {
+    Configuration config = Configuration.builder().setOption("bdd.package", pPackage).build();
+    return new BDDManagerFactory(config, logger).createRegionManager();
+  }
+
+  @Test
+  public void replaySynthetic() throws Exception {
+    RegionOperationsBenchmark benchmark = RegionOperationsBenchmark.synthetic(10, 100, 0);
+    RegionOperationsBenchmark.Result result =
+        benchmark.run(createRegionManager("JAVA"), TimeSpan.ofSeconds(100));
+    assertThat(result.isComplete()).isTrue();
+    assertThat(result.getOperationTimes()).containsKey("and");
+  }
+
+  @Test
+  public void replayRecorded() throws Exception {
+    Path trace = tempFolder.newFile("trace.txt").toPath();
+    RegionManager rmgr = createRegionManager("JAVA");
+    try (Writer out = Files.newBufferedWriter(trace, StandardCharsets.UTF_8)) {
+      RecordingRegionManager recorder = new RecordingRegionManager(rmgr, out);
+      Region p0 = recorder.createPredicate();
+      Region p1 = recorder.createPredicate();
+      Region p2 = recorder.createPredicate();
+      Region r = recorder.makeOr(recorder.makeAnd(p0, p1), recorder.makeNot(p2));
+      // created without the recorder, needs to be defined by its decomposition
+      Region unknown = rmgr.makeAnd(p1, rmgr.makeNot(p0));
+      recorder.entails(unknown, r);
+      recorder.makeExists(recorder.makeAnd(r, unknown), p1);
+    }
+
+    RegionOperationsBenchmark benchmark = RegionOperationsBenchmark.fromFile(trace);
+    assertThat(benchmark.size()).isGreaterThan(7);
+    RegionOperationsBenchmark.Result result =
+        benchmark.run(createRegionManager("JAVA"), TimeSpan.ofSeconds(100));
+    assertThat(result.isComplete()).isTrue();
+    assertThat(result.getOperationTimes()).containsKey("exists");
+  }
+
+  @Test
+  public void chooseAutomatically() throws Exception {
+    Configuration config =
+        Configuration.builder()
+            .setOption("bdd.package", "AUTO")
+            .setOption("bdd.auto.candidates", "JAVA, JDD")
+            .build();
+    RegionManager rmgr = new BDDManagerFactory(config, logger).createRegionManager();
+    Region p = rmgr.createPredicate();
+    assertThat(rmgr.makeAnd(p, rmgr.makeNot(p)).isFalse()).isTrue();
+    rmgr.shutdown();
+  }
+
+  @Test
+  public void recordOperationsWithFactory() throws Exception {
+    FileTypeConverter fileTypeConverter =
+        FileTypeConverter.create(
+            Configuration.builder()
+                .setOption("output.path", tempFolder.getRoot().toString())
+                .build());
+    Configuration config =
+        Configuration.builder()
+            .addConverter(FileOption.class, fileTypeConverter)
+            .setOption("bdd.recordOperations", "trace.txt")
+            .build();
+    RegionManager rmgr = new BDDManagerFactory(config, logger).createRegionManager();
+    Region p = rmgr.createPredicate();
+    rmgr.makeAnd(p, rmgr.makeNot(p));
+    // shutdown closes the trace file, afterwards the whole trace can be replayed
+    rmgr.shutdown();
+
+    RegionOperationsBenchmark benchmark =
+        RegionOperationsBenchmark.fromFile(tempFolder.getRoot().toPath().resolve("trace.txt"));
+    assertThat(benchmark.size()).isGreaterThan(2);
+    RegionOperationsBenchmark.Result result =
+        benchmark.run(createRegionManager("JAVA"), TimeSpan.ofSeconds(100));
+    assertThat(result.isComplete()).isTrue();
+  }
+}
@@ -14,11 +14,13 @@ import static com.google.common.collect.FluentIterable.from;
 import static org.sosy_lab.cpachecker.util.statistics.StatisticsUtils.div;
 
 import com.google.common.base.Throwables;
+import com.google.common.collect.HashMultiset;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMultiset;
 import com.google.common.collect.Iterators;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Multiset;
 import com.google.common.primitives.ImmutableIntArray;
 import com.google.common.primitives.Ints;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
@@ -38,6 +40,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.logging.Level;
 import java.util.stream.IntStream;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.Classes.UnexpectedCheckedException;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
@@ -78,7 +81,7 @@ import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
 import org.sosy_lab.java_smt.api.SolverException;
 
 @Options(prefix="cpa.predicate.refinement")
-public final class InterpolationManager {
+public final class InterpolationManager implements AutoCloseable {
 
   private final Timer cexAnalysisTimer = new Timer();
   private final Timer satCheckTimer = new Timer();
@@ -86,6 +89,7 @@ public final class InterpolationManager {
   private final Timer cexAnalysisGetUsefulBlocksTimer = new Timer();
   private final Timer interpolantVerificationTimer = new Timer();
   private int reusedFormulasOnSolverStack = 0;
+  private final Multiset<InterpolationStrategy> racingWins = HashMultiset.create();
 
   public void printStatistics(StatisticsWriter w0) {
     w0.put("Counterexample analysis", cexAnalysisTimer + " (Max: " + cexAnalysisTimer.getMaxTime().formatAs(TimeUnit.SECONDS) + ", Calls: " + cexAnalysisTimer.getNumberOfIntervals() + ")");
@@ -101,6 +105,9 @@ public final class InterpolationManager {
     if (interpolantVerificationTimer.getNumberOfIntervals() > 0) {
       w1.put("Interpolant verification", interpolantVerificationTimer);
     }
+    for (InterpolationStrategy racingStrategy : racingWins.elementSet()) {
+      w1.put("Interpolation races won by " + racingStrategy, racingWins.count(racingStrategy));
+    }
   }
 
 
@@ -166,6 +173,32 @@ public final class InterpolationManager {
     TREE_CPACHECKER,
   }
 
+  @Option(
+      secure = true,
+      description =
+          "Additional interpolation strategies that race against the strategy given by option"
+              + " strategy. Each of them computes interpolants in parallel with its own solver"
+              + " instance, and one of the results is selected according to the option"
+              + " racingSelection. The analysis must support all of these strategies. A racing"
+              + " strategy that is still busy with a previous query does not take part in the"
+              + " next race.")
+  private List<InterpolationStrategy> racingStrategies = ImmutableList.of();
+
+  @Option(
+      secure = true,
+      description =
+          "How to select the interpolants if several strategies race:\n"
+              + "- FIRST: use the interpolants that were computed first, without waiting for"
+              + " slower strategies.\n"
+              + "- SMALLEST: wait for all strategies and use the interpolants with the least"
+              + " number of atoms.")
+  private RacingSelection racingSelection = RacingSelection.FIRST;
+
+  private enum RacingSelection {
+    FIRST,
+    SMALLEST,
+  }
+
   @Option(secure=true, description="dump all interpolation problems")
   private boolean dumpInterpolationProblems = false;
 
@@ -199,6 +232,7 @@ public final class InterpolationManager {
   private boolean tryAgainOnInterpolationError = true;
 
   private final ITPStrategy itpStrategy;
+  private ImmutableList<RacingInterpolator> racingInterpolators;
 
   private final ExecutorService executor;
   private final LoopStructure loopStructure;
@@ -237,25 +271,49 @@ public final class InterpolationManager {
       interpolator = null;
     }
 
-    switch (strategy) {
+    itpStrategy = createStrategy(strategy, pLogger, pShutdownNotifier, fmgr, config);
+
+    ImmutableList.Builder<RacingInterpolator> racers = ImmutableList.builder();
+    for (InterpolationStrategy racingStrategy : racingStrategies) {
+      racers.add(
+          new RacingInterpolator(
+              racingStrategy, Solver.create(config, pLogger, pShutdownNotifier), config));
+    }
+    racingInterpolators = racers.build();
+  }
+
+  /**
+   * Stop the threads and close the solvers of the racing interpolation strategies. Afterwards,
+   * only the main strategy is used.
+   */
+  @Override
+  public void close() {
+    for (RacingInterpolator racer : racingInterpolators) {
+      racer.close();
+    }
+    racingInterpolators = ImmutableList.of();
+  }
+
+  private static ITPStrategy createStrategy(
+      InterpolationStrategy pStrategy,
+      LogManager pLogger,
+      ShutdownNotifier pShutdownNotifier,
+      FormulaManagerView pFmgr,
+      Configuration pConfig)
+      throws InvalidConfigurationException {
+    switch (pStrategy) {
       case SEQ_CPACHECKER:
-        itpStrategy = new SequentialInterpolation(pLogger, pShutdownNotifier, fmgr, config);
-        break;
+        return new SequentialInterpolation(pLogger, pShutdownNotifier, pFmgr, pConfig);
       case SEQ:
-        itpStrategy = new SequentialInterpolationWithSolver(pLogger, pShutdownNotifier, fmgr);
-        break;
+        return new SequentialInterpolationWithSolver(pLogger, pShutdownNotifier, pFmgr);
       case TREE_WELLSCOPED:
-        itpStrategy = new WellScopedInterpolation(pLogger, pShutdownNotifier, fmgr);
-        break;
+        return new WellScopedInterpolation(pLogger, pShutdownNotifier, pFmgr);
       case TREE_NESTED:
-        itpStrategy = new NestedInterpolation(pLogger, pShutdownNotifier, fmgr);
-        break;
+        return new NestedInterpolation(pLogger, pShutdownNotifier, pFmgr);
       case TREE_CPACHECKER:
-        itpStrategy = new TreeInterpolation(pLogger, pShutdownNotifier, fmgr);
-        break;
+        return new TreeInterpolation(pLogger, pShutdownNotifier, pFmgr);
       case TREE:
-        itpStrategy = new TreeInterpolationWithSolver(pLogger, pShutdownNotifier, fmgr);
-        break;
+        return new TreeInterpolationWithSolver(pLogger, pShutdownNotifier, pFmgr);
       default:
         throw new AssertionError("unknown interpolation strategy");
     }
@@ -652,9 +710,17 @@ public final class InterpolationManager {
       throws SolverException, InterruptedException {
 
     final List<BooleanFormula> interpolants;
+    ITPStrategy usedStrategy = itpStrategy;
     try {
       getInterpolantTimer.start();
-      interpolants = itpStrategy.getInterpolants(pInterpolator, formulasWithStatesAndGroupdIds);
+      if (racingInterpolators.isEmpty()) {
+        interpolants = itpStrategy.getInterpolants(pInterpolator, formulasWithStatesAndGroupdIds);
+      } else {
+        Pair<List<BooleanFormula>, ITPStrategy> result =
+            raceInterpolants(pInterpolator, formulasWithStatesAndGroupdIds);
+        interpolants = result.getFirst();
+        usedStrategy = result.getSecond();
+      }
     } finally {
       getInterpolantTimer.stop();
     }
@@ -665,7 +731,7 @@ public final class InterpolationManager {
     if (verifyInterpolants) {
       try {
         interpolantVerificationTimer.start();
-        itpStrategy.checkInterpolants(solver, formulasWithStatesAndGroupdIds, interpolants);
+        usedStrategy.checkInterpolants(solver, formulasWithStatesAndGroupdIds, interpolants);
       } finally {
         interpolantVerificationTimer.stop();
       }
@@ -673,6 +739,207 @@ public final class InterpolationManager {
     return interpolants;
   }
 
+  /**
+   * Compute interpolants with the main strategy in the current thread and with the racing
+   * strategies in parallel, and select one of the results according to {@link #racingSelection}.
+   * Formulas are exchanged with the racing solvers as strings, such that the main solver is never
+   * used by another thread.
+   *
+   * @return the selected interpolants and a strategy (for the main solver) that can check them
+   */
+  private <T> Pair<List<BooleanFormula>, ITPStrategy> raceInterpolants(
+      Interpolator<T> pInterpolator,
+      List<Triple<BooleanFormula, AbstractState, T>> formulasWithStatesAndGroupdIds)
+      throws SolverException, InterruptedException {
+    List<String> formulas = new ArrayList<>(formulasWithStatesAndGroupdIds.size());
+    List<AbstractState> states = new ArrayList<>(formulasWithStatesAndGroupdIds.size());
+    for (Triple<BooleanFormula, AbstractState, T> t : formulasWithStatesAndGroupdIds) {
+      formulas.add(fmgr.dumpFormula(t.getFirst()).toString());
+      states.add(t.getSecond());
+    }
+
+    List<Future<RaceResult>> racingResults = new ArrayList<>(racingInterpolators.size());
+    for (RacingInterpolator racer : racingInterpolators) {
+      if (racer.isIdle()) {
+        racingResults.add(racer.start(formulas, states));
+      }
+    }
+
+    List<BooleanFormula> interpolants = null;
+    SolverException mainException = null;
+    try {
+      interpolants = itpStrategy.getInterpolants(pInterpolator, formulasWithStatesAndGroupdIds);
+    } catch (SolverException e) {
+      mainException = e;
+    }
+    final long mainFinishTime = System.nanoTime();
+    final int mainSize = interpolants == null ? Integer.MAX_VALUE : countAtoms(fmgr, interpolants);
+
+    RaceResult best = null;
+    for (Future<RaceResult> future : racingResults) {
+      if (interpolants != null && racingSelection == RacingSelection.FIRST && !future.isDone()) {
+        continue; // slower than main strategy
+      }
+      RaceResult result;
+      try {
+        result = future.get();
+      } catch (ExecutionException e) {
+        logger.logDebugException(e.getCause(), "Racing interpolation strategy failed");
+        continue;
+      }
+      if (best == null || result.isBetterThan(best.finishTime, best.size)) {
+        best = result;
+      }
+    }
+
+    if (best == null || (interpolants != null && !best.isBetterThan(mainFinishTime, mainSize))) {
+      if (interpolants == null) {
+        throw mainException;
+      }
+      racingWins.add(strategy);
+      return Pair.of(interpolants, itpStrategy);
+    }
+
+    racingWins.add(best.racer.type);
+    List<BooleanFormula> racingInterpolants = new ArrayList<>(best.interpolants.size());
+    for (String itp : best.interpolants) {
+      racingInterpolants.add(fmgr.parse(itp));
+    }
+    return Pair.of(racingInterpolants, best.racer.checkingStrategy);
+  }
+
+  private static int countAtoms(FormulaManagerView pFmgr, List<BooleanFormula> pInterpolants) {
+    int size = 0;
+    for (BooleanFormula itp : pInterpolants) {
+      size += pFmgr.extractAtoms(itp, false).size();
+    }
+    return size;
+  }
+
+  /**
+   * An interpolation strategy with its own solver instance and thread, such that it can race
+   * against the main strategy.
+   */
+  private final class RacingInterpolator {
+
+    private final InterpolationStrategy type;
+    private final Solver racingSolver;
+
+    /** The strategy for the solver of this racer. */
+    private final ITPStrategy racingStrategy;
+
+    /** The same strategy for the main solver, for verifying interpolants. */
+    private final ITPStrategy checkingStrategy;
+
+    private final ExecutorService racingExecutor;
+    private @Nullable Future<RaceResult> running = null;
+
+    private RacingInterpolator(
+        InterpolationStrategy pType, Solver pRacingSolver, Configuration pConfig)
+        throws InvalidConfigurationException {
+      type = pType;
+      racingSolver = pRacingSolver;
+      racingStrategy =
+          createStrategy(
+              pType, logger, shutdownNotifier, pRacingSolver.getFormulaManager(), pConfig);
+      checkingStrategy = createStrategy(pType, logger, shutdownNotifier, fmgr, pConfig);
+      // important to use daemon threads here, because we never have the chance to stop the executor
+      racingExecutor =
+          Executors.newSingleThreadExecutor(
+              new ThreadFactoryBuilder()
+                  .setDaemon(true)
+                  .setNameFormat("Interpolation-" + pType + "-%d")
+                  .build());
+    }
+
+    private boolean isIdle() {
+      return running == null || running.isDone();
+    }
+
+    /**
+     * Stop this racer and close its solver. The solver is closed in the thread of this racer
+     * after a currently running query, such that it is never closed while being used.
+     */
+    private void close() {
+      if (running != null) {
+        running.cancel(true);
+      }
+      racingExecutor.execute(racingSolver::close);
+      racingExecutor.shutdown();
+    }
+
+    private Future<RaceResult> start(List<String> pFormulas, List<AbstractState> pStates) {
+      running = racingExecutor.submit(() -> computeInterpolants(pFormulas, pStates));
+      return running;
+    }
+
+    /** Runs in the thread of this racer. */
+    private RaceResult computeInterpolants(List<String> pFormulas, List<AbstractState> pStates)
+        throws SolverException, InterruptedException {
+      Interpolator<?> interpolator = new Interpolator<>(racingSolver);
+      try {
+        return computeInterpolants0(interpolator, pFormulas, pStates);
+      } finally {
+        interpolator.close();
+      }
+    }
+
+    private <T> RaceResult computeInterpolants0(
+        Interpolator<T> pInterpolator, List<String> pFormulas, List<AbstractState> pStates)
+        throws SolverException, InterruptedException {
+      FormulaManagerView racingFmgr = racingSolver.getFormulaManager();
+      List<Triple<BooleanFormula, AbstractState, T>> formulasWithStatesAndGroupdIds =
+          new ArrayList<>(pFormulas.size());
+      for (int i = 0; i < pFormulas.size(); i++) {
+        BooleanFormula f = racingFmgr.parse(pFormulas.get(i));
+        formulasWithStatesAndGroupdIds.add(
+            Triple.of(f, pStates.get(i), pInterpolator.itpProver.push(f)));
+      }
+      if (!pInterpolator.itpProver.isUnsat()) {
+        throw new SolverException("Racing solver considers counterexample feasible");
+      }
+
+      List<BooleanFormula> interpolants =
+          racingStrategy.getInterpolants(pInterpolator, formulasWithStatesAndGroupdIds);
+      final long finishTime = System.nanoTime();
+
+      List<String> dumpedInterpolants = new ArrayList<>(interpolants.size());
+      for (BooleanFormula itp : interpolants) {
+        dumpedInterpolants.add(racingFmgr.dumpFormula(itp).toString());
+      }
+      return new RaceResult(
+          this, finishTime, countAtoms(racingFmgr, interpolants), dumpedInterpolants);
+    }
+  }
+
+  private final class RaceResult {
+
+    private final RacingInterpolator racer;
+    private final long finishTime;
+    private final int size;
+    private final List<String> interpolants;
+
+    private RaceResult(
+        RacingInterpolator pRacer, long pFinishTime, int pSize, List<String> pInterpolants) {
+      racer = pRacer;
+      finishTime = pFinishTime;
+      size = pSize;
+      interpolants = pInterpolants;
+    }
+
+    /** Compare according to {@link #racingSelection}, ties are not better. */
+    private boolean isBetterThan(long pOtherFinishTime, int pOtherSize) {
+      switch (racingSelection) {
+        case FIRST:
+          return finishTime < pOtherFinishTime;
+        case SMALLEST:
+          return size < pOtherSize;
+        default:
+          throw new AssertionError("unknown selection " + racingSelection);
+      }
+    }
+  }
+
   /**
    * Get information about the error path from the solver after the formulas
    * have been proved to be satisfiable.
@@ -755,8 +1022,14 @@ public final class InterpolationManager {
 
     public InterpolatingProverEnvironment<T> itpProver;
     private final List<Pair<BooleanFormula, T>> currentlyAssertedFormulas = new ArrayList<>();
+    private final Solver interpolatingSolver;
 
     Interpolator() {
+      this(solver);
+    }
+
+    private Interpolator(Solver pSolver) {
+      interpolatingSolver = pSolver;
       itpProver = newEnvironment();
     }
 
@@ -765,7 +1038,7 @@ public final class InterpolationManager {
       // This is safe because we don't actually care about the value of T,
       // only the InterpolatingProverEnvironment itself cares about it.
       return (InterpolatingProverEnvironment<T>)
-          solver.newProverEnvironmentWithInterpolation(ProverOptions.GENERATE_MODELS);
+          interpolatingSolver.newProverEnvironmentWithInterpolation(ProverOptions.GENERATE_MODELS);
     }
 
     /**
@@ -10,12 +10,14 @@ package org.sosy_lab.cpachecker.util.predicates.pathformula;
 
 import static org.sosy_lab.cpachecker.util.statistics.StatisticsUtils.toPercent;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import java.io.PrintStream;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import org.sosy_lab.common.time.Timer;
+import java.util.concurrent.atomic.LongAdder;
 import org.sosy_lab.cpachecker.cfa.ast.c.CExpression;
 import org.sosy_lab.cpachecker.cfa.ast.c.CIdExpression;
 import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
@@ -27,6 +29,9 @@ import org.sosy_lab.cpachecker.exceptions.UnrecognizedCodeException;
 import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.cpachecker.util.predicates.pathformula.SSAMap.SSAMapBuilder;
 import org.sosy_lab.cpachecker.util.predicates.pathformula.pointeraliasing.PointerTargetSet;
+import org.sosy_lab.cpachecker.util.resources.MemoryPressure;
+import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer;
+import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer.TimerWrapper;
 import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.Formula;
 import org.sosy_lab.java_smt.api.Model.ValueAssignment;
@@ -34,46 +39,86 @@ import org.sosy_lab.java_smt.api.Model.ValueAssignment;
 /**
  * Implementation of {@link PathFormulaManager} that delegates to another
  * instance but caches results of some methods.
+ *
+ * <p>The caches can be bounded in size, in which case the least-recently used entries are evicted.
+ * All caches can be accessed concurrently, such that one instance can be shared between several
+ * threads (as long as the delegate supports this).
  */
 public class CachingPathFormulaManager implements PathFormulaManager {
 
-  public final Timer pathFormulaComputationTimer = new Timer();
-  public int pathFormulaCacheHits = 0;
+  public final ThreadSafeTimerContainer pathFormulaComputationTimer =
+      new ThreadSafeTimerContainer("Time for path formula computation");
+  private final ThreadLocal<TimerWrapper> computationTimer =
+      ThreadLocal.withInitial(pathFormulaComputationTimer::getNewTimer);
+  private final LongAdder pathFormulaCacheHits = new LongAdder();
 
   public final PathFormulaManager delegate;
 
-  private final Map<Pair<CFAEdge, PathFormula>, Pair<PathFormula, ErrorConditions>> andFormulaWithConditionsCache
-            = new HashMap<>();
-  private final Map<Pair<CFAEdge, PathFormula>, PathFormula> andFormulaCache
-            = new HashMap<>();
+  private final long maximumCacheSize;
 
-  private final Map<Pair<PathFormula, PathFormula>, PathFormula> orFormulaCache
-            = new HashMap<>();
+  private final Cache<Pair<CFAEdge, PathFormula>, Pair<PathFormula, ErrorConditions>>
+      andFormulaWithConditionsCache;
+  private final Cache<Pair<CFAEdge, PathFormula>, PathFormula> andFormulaCache;
 
-  private final Map<PathFormula, PathFormula> emptyFormulaCache
-            = new HashMap<>();
+  private final Cache<Pair<PathFormula, PathFormula>, PathFormula> orFormulaCache;
+
+  private final Cache<PathFormula, PathFormula> emptyFormulaCache;
 
   private final PathFormula emptyFormula;
 
+  /** Create an instance with unbounded caches. */
   public CachingPathFormulaManager(PathFormulaManager pDelegate) {
+    this(pDelegate, -1);
+  }
+
+  /**
+   * Create an instance whose caches hold at most the given number of entries each.
+   *
+   * @param pMaximumCacheSize the maximum number of entries per cache, or -1 for unbounded caches
+   */
+  public CachingPathFormulaManager(PathFormulaManager pDelegate, long pMaximumCacheSize) {
     delegate = pDelegate;
     emptyFormula = delegate.makeEmptyPathFormula();
+    maximumCacheSize = pMaximumCacheSize;
+    andFormulaWithConditionsCache = createCache(pMaximumCacheSize);
+    andFormulaCache = createCache(pMaximumCacheSize);
+    orFormulaCache = createCache(pMaximumCacheSize);
+    emptyFormulaCache = createCache(pMaximumCacheSize);
+    MemoryPressure.register(this, (pfmgr, level) -> pfmgr.clearCaches());
+  }
+
+  private static <K, V> Cache<K, V> createCache(long pMaximumSize) {
+    CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder().recordStats();
+    if (pMaximumSize >= 0) {
+      builder.maximumSize(pMaximumSize);
+    }
+    return builder.build();
+  }
+
+  /** Return how often a result could be taken from one of the caches. */
+  public long getCacheHits() {
+    return pathFormulaCacheHits.sum();
   }
 
   @Override
   public Pair<PathFormula, ErrorConditions> makeAndWithErrorConditions(PathFormula pOldFormula, CFAEdge pEdge) throws CPATransferException, InterruptedException {
 
     final Pair<CFAEdge, PathFormula> formulaCacheKey = Pair.of(pEdge, pOldFormula);
-    Pair<PathFormula, ErrorConditions> result = andFormulaWithConditionsCache.get(formulaCacheKey);
+    Pair<PathFormula, ErrorConditions> result =
+        andFormulaWithConditionsCache.getIfPresent(formulaCacheKey);
     if (result == null) {
-      pathFormulaComputationTimer.start();
-      // compute new pathFormula with the operation on the edge
-      result = delegate.makeAndWithErrorConditions(pOldFormula, pEdge);
-      pathFormulaComputationTimer.stop();
-      andFormulaWithConditionsCache.put(formulaCacheKey, result);
+      TimerWrapper timer = computationTimer.get();
+      timer.start();
+      try {
+        // compute new pathFormula with the operation on the edge
+        result = delegate.makeAndWithErrorConditions(pOldFormula, pEdge);
+        andFormulaWithConditionsCache.put(formulaCacheKey, result);
+      } finally {
+        timer.stop();
+      }
 
     } else {
-      pathFormulaCacheHits++;
+      pathFormulaCacheHits.increment();
     }
     return result;
   }
@@ -81,19 +126,20 @@ public class CachingPathFormulaManager implements PathFormulaManager {
   @Override
   public PathFormula makeAnd(PathFormula pOldFormula, CFAEdge pEdge) throws CPATransferException, InterruptedException {
     final Pair<CFAEdge, PathFormula> formulaCacheKey = Pair.of(pEdge, pOldFormula);
-    PathFormula result = andFormulaCache.get(formulaCacheKey);
+    PathFormula result = andFormulaCache.getIfPresent(formulaCacheKey);
     if (result == null) {
+      TimerWrapper timer = computationTimer.get();
+      timer.start();
       try {
-      pathFormulaComputationTimer.start();
-      // compute new pathFormula with the operation on the edge
-      result = delegate.makeAnd(pOldFormula, pEdge);
-      andFormulaCache.put(formulaCacheKey, result);
+        // compute new pathFormula with the operation on the edge
+        result = delegate.makeAnd(pOldFormula, pEdge);
+        andFormulaCache.put(formulaCacheKey, result);
       } finally {
-        pathFormulaComputationTimer.stop();
+        timer.stop();
       }
 
     } else {
-      pathFormulaCacheHits++;
+      pathFormulaCacheHits.increment();
     }
     return result;
   }
@@ -102,17 +148,17 @@ public class CachingPathFormulaManager implements PathFormulaManager {
   public PathFormula makeOr(PathFormula pF1, PathFormula pF2) throws InterruptedException {
     final Pair<PathFormula, PathFormula> formulaCacheKey = Pair.of(pF1, pF2);
 
-    PathFormula result = orFormulaCache.get(formulaCacheKey);
+    PathFormula result = orFormulaCache.getIfPresent(formulaCacheKey);
     if (result == null) {
       // try again with other order
-      result = orFormulaCache.get(Pair.of(pF2, pF1));
+      result = orFormulaCache.getIfPresent(Pair.of(pF2, pF1));
     }
 
     if (result == null) {
       result = delegate.makeOr(pF1, pF2);
       orFormulaCache.put(formulaCacheKey, result);
     } else {
-      pathFormulaCacheHits++;
+      pathFormulaCacheHits.increment();
     }
     return result;
   }
@@ -124,12 +170,12 @@ public class CachingPathFormulaManager implements PathFormulaManager {
 
   @Override
   public PathFormula makeEmptyPathFormula(PathFormula pOldFormula) {
-    PathFormula result = emptyFormulaCache.get(pOldFormula);
+    PathFormula result = emptyFormulaCache.getIfPresent(pOldFormula);
     if (result == null) {
       result = delegate.makeEmptyPathFormula(pOldFormula);
       emptyFormulaCache.put(pOldFormula, result);
     } else {
-      pathFormulaCacheHits++;
+      pathFormulaCacheHits.increment();
     }
     return result;
   }
@@ -191,10 +237,10 @@ public class CachingPathFormulaManager implements PathFormulaManager {
 
   @Override
   public void clearCaches() {
-    andFormulaWithConditionsCache.clear();
-    andFormulaCache.clear();
-    orFormulaCache.clear();
-    emptyFormulaCache.clear();
+    andFormulaWithConditionsCache.invalidateAll();
+    andFormulaCache.invalidateAll();
+    orFormulaCache.invalidateAll();
+    emptyFormulaCache.invalidateAll();
     delegate.clearCaches();
   }
 
@@ -211,8 +257,8 @@ public class CachingPathFormulaManager implements PathFormulaManager {
 
   @Override
   public void printStatistics(PrintStream out) {
-    int cacheHits = this.pathFormulaCacheHits;
-    int totalPathFormulaComputations =
+    long cacheHits = getCacheHits();
+    long totalPathFormulaComputations =
         this.pathFormulaComputationTimer.getNumberOfIntervals() + cacheHits;
     out.println(
         "Number of path formula cache hits:   "
@@ -220,6 +266,25 @@ public class CachingPathFormulaManager implements PathFormulaManager {
             + " ("
             + toPercent(cacheHits, totalPathFormulaComputations)
             + ")");
+    if (maximumCacheSize >= 0) {
+      CacheStats cacheStats =
+          andFormulaWithConditionsCache
+              .stats()
+              .plus(andFormulaCache.stats())
+              .plus(orFormulaCache.stats())
+              .plus(emptyFormulaCache.stats());
+      out.println(
+          "Number of path formula cache entries: "
+              + (andFormulaWithConditionsCache.size()
+                  + andFormulaCache.size()
+                  + orFormulaCache.size()
+                  + emptyFormulaCache.size())
+              + " (max. "
+              + maximumCacheSize
+              + " per cache)");
+      out.println("Number of path formula cache misses: " + cacheStats.missCount());
+      out.println("Number of path formula cache evictions: " + cacheStats.evictionCount());
+    }
     out.println();
 
     out.println("Inside post operator:                  ");
@@ -130,6 +130,11 @@ public class CountingRegionManager implements RegionManager {
         .put(reorderCtr);
   }
 
+  @Override
+  public void shutdown() {
+    delegate.shutdown();
+  }
+
   @Override
   public String getVersion() {
     return delegate.getVersion();
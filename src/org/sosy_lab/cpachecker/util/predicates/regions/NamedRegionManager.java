@@ -262,6 +262,11 @@ public class NamedRegionManager implements RegionManager {
     delegate.printStatistics(out);
   }
 
+  @Override
+  public void shutdown() {
+    delegate.shutdown();
+  }
+
   @Override
   public String getVersion() {
     return delegate.getVersion();
@@ -0,0 +1,261 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.predicates.regions;
+
+import com.google.common.primitives.ImmutableIntArray;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.cpachecker.util.Triple;
+import org.sosy_lab.cpachecker.util.predicates.PredicateOrderingStrategy;
+import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/**
+ * A RegionManager that writes all operations on regions to a file, such that the sequence of
+ * operations of a real analysis can later be replayed on different region managers, e.g., for
+ * comparing BDD packages.
+ *
+ * <p>Each line of the trace has the form "operation result arguments...", where result and
+ * arguments are numeric identifiers of regions, e.g., "and 5 3 4". Regions that were not created
+ * by an operation of this manager (e.g., from {@link #fromFormula} or a {@link RegionBuilder}) are
+ * defined in the trace by their decomposition into if-then-else nodes when they are used for the
+ * first time. Reordering the variables is not recorded.
+ *
+ * <p>The recording manager keeps all regions alive and should only be used for producing traces,
+ * not for real analyses. The trace is flushed when statistics are printed and the file is closed
+ * by {@link #shutdown()}.
+ */
+public class RecordingRegionManager implements RegionManager {
+
+  private final RegionManager delegate;
+  private final Writer out;
+
+  // guarded by this
+  private final Map<Region, Integer> ids = new HashMap<>();
+  private int nextId = 0;
+  private boolean closed = false;
+
+  public RecordingRegionManager(RegionManager pDelegate, Writer pOut) {
+    delegate = pDelegate;
+    out = pOut;
+  }
+
+  /** Write one line to the trace and return the id of the result. */
+  private int record(Region pResult, String pOperation, int... pArgs) {
+    int id = nextId++;
+    ids.put(pResult, id);
+    write(pOperation, id, pArgs);
+    return id;
+  }
+
+  private void write(String pOperation, int pResult, int... pArgs) {
+    StringBuilder line = new StringBuilder(pOperation).append(' ').append(pResult);
+    for (int arg : pArgs) {
+      line.append(' ').append(arg);
+    }
+    try {
+      out.write(line.append('\n').toString());
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not write region operations", e);
+    }
+  }
+
+  /**
+   * Get the id of a region, and define it in the trace by its decomposition if it is not yet
+   * known.
+   */
+  private int id(Region pRegion) {
+    Integer id = ids.get(pRegion);
+    if (id != null) {
+      return id;
+    }
+    if (pRegion.isTrue()) {
+      return record(pRegion, "true");
+    } else if (pRegion.isFalse()) {
+      return record(pRegion, "false");
+    }
+    Triple<Region, Region, Region> ite = delegate.getIfThenElse(pRegion);
+    Integer predicate = ids.get(ite.getFirst());
+    if (predicate == null) {
+      predicate = record(ite.getFirst(), "pred");
+    }
+    int thenId = id(ite.getSecond());
+    int elseId = id(ite.getThird());
+    return record(pRegion, "ite", predicate, thenId, elseId);
+  }
+
+  private int[] ids(Region... pRegions) {
+    int[] result = new int[pRegions.length];
+    for (int i = 0; i < pRegions.length; i++) {
+      result[i] = id(pRegions[i]);
+    }
+    return result;
+  }
+
+  @Override
+  public RegionBuilder builder(ShutdownNotifier pShutdownNotifier) {
+    // results of the builder are defined by their decomposition when they are used
+    return delegate.builder(pShutdownNotifier);
+  }
+
+  @Override
+  public synchronized Region makeTrue() {
+    Region result = delegate.makeTrue();
+    id(result);
+    return result;
+  }
+
+  @Override
+  public synchronized Region makeFalse() {
+    Region result = delegate.makeFalse();
+    id(result);
+    return result;
+  }
+
+  @Override
+  public synchronized Region makeNot(Region pF) {
+    Region result = delegate.makeNot(pF);
+    record(result, "not", id(pF));
+    return result;
+  }
+
+  @Override
+  public synchronized Region makeAnd(Region pF1, Region pF2) {
+    Region result = delegate.makeAnd(pF1, pF2);
+    record(result, "and", id(pF1), id(pF2));
+    return result;
+  }
+
+  @Override
+  public synchronized Region makeOr(Region pF1, Region pF2) {
+    Region result = delegate.makeOr(pF1, pF2);
+    record(result, "or", id(pF1), id(pF2));
+    return result;
+  }
+
+  @Override
+  public synchronized Region makeEqual(Region pF1, Region pF2) {
+    Region result = delegate.makeEqual(pF1, pF2);
+    record(result, "equal", id(pF1), id(pF2));
+    return result;
+  }
+
+  @Override
+  public synchronized Region makeUnequal(Region pF1, Region pF2) {
+    Region result = delegate.makeUnequal(pF1, pF2);
+    record(result, "unequal", id(pF1), id(pF2));
+    return result;
+  }
+
+  @Override
+  public synchronized Region makeIte(Region pF1, Region pF2, Region pF3) {
+    Region result = delegate.makeIte(pF1, pF2, pF3);
+    record(result, "ite", id(pF1), id(pF2), id(pF3));
+    return result;
+  }
+
+  @Override
+  public synchronized Region makeExists(Region pF1, Region... pF2) {
+    Region result = delegate.makeExists(pF1, pF2);
+    int[] args = new int[pF2.length + 1];
+    args[0] = id(pF1);
+    System.arraycopy(ids(pF2), 0, args, 1, pF2.length);
+    record(result, "exists", args);
+    return result;
+  }
+
+  @Override
+  public synchronized boolean entails(Region pF1, Region pF2)
+      throws SolverException, InterruptedException {
+    boolean result = delegate.entails(pF1, pF2);
+    write("entails", result ? 1 : 0, id(pF1), id(pF2));
+    return result;
+  }
+
+  @Override
+  public synchronized Region createPredicate() {
+    Region result = delegate.createPredicate();
+    record(result, "pred");
+    return result;
+  }
+
+  @Override
+  public Region fromFormula(
+      BooleanFormula pF, FormulaManagerView pFmgr, Function<BooleanFormula, Region> pAtomToRegion) {
+    // the result is defined by its decomposition when it is used
+    return delegate.fromFormula(pF, pFmgr, pAtomToRegion);
+  }
+
+  @Override
+  public Triple<Region, Region, Region> getIfThenElse(Region pF) {
+    return delegate.getIfThenElse(pF);
+  }
+
+  @Override
+  public synchronized void printStatistics(PrintStream pOut) {
+    if (!closed) {
+      try {
+        out.flush();
+      } catch (IOException e) {
+        throw new UncheckedIOException("Could not write region operations", e);
+      }
+    }
+    delegate.printStatistics(pOut);
+  }
+
+  /** Close the trace file and shut down the delegate. */
+  @Override
+  public synchronized void shutdown() {
+    if (!closed) {
+      closed = true;
+      ids.clear();
+      try {
+        out.close();
+      } catch (IOException e) {
+        throw new UncheckedIOException("Could not write region operations", e);
+      }
+    }
+    delegate.shutdown();
+  }
+
+  @Override
+  public String getVersion() {
+    return delegate.getVersion();
+  }
+
+  @Override
+  public void setVarOrder(ImmutableIntArray pOrder) {
+    delegate.setVarOrder(pOrder);
+  }
+
+  @Override
+  public void reorder(PredicateOrderingStrategy pStrategy) {
+    delegate.reorder(pStrategy);
+  }
+
+  @Override
+  public synchronized Region replace(
+      Region pRegion, Region[] pOldPredicates, Region[] pNewPredicates) {
+    Region result = delegate.replace(pRegion, pOldPredicates, pNewPredicates);
+    int[] args = new int[1 + pOldPredicates.length + pNewPredicates.length];
+    args[0] = id(pRegion);
+    System.arraycopy(ids(pOldPredicates), 0, args, 1, pOldPredicates.length);
+    System.arraycopy(
+        ids(pNewPredicates), 0, args, 1 + pOldPredicates.length, pNewPredicates.length);
+    record(result, "replace", args);
+    return result;
+  }
+}
@@ -93,4 +93,11 @@ public interface RegionManager extends RegionCreator {
    * We also assume identical lengths of the old and new predicates.
    */
   Region replace(Region region, Region[] oldPredicates, Region[] newPredicates);
+
+  /**
+   * Release the resources of this RegionManager, e.g., worker threads or open files. Regions of
+   * this manager must not be used for further operations afterwards, but statistics can still be
+   * printed.
+   */
+  default void shutdown() {}
 }
@@ -136,6 +136,13 @@ public class SynchronizedRegionManager implements RegionManager {
     }
   }
 
+  @Override
+  public void shutdown() {
+    synchronized (delegate) {
+      delegate.shutdown();
+    }
+  }
+
   @Override
   public String getVersion() {
     synchronized (delegate) {
@@ -185,6 +185,11 @@ public class TimedRegionManager implements RegionManager {
         .put("Number of reorderings", orderingTimer.getNumberOfIntervals());
   }
 
+  @Override
+  public void shutdown() {
+    delegate.shutdown();
+  }
+
   @Override
   public String getVersion() {
     return delegate.getVersion();
@@ -0,0 +1,182 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.resources;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.log.LogManager;
+
+/**
+ * A limit that measures the usage of the Java heap. Before the limit itself is exceeded, it
+ * requests two levels of {@link MemoryPressure} when the heap usage reaches the respective
+ * thresholds, such that analyses can release memory. If the limit is exceeded, the analysis is
+ * stopped like for a time limit, such that the result is UNKNOWN and statistics can still be
+ * printed, instead of crashing with an {@link OutOfMemoryError} later.
+ *
+ * <p>The heap usage is measured as the usage of the old generation (cf. {@link MemoryStatistics})
+ * after the most recent garbage collection of it, which contains the long-lived data of the
+ * analysis without the garbage that accumulates between collections. If the garbage collector has
+ * no old generation or does not report its usage after collections, the current usage of the whole
+ * heap is used instead, which includes objects that are not yet collected, so in this case the
+ * thresholds should leave some slack.
+ *
+ * <p>In contrast to most other limits, this limit has mutable state (the current level of memory
+ * pressure) and may only be used by one {@link ResourceLimitChecker}.
+ */
+public class HeapUsageLimit implements ResourceLimit {
+
+  private final LogManager logger;
+  private final long maxHeap;
+  private final List<MemoryPoolMXBean> oldGenerationPools;
+
+  // all thresholds in bytes, Long.MAX_VALUE if disabled
+  private final long clearCachesThreshold;
+  private final long coarsenPrecisionThreshold;
+  private final long limit;
+  private final int limitPercent;
+
+  private MemoryPressure.Level currentLevel = MemoryPressure.Level.NORMAL;
+
+  @VisibleForTesting
+  HeapUsageLimit(
+      LogManager pLogger,
+      long pMaxHeap,
+      int pClearCachesPercent,
+      int pCoarsenPrecisionPercent,
+      int pLimitPercent) {
+    logger = pLogger;
+    maxHeap = pMaxHeap;
+    clearCachesThreshold = toBytes(pClearCachesPercent);
+    coarsenPrecisionThreshold = toBytes(pCoarsenPrecisionPercent);
+    limit = toBytes(pLimitPercent);
+    limitPercent = pLimitPercent;
+
+    oldGenerationPools = new ArrayList<>(1);
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      String name = pool.getName();
+      if (pool.getType() == MemoryType.HEAP
+          && (name.contains("Old") || name.contains("Tenured"))
+          && pool.getCollectionUsage() != null) {
+        oldGenerationPools.add(pool);
+      }
+    }
+  }
+
+  /**
+   * Create a limit for the heap usage. All values are given in percent of the maximal heap size,
+   * or as -1 to disable the respective reaction.
+   *
+   * @param pClearCachesPercent heap usage at which analyses should clear their caches
+   * @param pCoarsenPrecisionPercent heap usage at which analyses should coarsen their precision
+   * @param pLimitPercent heap usage at which the analysis is stopped
+   * @return the limit, or null if the maximal heap size is unknown
+   * @throws InvalidConfigurationException if the enabled thresholds are not in ascending order
+   */
+  public static @Nullable HeapUsageLimit create(
+      LogManager pLogger,
+      int pClearCachesPercent,
+      int pCoarsenPrecisionPercent,
+      int pLimitPercent)
+      throws InvalidConfigurationException {
+    checkArgument(pClearCachesPercent >= -1 && pClearCachesPercent <= 100);
+    checkArgument(pCoarsenPrecisionPercent >= -1 && pCoarsenPrecisionPercent <= 100);
+    checkArgument(pLimitPercent >= -1 && pLimitPercent <= 100);
+    checkOrder(
+        pClearCachesPercent, "clearing caches", pCoarsenPrecisionPercent, "coarsening precision");
+    checkOrder(pClearCachesPercent, "clearing caches", pLimitPercent, "stopping the analysis");
+    checkOrder(
+        pCoarsenPrecisionPercent,
+        "coarsening precision",
+        pLimitPercent,
+        "stopping the analysis");
+    long maxHeap = Runtime.getRuntime().maxMemory();
+    if (maxHeap == Long.MAX_VALUE) {
+      return null;
+    }
+    return new HeapUsageLimit(
+        pLogger, maxHeap, pClearCachesPercent, pCoarsenPrecisionPercent, pLimitPercent);
+  }
+
+  private static void checkOrder(int pLower, String pLowerName, int pHigher, String pHigherName)
+      throws InvalidConfigurationException {
+    if (pLower >= 0 && pHigher >= 0 && pLower > pHigher) {
+      throw new InvalidConfigurationException(
+          String.format(
+              "Heap usage threshold for %s (%d%%) must not be higher than the one for %s (%d%%).",
+              pLowerName, pLower, pHigherName, pHigher));
+    }
+  }
+
+  private long toBytes(int pPercent) {
+    return pPercent < 0 ? Long.MAX_VALUE : maxHeap / 100 * pPercent;
+  }
+
+  @Override
+  public long getCurrentValue() {
+    if (oldGenerationPools.isEmpty()) {
+      Runtime runtime = Runtime.getRuntime();
+      return runtime.totalMemory() - runtime.freeMemory();
+    }
+    long used = 0;
+    for (MemoryPoolMXBean pool : oldGenerationPools) {
+      used += pool.getCollectionUsage().getUsed();
+    }
+    return used;
+  }
+
+  @Override
+  public boolean isExceeded(long pCurrentValue) {
+    MemoryPressure.Level level;
+    if (pCurrentValue >= coarsenPrecisionThreshold) {
+      level = MemoryPressure.Level.CRITICAL;
+    } else if (pCurrentValue >= clearCachesThreshold) {
+      level = MemoryPressure.Level.HIGH;
+    } else {
+      level = MemoryPressure.Level.NORMAL;
+    }
+
+    if (level != currentLevel) {
+      logger.log(
+          level.compareTo(currentLevel) > 0 ? Level.WARNING : Level.INFO,
+          "Heap usage is",
+          (pCurrentValue * 100 / maxHeap) + "%,",
+          "changing memory pressure from",
+          currentLevel,
+          "to",
+          level);
+      currentLevel = level;
+      MemoryPressure.request(level);
+    }
+
+    return pCurrentValue >= limit;
+  }
+
+  @Override
+  public long nanoSecondsToNextCheck(long pCurrentValue) {
+    // memory usage can increase arbitrarily fast
+    return 0;
+  }
+
+  @Override
+  public String getName() {
+    if (limitPercent < 0) {
+      return "heap usage monitor";
+    }
+    return "heap usage limit of " + limitPercent + "%";
+  }
+}
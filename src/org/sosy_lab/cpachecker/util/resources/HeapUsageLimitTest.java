@@ -0,0 +1,83 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.resources;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import org.junit.After;
+import org.junit.Test;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.util.resources.MemoryPressure.Level;
+
+public class HeapUsageLimitTest {
+
+  private static final long MAX_HEAP = 1000;
+
+  private final LogManager logger = LogManager.createTestLogManager();
+
+  @After
+  public void resetMemoryPressure() {
+    MemoryPressure.request(Level.NORMAL);
+  }
+
+  @Test
+  public void thresholds() {
+    HeapUsageLimit limit = new HeapUsageLimit(logger, MAX_HEAP, 50, 70, 90);
+
+    assertThat(limit.isExceeded(499)).isFalse();
+    assertThat(MemoryPressure.getRequestedLevel()).isEqualTo(Level.NORMAL);
+
+    assertThat(limit.isExceeded(500)).isFalse();
+    assertThat(MemoryPressure.getRequestedLevel()).isEqualTo(Level.HIGH);
+
+    assertThat(limit.isExceeded(700)).isFalse();
+    assertThat(MemoryPressure.getRequestedLevel()).isEqualTo(Level.CRITICAL);
+
+    assertThat(limit.isExceeded(900)).isTrue();
+    assertThat(MemoryPressure.getRequestedLevel()).isEqualTo(Level.CRITICAL);
+
+    // memory pressure is relieved when the heap usage goes down again
+    assertThat(limit.isExceeded(600)).isFalse();
+    assertThat(MemoryPressure.getRequestedLevel()).isEqualTo(Level.HIGH);
+
+    assertThat(limit.isExceeded(100)).isFalse();
+    assertThat(MemoryPressure.getRequestedLevel()).isEqualTo(Level.NORMAL);
+  }
+
+  @Test
+  public void disabledThresholds() {
+    HeapUsageLimit limit = new HeapUsageLimit(logger, MAX_HEAP, -1, 70, -1);
+
+    assertThat(limit.isExceeded(600)).isFalse();
+    assertThat(MemoryPressure.getRequestedLevel()).isEqualTo(Level.NORMAL);
+
+    assertThat(limit.isExceeded(MAX_HEAP)).isFalse();
+    assertThat(MemoryPressure.getRequestedLevel()).isEqualTo(Level.CRITICAL);
+  }
+
+  @Test
+  public void validOrder() throws InvalidConfigurationException {
+    HeapUsageLimit.create(logger, 50, 70, 90);
+    HeapUsageLimit.create(logger, 70, 70, 70);
+    HeapUsageLimit.create(logger, 80, -1, 90);
+    HeapUsageLimit.create(logger, -1, 90, -1);
+  }
+
+  @Test
+  public void invalidOrder() {
+    assertThrows(
+        InvalidConfigurationException.class, () -> HeapUsageLimit.create(logger, 80, 70, 90));
+    assertThrows(
+        InvalidConfigurationException.class, () -> HeapUsageLimit.create(logger, 50, 95, 90));
+    assertThrows(
+        InvalidConfigurationException.class, () -> HeapUsageLimit.create(logger, 95, -1, 90));
+  }
+}
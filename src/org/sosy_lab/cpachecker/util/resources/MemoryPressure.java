@@ -0,0 +1,156 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.resources;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class coordinates the reactions of analyses to a shortage of heap memory, such that an
+ * analysis can degrade gracefully instead of crashing with an {@link OutOfMemoryError}.
+ *
+ * <p>Components that can release memory (e.g., by clearing their caches) register a {@link
+ * MemoryReducer}. When the heap usage exceeds a configured threshold, {@link HeapUsageLimit}
+ * requests a {@link Level}, and the registered reducers are called. Most components are not
+ * thread-safe, so the reducers are not called by the thread that measures the heap usage, but by
+ * the thread that registered them, when it calls {@link #reduceMemoryUsageIfRequested()} at a
+ * point where this is safe (e.g., between two iterations of the CPA algorithm).
+ *
+ * <p>Components are referenced only weakly, so registering a component does not prevent it from
+ * being garbage collected.
+ */
+public final class MemoryPressure {
+
+  /** The severity of the memory shortage. */
+  public enum Level {
+    /** Enough memory is available. */
+    NORMAL,
+
+    /** Memory is getting short, components should release memory that can be recomputed. */
+    HIGH,
+
+    /**
+     * Memory is almost exhausted, components should additionally reduce the amount of information
+     * they produce (e.g., by coarsening the precision), even if this makes the analysis slower.
+     */
+    CRITICAL,
+  }
+
+  /** A reaction of a component to memory pressure. */
+  @FunctionalInterface
+  public interface MemoryReducer<T> {
+
+    /**
+     * Release memory. This is called once for every escalation of the memory pressure, and only
+     * with levels higher than {@link Level#NORMAL}.
+     *
+     * @param owner the component that registered this reducer
+     * @param level the current level of memory pressure
+     */
+    void reduceMemoryUsage(T owner, Level level);
+  }
+
+  private static final class Registration<T> {
+
+    private final WeakReference<T> owner;
+    private final MemoryReducer<? super T> reducer;
+    private final Thread thread;
+    private int handledRequest = 0;
+
+    private Registration(T pOwner, MemoryReducer<? super T> pReducer) {
+      owner = new WeakReference<>(pOwner);
+      reducer = pReducer;
+      thread = Thread.currentThread();
+    }
+
+    private boolean isAlive() {
+      return owner.get() != null;
+    }
+
+    private void run(Level pLevel) {
+      T component = owner.get();
+      if (component != null) {
+        reducer.reduceMemoryUsage(component, pLevel);
+      }
+    }
+  }
+
+  // guarded by itself
+  private static final List<Registration<?>> registrations = new ArrayList<>();
+
+  private static volatile Level requestedLevel = Level.NORMAL;
+
+  // incremented for every escalation, such that reducers are called again
+  private static final AtomicInteger requestNumber = new AtomicInteger(0);
+
+  private MemoryPressure() {}
+
+  /**
+   * Register a component that can release memory. The reducer will be called by the current
+   * thread only.
+   */
+  public static <T> void register(T pOwner, MemoryReducer<? super T> pReducer) {
+    Registration<T> registration = new Registration<>(checkNotNull(pOwner), checkNotNull(pReducer));
+    synchronized (registrations) {
+      registrations.removeIf(r -> !r.isAlive());
+      registrations.add(registration);
+    }
+  }
+
+  /** Set the current level of memory pressure. Called by {@link HeapUsageLimit}. */
+  static synchronized void request(Level pLevel) {
+    Level previousLevel = requestedLevel;
+    requestedLevel = checkNotNull(pLevel);
+    if (pLevel.compareTo(previousLevel) > 0) {
+      requestNumber.incrementAndGet();
+    }
+  }
+
+  public static Level getRequestedLevel() {
+    return requestedLevel;
+  }
+
+  /**
+   * Call all reducers that were registered by the current thread and have not yet handled the
+   * current level of memory pressure. This is cheap if no memory pressure exists, so it can be
+   * called often.
+   */
+  public static void reduceMemoryUsageIfRequested() {
+    final Level level = requestedLevel;
+    if (level == Level.NORMAL) {
+      return;
+    }
+    final int request = requestNumber.get();
+    final Thread currentThread = Thread.currentThread();
+
+    List<Registration<?>> toRun = new ArrayList<>();
+    synchronized (registrations) {
+      for (Iterator<Registration<?>> it = registrations.iterator(); it.hasNext(); ) {
+        Registration<?> registration = it.next();
+        if (!registration.isAlive()) {
+          it.remove();
+        } else if (registration.thread == currentThread
+            && registration.handledRequest != request) {
+          registration.handledRequest = request;
+          toRun.add(registration);
+        }
+      }
+    }
+
+    // run outside of the lock, reducers may take some time
+    for (Registration<?> registration : toRun) {
+      registration.run(level);
+    }
+  }
+}
@@ -27,6 +27,7 @@ import org.sosy_lab.common.ShutdownManager;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.ShutdownNotifier.ShutdownRequestListener;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -128,6 +129,23 @@ public final class ResourceLimitChecker {
     if (options.threadTime.compareTo(TimeSpan.empty()) >= 0) {
       limits.add(ThreadCpuTimeLimit.fromNowOn(options.threadTime, Thread.currentThread()));
     }
+    if (options.heapUsage >= 0
+        || options.heapUsageClearCaches >= 0
+        || options.heapUsageCoarsenPrecision >= 0) {
+      HeapUsageLimit heapLimit =
+          HeapUsageLimit.create(
+              logger,
+              options.heapUsageClearCaches,
+              options.heapUsageCoarsenPrecision,
+              options.heapUsage);
+      if (heapLimit != null) {
+        limits.add(heapLimit);
+      } else {
+        logger.log(
+            Level.WARNING,
+            "The maximal heap size of the Java VM is unknown, heap usage threshold disabled.");
+      }
+    }
 
     ImmutableList<ResourceLimit> limitsList = limits.build();
     if (!limitsList.isEmpty()) {
@@ -196,6 +214,35 @@ public final class ResourceLimitChecker {
     )
     @TimeSpanOption(codeUnit = TimeUnit.NANOSECONDS, defaultUserUnit = TimeUnit.SECONDS, min = -1)
     private TimeSpan threadTime = TimeSpan.ofNanos(-1);
+
+    @Option(
+        secure = true,
+        name = "heap.usage",
+        description =
+            "Limit for the usage of the Java heap, in percent of the maximal heap size"
+                + " (-1 for infinite). If the limit is exceeded, the analysis is stopped"
+                + " with result UNKNOWN instead of running out of memory.")
+    @IntegerOption(min = -1, max = 100)
+    private int heapUsage = -1;
+
+    @Option(
+        secure = true,
+        name = "heap.usage.clearCaches",
+        description =
+            "Usage of the Java heap, in percent of the maximal heap size, at which analyses"
+                + " are asked to clear their caches (-1 to disable).")
+    @IntegerOption(min = -1, max = 100)
+    private int heapUsageClearCaches = -1;
+
+    @Option(
+        secure = true,
+        name = "heap.usage.coarsenPrecision",
+        description =
+            "Usage of the Java heap, in percent of the maximal heap size, at which analyses"
+                + " are asked to coarsen their precision in addition to clearing their caches"
+                + " (-1 to disable).")
+    @IntegerOption(min = -1, max = 100)
+    private int heapUsageCoarsenPrecision = -1;
   }
 
   private static class ResourceLimitCheckRunnable implements Runnable {
@@ -0,0 +1,46 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.resources;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Access to the number of bytes that were allocated on the heap by the current thread. This relies
+ * on a feature of HotSpot-based JVMs, and it is cheap enough to be queried once per analysis run,
+ * but not once per abstract state.
+ */
+public final class ThreadMemoryAllocation {
+
+  private ThreadMemoryAllocation() {}
+
+  private static final ThreadMXBean threadMxBean = ManagementFactory.getThreadMXBean();
+
+  /** Check whether {@link #readCurrentThread()} will return meaningful values. */
+  public static boolean isSupported() {
+    if (!(threadMxBean instanceof com.sun.management.ThreadMXBean)) {
+      return false;
+    }
+    com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) threadMxBean;
+    return bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled();
+  }
+
+  /**
+   * Read the number of bytes the current thread has allocated on the heap so far.
+   *
+   * @return A non-negative number of bytes, or -1 if the JVM does not support this measurement.
+   */
+  public static long readCurrentThread() {
+    if (!isSupported()) {
+      return -1;
+    }
+    return ((com.sun.management.ThreadMXBean) threadMxBean)
+        .getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+}
@@ -0,0 +1,215 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.statistics;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.function.ToLongFunction;
+import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.Concurrency;
+import org.sosy_lab.common.io.IO;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.TimeSpan;
+
+/**
+ * A registry of metrics that are exported periodically while the analysis is running, in contrast
+ * to the usual {@link org.sosy_lab.cpachecker.core.interfaces.Statistics} that are only printed at
+ * the end. This allows to monitor long-running analyses.
+ *
+ * <p>Components register a metric with a name, the object that holds the value, and a function
+ * that reads the value. The value is read only when the metrics are exported, by a separate
+ * thread, so registering a metric has no cost for the component afterwards. The read value may be
+ * slightly outdated, thus the function should just read a field or a thread-safe value like a
+ * {@link StatCounter}. If several objects register a metric with the same name (e.g., nested or
+ * parallel analyses), the sum of their values is exported.
+ *
+ * <p>Objects are referenced only weakly, and metrics are only registered if the export is
+ * enabled, i.e., after {@link #startExport(Path, TimeSpan, LogManager)} was called.
+ */
+public final class LiveMetrics {
+
+  private static final class Metric<T> {
+
+    private final WeakReference<T> owner;
+    private final ToLongFunction<? super T> value;
+
+    private Metric(T pOwner, ToLongFunction<? super T> pValue) {
+      owner = new WeakReference<>(pOwner);
+      value = pValue;
+    }
+
+    private boolean isAlive() {
+      return owner.get() != null;
+    }
+
+    private long read() {
+      T object = owner.get();
+      return object == null ? 0 : value.applyAsLong(object);
+    }
+  }
+
+  // guarded by itself, we use a LinkedHashMap to export the metrics in a stable order
+  private static final Map<String, List<Metric<?>>> metrics = new LinkedHashMap<>();
+
+  private static volatile boolean enabled = false;
+
+  // guarded by metrics
+  private static @Nullable Exporter activeExporter = null;
+
+  private LiveMetrics() {}
+
+  /**
+   * Register a metric. This is a no-op if the export of metrics is not enabled.
+   *
+   * @param pName the name of the metric, e.g., "cpa.iterations"
+   * @param pOwner the object whose value is measured
+   * @param pValue a function that reads the current value from the object
+   */
+  public static <T> void register(String pName, T pOwner, ToLongFunction<? super T> pValue) {
+    checkNotNull(pName);
+    checkNotNull(pOwner);
+    checkNotNull(pValue);
+    if (!enabled) {
+      return;
+    }
+    Metric<T> metric = new Metric<>(pOwner, pValue);
+    synchronized (metrics) {
+      List<Metric<?>> metricsWithName = metrics.computeIfAbsent(pName, k -> new ArrayList<>(1));
+      metricsWithName.removeIf(m -> !m.isAlive());
+      metricsWithName.add(metric);
+    }
+  }
+
+  /** Register a counter as metric, cf. {@link #register(String, Object, ToLongFunction)}. */
+  public static void register(String pName, StatCounter pCounter) {
+    register(pName, pCounter, StatCounter::getValue);
+  }
+
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Enable the registration of metrics and start a thread that appends the current values of all
+   * metrics as one line of JSON to the given file after each interval.
+   *
+   * @return the exporter, which needs to be stopped by calling {@link Exporter#stop()}
+   */
+  public static Exporter startExport(Path pFile, TimeSpan pInterval, LogManager pLogger)
+      throws IOException {
+    Exporter exporter = new Exporter(pFile, pInterval, pLogger);
+    synchronized (metrics) {
+      if (activeExporter != null) {
+        // a previous analysis in the same JVM was not properly stopped
+        activeExporter.thread.interrupt();
+      }
+      metrics.clear();
+      activeExporter = exporter;
+      enabled = true;
+    }
+    exporter.thread.start();
+    return exporter;
+  }
+
+  /** Produce a JSON object with the current values of all metrics. */
+  private static String snapshot(long pUptimeMillis) {
+    StringBuilder line = new StringBuilder("{");
+    line.append("\"timestamp\":").append(System.currentTimeMillis());
+    line.append(",\"uptime.ms\":").append(pUptimeMillis);
+
+    Runtime runtime = Runtime.getRuntime();
+    line.append(",\"heap.used\":").append(runtime.totalMemory() - runtime.freeMemory());
+    line.append(",\"heap.max\":").append(runtime.maxMemory());
+
+    synchronized (metrics) {
+      for (Entry<String, List<Metric<?>>> entry : metrics.entrySet()) {
+        long sum = 0;
+        for (Metric<?> metric : entry.getValue()) {
+          sum += metric.read(); // 0 for garbage-collected objects
+        }
+        line.append(",\"").append(entry.getKey()).append("\":").append(sum);
+      }
+    }
+    return line.append("}").toString();
+  }
+
+  /** The thread that writes the metrics to a file. */
+  public static final class Exporter implements Runnable {
+
+    private final Writer writer;
+    private final long intervalMillis;
+    private final LogManager logger;
+    private final Thread thread;
+    private final long startTime = System.currentTimeMillis();
+
+    private Exporter(Path pFile, TimeSpan pInterval, LogManager pLogger) throws IOException {
+      writer = IO.openOutputFile(pFile, StandardCharsets.UTF_8);
+      intervalMillis = Math.max(1, pInterval.asMillis());
+      logger = pLogger;
+      thread = Concurrency.newDaemonThread("CPAchecker live metrics exporter", this);
+    }
+
+    @Override
+    public void run() {
+      try {
+        while (true) { // no stop condition, call stop() to stop it
+          Thread.sleep(intervalMillis);
+          write();
+        }
+      } catch (InterruptedException e) {
+        // stop requested
+      } catch (IOException e) {
+        logger.logUserException(Level.WARNING, e, "Could not write live metrics");
+      }
+    }
+
+    private void write() throws IOException {
+      writer.write(snapshot(System.currentTimeMillis() - startTime));
+      writer.write("\n");
+      writer.flush();
+    }
+
+    /** Stop the export, write the final values of all metrics, and close the file. */
+    public void stop() {
+      thread.interrupt();
+      try {
+        thread.join();
+        write();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (IOException e) {
+        logger.logUserException(Level.WARNING, e, "Could not write live metrics");
+      } finally {
+        try {
+          writer.close();
+        } catch (IOException e) {
+          logger.logUserException(Level.WARNING, e, "Could not write live metrics");
+        }
+        synchronized (metrics) {
+          if (activeExporter == this) {
+            activeExporter = null;
+            enabled = false;
+            metrics.clear();
+          }
+        }
+      }
+    }
+  }
+}